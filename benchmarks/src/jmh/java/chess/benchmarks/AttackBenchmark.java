@@ -0,0 +1,54 @@
+package chess.benchmarks;
+
+import chess.data.Color;
+import chess.data.Position;
+import chess.functions.attacks.AttackMasks;
+import chess.functions.rules.CheckRules;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AttackBenchmark {
+
+    private Position[] positions;
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.load();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(640)
+    public void rookAttacks(Blackhole blackhole) {
+        for (Position position : positions) {
+            for (int square = 0; square < 64; square++) {
+                blackhole.consume(AttackMasks.rookAttacks(square, position.occupied()));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(640)
+    public void bishopAttacks(Blackhole blackhole) {
+        for (Position position : positions) {
+            for (int square = 0; square < 64; square++) {
+                blackhole.consume(AttackMasks.bishopAttacks(square, position.occupied()));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(640)
+    public void isSquareAttacked(Blackhole blackhole) {
+        for (Position position : positions) {
+            Color enemy = position.whiteToMove() ? Color.BLACK : Color.WHITE;
+            for (int square = 0; square < 64; square++) {
+                blackhole.consume(CheckRules.isSquareAttacked(position, square, enemy));
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package chess.benchmarks;
+
+import chess.functions.attacks.AttackMasks;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class-initialization cost of AttackMasks, as paid by every short-lived CLI run.
+ * Each invocation loads the engine classes into a fresh class loader, so the
+ * static initializer runs again with nothing compiled or cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 20)
+@Fork(3)
+public class AttackMasksStartupBenchmark {
+
+    private URL[] classpath;
+
+    @Setup
+    public void setup() {
+        classpath = new URL[] { AttackMasks.class.getProtectionDomain().getCodeSource().getLocation() };
+    }
+
+    @Benchmark
+    public Class<?> initialize() throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(classpath, ClassLoader.getPlatformClassLoader())) {
+            return Class.forName(AttackMasks.class.getName(), true, loader);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package chess.benchmarks;
+
+import chess.data.Color;
+import chess.data.Position;
+import chess.functions.attacks.AttackMasks;
+import chess.functions.attacks.BatchAttacks;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Side-wide attack maps for a batch of positions: Vector API lanes with
+ * Kogge-Stone fills against per-piece scalar magic lookups. BatchAttacksTest checks
+ * the kernels against AttackMasks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatchAttackBenchmark {
+
+    private static final int COUNT = 4096;
+
+    private final long[][] bitboards = new long[12][COUNT];
+    private final long[] occupied = new long[COUNT];
+    private final long[] out = new long[COUNT];
+
+    @Setup
+    public void setup() {
+        Position[] positions = BenchmarkPositions.random(COUNT, 38);
+        for (int i = 0; i < COUNT; i++) {
+            for (int piece = 0; piece < 12; piece++) {
+                bitboards[piece][i] = positions[i].bitboards()[piece];
+            }
+            occupied[i] = positions[i].occupied();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long[] vectorAttackMaps() {
+        BatchAttacks.attackMaps(bitboards, Color.WHITE, out, COUNT);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long[] scalarAttackMaps() {
+        for (int i = 0; i < COUNT; i++) {
+            out[i] = scalarAttackMap(i, Color.WHITE);
+        }
+        return out;
+    }
+
+    private long scalarAttackMap(int position, Color color) {
+        int base = color == Color.WHITE ? 0 : 6;
+        long queens = bitboards[base + 4][position];
+        return forEachSquare(bitboards[base][position], square -> AttackMasks.pawnAttacks(square, color)) |
+                forEachSquare(bitboards[base + 1][position], AttackMasks::knightAttacks) |
+                forEachSquare(bitboards[base + 2][position] | queens,
+                        square -> AttackMasks.bishopAttacks(square, occupied[position])) |
+                forEachSquare(bitboards[base + 3][position] | queens,
+                        square -> AttackMasks.rookAttacks(square, occupied[position])) |
+                forEachSquare(bitboards[base + 5][position], AttackMasks::kingAttacks);
+    }
+
+    private static long forEachSquare(long pieces, IntToLongFunction attacks) {
+        long union = 0L;
+        while (pieces != 0) {
+            union |= attacks.applyAsLong(Long.numberOfTrailingZeros(pieces));
+            pieces &= pieces - 1;
+        }
+        return union;
+    }
+}
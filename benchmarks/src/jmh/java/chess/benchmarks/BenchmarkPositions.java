@@ -0,0 +1,60 @@
+package chess.benchmarks;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fixed corpus shared by all benchmarks, so numbers stay comparable across commits.
+ * Covers the opening, open middlegames, castling and en passant positions and endgames.
+ */
+final class BenchmarkPositions {
+
+    static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4",
+            "2r3k1/pp3ppp/2n1b3/q2pP3/3P4/P1r2N2/1B1Q1PPP/R4RK1 w - - 0 19",
+            "8/8/4k3/8/2K5/8/3Q4/8 w - - 0 60",
+    };
+
+    private BenchmarkPositions() {} // Utility class
+
+    static Position[] load() {
+        Position[] positions = new Position[FENS.length];
+        for (int i = 0; i < FENS.length; i++) {
+            positions[i] = FenParser.parse(FENS[i]);
+        }
+        return positions;
+    }
+
+    // Positions reached by seeded random playouts from the fixed corpus, for batch benchmarks
+    static Position[] random(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Position[] corpus = load();
+        Position[] positions = new Position[count];
+        for (int i = 0; i < count; i++) {
+            Position position = corpus[random.nextInt(corpus.length)];
+            int plies = random.nextInt(40);
+            for (int ply = 0; ply < plies; ply++) {
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position = MoveApplication.applyMove(position, moves.get(random.nextInt(moves.size())));
+            }
+            positions[i] = position;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,54 @@
+package chess.benchmarks;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.parser.FenParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveApplicationBenchmark {
+
+    // One representative move per special-move flag (plus a plain capture)
+    @Param({"NORMAL", "CAPTURE", "PROMOTION", "EN_PASSANT", "CASTLING"})
+    public String flag;
+
+    private Position position;
+    private Move move;
+
+    @Setup
+    public void setup() {
+        switch (flag) {
+            case "NORMAL" -> {
+                position = FenParser.parse(BenchmarkPositions.FENS[0]);
+                move = Move.normal(12, 28); // e2e4
+            }
+            case "CAPTURE" -> {
+                position = FenParser.parse(BenchmarkPositions.FENS[1]);
+                move = Move.normal(36, 51); // Ne5xd7
+            }
+            case "PROMOTION" -> {
+                position = FenParser.parse(BenchmarkPositions.FENS[4]);
+                move = Move.promotion(51, 58, Move.PROMO_QUEEN); // d7xc8=Q
+            }
+            case "EN_PASSANT" -> {
+                position = FenParser.parse(BenchmarkPositions.FENS[6]);
+                move = Move.enPassant(36, 45); // e5xf6 e.p.
+            }
+            case "CASTLING" -> {
+                position = FenParser.parse(BenchmarkPositions.FENS[1]);
+                move = Move.castling(4, 6); // O-O
+            }
+            default -> throw new IllegalArgumentException("Unknown flag: " + flag);
+        }
+    }
+
+    @Benchmark
+    public Position applyMove() {
+        return MoveApplication.applyMove(position, move);
+    }
+}
@@ -0,0 +1,49 @@
+package chess.benchmarks;
+
+import chess.data.Position;
+import chess.functions.moves.MoveGeneration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveGenerationBenchmark {
+
+    private Position[] positions;
+    private final int[] buffer = new int[MoveGeneration.MAX_MOVES];
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.load();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void generateLegalMoves(Blackhole blackhole) {
+        for (Position position : positions) {
+            blackhole.consume(MoveGeneration.generateLegalMoves(position));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void generatePseudoLegalMoves(Blackhole blackhole) {
+        for (Position position : positions) {
+            blackhole.consume(MoveGeneration.generatePseudoLegalMoves(position));
+        }
+    }
+
+    // Encoded moves into a reused buffer: gc.alloc.rate.norm should read 0 B/op
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public int generatePseudoLegalMovesEncoded() {
+        int total = 0;
+        for (Position position : positions) {
+            total += MoveGeneration.generatePseudoLegalMoves(position, buffer);
+        }
+        return total;
+    }
+}
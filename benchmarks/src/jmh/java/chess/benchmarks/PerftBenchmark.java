@@ -0,0 +1,37 @@
+package chess.benchmarks;
+
+import chess.data.Position;
+import chess.functions.moves.Perft;
+import chess.functions.parser.FenParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft exercises generation, legality checks and move application together,
+ * so it shows end-to-end gains from board representation changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PerftBenchmark {
+
+    @Param({ "startpos", "kiwipete" })
+    public String position;
+
+    private Position root;
+
+    @Setup
+    public void setup() {
+        root = switch (position) {
+            case "startpos" -> FenParser.standPos();
+            case "kiwipete" -> FenParser.parse(BenchmarkPositions.FENS[1]);
+            default -> throw new IllegalArgumentException("Unknown position: " + position);
+        };
+    }
+
+    @Benchmark
+    public long perft3() {
+        return Perft.perft(root, 3);
+    }
+}
@@ -0,0 +1,31 @@
+package chess.benchmarks;
+
+import chess.data.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PieceLookupBenchmark {
+
+    private Position[] positions;
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.load();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(640)
+    public int pieceAt() {
+        int sum = 0;
+        for (Position position : positions) {
+            for (int square = 0; square < 64; square++) {
+                sum += position.pieceAt(square);
+            }
+        }
+        return sum;
+    }
+}
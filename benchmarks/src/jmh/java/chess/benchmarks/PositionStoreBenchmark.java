@@ -0,0 +1,49 @@
+package chess.benchmarks;
+
+import chess.data.Position;
+import chess.store.PositionStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scan of a position set (counting bishop pairs) over Position records and over
+ * a PositionStore, on and off the heap. PositionStoreTest checks the round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PositionStoreBenchmark {
+
+    private static final int COUNT = 1 << 16;
+
+    @Param({"heap", "offheap"})
+    public String storage;
+
+    private Position[] positions;
+    private PositionStore store;
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.random(COUNT, 39);
+        store = storage.equals("heap") ? PositionStore.onHeap() : PositionStore.offHeap();
+        for (Position position : positions) {
+            store.append(position);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long scanRecords() {
+        return Arrays.stream(positions).parallel()
+                .filter(position -> Long.bitCount(position.bitboards()[2]) >= 2)
+                .count();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public long scanStore() {
+        return store.parallelCount(view -> Long.bitCount(view.bitboard(2)) >= 2);
+    }
+}
@@ -0,0 +1,39 @@
+package chess.benchmarks;
+
+import chess.data.Position;
+import chess.search.Search;
+import chess.search.SearchLimits;
+import chess.search.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth search over the benchmark positions with a fresh table each time,
+ * as in Bench. Tracks the cost of search-side changes such as instrumentation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(3)
+public class SearchBenchmark {
+
+    private Position[] positions;
+    private TranspositionTable table;
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.load();
+        table = new TranspositionTable(16);
+    }
+
+    @Benchmark
+    public long searchDepth4() {
+        long nodes = 0;
+        for (Position position : positions) {
+            table.clear();
+            nodes += new Search(table).search(position, SearchLimits.depth(4)).nodes();
+        }
+        return nodes;
+    }
+}
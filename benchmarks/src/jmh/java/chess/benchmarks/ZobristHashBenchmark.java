@@ -0,0 +1,37 @@
+package chess.benchmarks;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.hash.ZobristHash;
+import chess.functions.parser.FenParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ZobristHashBenchmark {
+
+    private Position position;
+    private Move move;
+
+    @Setup
+    public void setup() {
+        position = FenParser.parse(BenchmarkPositions.FENS[1]);
+        move = Move.normal(21, 23); // Qf3-h3
+    }
+
+    @Benchmark
+    public long computeHash() {
+        return ZobristHash.computeHash(position.bitboards(), position.whiteToMove(),
+                position.castlingRights(), position.enPassantSquare());
+    }
+
+    @Benchmark
+    public long incrementalUpdate() {
+        // White queen (index 4) takes the black pawn (index 6) on h3
+        return ZobristHash.updateHashForNormalMove(position.zobristHash(), 4, 6, position,
+                -1, position.castlingRights(), move);
+    }
+}
@@ -0,0 +1,314 @@
+package chess.analysis;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+import chess.search.Search;
+import chess.search.SearchLimits;
+import chess.search.SearchResult;
+import chess.search.SearchStats;
+import chess.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Embeddable analysis front end: requests are searched on a fixed pool of workers,
+ * each with its own Search and transposition table. At most {@code queueCapacity}
+ * requests wait behind the running ones; {@link #submit} blocks for room and
+ * {@link #trySubmit} fails fast, so producers feel the backpressure.
+ *
+ * Requests may ask for several lines (MultiPV). Results that reached their requested
+ * depth are kept in an LRU cache keyed by (Zobrist key, limits, lines), and identical
+ * requests already in flight share one search.
+ * Node and time budgets give depths that vary from run to run, so requests that
+ * stop on them rarely reach their depth and are seldom cached.
+ */
+public final class AnalysisService implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int DEFAULT_CACHE_ENTRIES = 65536;
+    public static final int DEFAULT_HASH_MB = 16;
+
+    private record Key(long zobristHash, int depth, long nodes, long timeMillis, int lines) {}
+
+    private final ExecutorService workers;
+    private final ThreadLocal<Search> searches;
+    private final List<Search> allSearches = new CopyOnWriteArrayList<>();
+    private final Semaphore slots;
+    private final Map<Key, List<SearchResult>> cache;
+    private final Map<Key, CompletableFuture<List<SearchResult>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong searchesRun = new AtomicLong();
+
+    public AnalysisService(int threads, int queueCapacity, int cacheEntries, int hashMb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1, got: " + threads);
+        }
+        if (queueCapacity < 0 || cacheEntries < 0) {
+            throw new IllegalArgumentException("Queue capacity and cache size cannot be negative");
+        }
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "analysis-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.searches = ThreadLocal.withInitial(() -> {
+            Search search = new Search(new TranspositionTable(hashMb));
+            allSearches.add(search);
+            return search;
+        });
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<SearchResult>> eldest) {
+                return size() > cacheEntries;
+            }
+        };
+    }
+
+    public static AnalysisService withDefaults() {
+        return new AnalysisService(Runtime.getRuntime().availableProcessors(),
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_ENTRIES, DEFAULT_HASH_MB);
+    }
+
+    public CompletableFuture<SearchResult> submit(String fen, SearchLimits limits) throws InterruptedException {
+        return submit(FenParser.parse(fen), limits);
+    }
+
+    public CompletableFuture<SearchResult> submit(Position position, SearchLimits limits) throws InterruptedException {
+        return submit(position, limits, 1).thenApply(lines -> lines.get(0));
+    }
+
+    // Waits for a queue slot unless the answer is cached or already being searched; lines come best first
+    public CompletableFuture<List<SearchResult>> submit(Position position, SearchLimits limits, int lines)
+            throws InterruptedException {
+        Key key = key(position, limits, lines);
+        CompletableFuture<List<SearchResult>> shared = lookup(key);
+        if (shared != null) {
+            return shared;
+        }
+        slots.acquire();
+        return start(position, limits, key);
+    }
+
+    public CompletableFuture<SearchResult> trySubmit(Position position, SearchLimits limits) {
+        return trySubmit(position, limits, 1).thenApply(lines -> lines.get(0));
+    }
+
+    // Fails with RejectedExecutionException instead of waiting when the queue is full
+    public CompletableFuture<List<SearchResult>> trySubmit(Position position, SearchLimits limits, int lines) {
+        Key key = key(position, limits, lines);
+        CompletableFuture<List<SearchResult>> shared = lookup(key);
+        if (shared != null) {
+            return shared;
+        }
+        if (!slots.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Analysis queue is full"));
+        }
+        return start(position, limits, key);
+    }
+
+    public long cacheHits() {
+        return cacheHits.get();
+    }
+
+    public long searchesRun() {
+        return searchesRun.get();
+    }
+
+    // Search counters summed over the workers; a snapshot, as workers keep counting
+    public SearchStats stats() {
+        SearchStats total = SearchStats.EMPTY;
+        for (Search search : allSearches) {
+            total = total.plus(search.stats());
+        }
+        return total;
+    }
+
+    private static Key key(Position position, SearchLimits limits, int lines) {
+        if (lines < 1) {
+            throw new IllegalArgumentException("Line count must be at least 1, got: " + lines);
+        }
+        // Requests with different budgets must not share a search
+        return new Key(position.zobristHash(), limits.depth(), limits.nodes(), limits.timeMillis(), lines);
+    }
+
+    private CompletableFuture<List<SearchResult>> lookup(Key key) {
+        List<SearchResult> cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<List<SearchResult>> running = inFlight.get(key);
+        if (running != null) {
+            cacheHits.incrementAndGet();
+        }
+        return running;
+    }
+
+    private CompletableFuture<List<SearchResult>> start(Position position, SearchLimits limits, Key key) {
+        CompletableFuture<List<SearchResult>> future = new CompletableFuture<>();
+        CompletableFuture<List<SearchResult>> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            // Lost a race with an identical request
+            slots.release();
+            cacheHits.incrementAndGet();
+            return running;
+        }
+
+        try {
+            workers.execute(() -> {
+                List<SearchResult> result = null;
+                Throwable error = null;
+                try {
+                    result = searches.get().search(position,
+                            new long[] { position.zobristHash() }, limits, key.lines(), lines -> {});
+                    searchesRun.incrementAndGet();
+                    if (result.get(0).depth() == limits.depth()) {
+                        synchronized (cache) {
+                            cache.put(key, result);
+                        }
+                    }
+                } catch (Throwable e) {
+                    // Errors too, or the callers would wait forever
+                    error = e;
+                }
+                // Free the slot first, so callers woken by the result can submit again
+                inFlight.remove(key, future);
+                slots.release();
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            slots.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // Leave the remaining searches to the daemon workers
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stand-in front end: one request per line on stdin, one result line per request
+     * on stdout in completion order, prefixed with the request's line number.
+     *
+     * Request: {@code <fen> [depth N] [nodes N] [movetime MS] [multipv N]}; with more
+     * than one line, every line is printed as {@code <id> multipv <k> ...}
+     * Usage: AnalysisService [threads] [queue capacity] [cache entries] [hash MB]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int queue = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_QUEUE_CAPACITY;
+        int cacheEntries = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CACHE_ENTRIES;
+        int hashMb = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_HASH_MB;
+
+        AnalysisService service = new AnalysisService(threads, queue, cacheEntries, hashMb);
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            String line;
+            int id = 0;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int request = ++id;
+                CompletableFuture<List<SearchResult>> result;
+                try {
+                    String[] tokens = line.trim().split("\\s+");
+                    int fenFields = Math.min(6, tokens.length);
+                    Position position = FenParser.parse(String.join(" ", Arrays.copyOf(tokens, fenFields)));
+                    result = service.submit(position, parseLimits(tokens, fenFields), parseLines(tokens, fenFields));
+                } catch (IllegalArgumentException e) {
+                    result = CompletableFuture.failedFuture(e);
+                }
+                result.whenComplete((lines, error) -> {
+                    synchronized (System.out) {
+                        if (error != null) {
+                            System.out.println(request + " error " + error.getMessage());
+                        } else if (lines.size() == 1) {
+                            System.out.println(request + " " + format(lines.get(0)));
+                        } else {
+                            for (int k = 0; k < lines.size(); k++) {
+                                System.out.println(request + " multipv " + (k + 1) + " " + format(lines.get(k)));
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            service.close(); // Waits for the remaining searches
+        }
+        System.err.printf("%d searches, %d answered from cache%n", service.searchesRun(), service.cacheHits());
+        System.err.println(service.stats());
+    }
+
+    private static SearchLimits parseLimits(String[] tokens, int from) {
+        int depth = SearchLimits.MAX_DEPTH;
+        long nodes = 0;
+        long millis = 0;
+        for (int i = from; i + 1 < tokens.length; i += 2) {
+            switch (tokens[i]) {
+                case "depth" -> depth = Integer.parseInt(tokens[i + 1]);
+                case "nodes" -> nodes = Long.parseLong(tokens[i + 1]);
+                case "movetime" -> millis = Long.parseLong(tokens[i + 1]);
+                case "multipv" -> {}
+                default -> throw new IllegalArgumentException("Unknown limit: " + tokens[i]);
+            }
+        }
+        if (depth == SearchLimits.MAX_DEPTH && nodes == 0 && millis == 0) {
+            throw new IllegalArgumentException("Request needs a depth, nodes or movetime limit");
+        }
+        return new SearchLimits(depth, nodes, millis);
+    }
+
+    private static int parseLines(String[] tokens, int from) {
+        for (int i = from; i + 1 < tokens.length; i += 2) {
+            if (tokens[i].equals("multipv")) {
+                return Integer.parseInt(tokens[i + 1]);
+            }
+        }
+        return 1;
+    }
+
+    private static String format(SearchResult result) {
+        String score = result.isMateScore() ? "mate " + result.mateInMoves() : "cp " + result.score();
+        String pv = result.principalVariation().stream().map(Move::toAlgebraic).collect(Collectors.joining(" "));
+        return "bestmove " + (result.bestMove() == null ? "(none)" : result.bestMove().toAlgebraic()) +
+                " score " + score + " depth " + result.depth() + " nodes " + result.nodes() + " pv " + pv;
+    }
+}
@@ -0,0 +1,5 @@
+package chess.book;
+
+import chess.data.Move;
+
+public record BookEntry(Move move, int weight, int learn) {}
@@ -0,0 +1,104 @@
+package chess.book;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.hash.ZobristHash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only Polyglot ".bin" book. The file is memory-mapped and searched in place:
+ * entries are 16 bytes (big endian key u64, move u16, weight u16, learn u32) sorted
+ * by key, so a probe is one binary search plus a short scan.
+ */
+public final class PolyglotBook {
+
+    static final int ENTRY_SIZE = 16;
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+
+    private PolyglotBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_SIZE;
+    }
+
+    public static PolyglotBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0) {
+                throw new IOException("Not a Polyglot book (size is not a multiple of 16): " + file);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Polyglot book too large to map: " + file);
+            }
+            return new PolyglotBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    public List<BookEntry> entries(Position position) {
+        long key = ZobristHash.computePolyglotKey(position);
+        List<BookEntry> found = new ArrayList<>();
+
+        for (int i = lowerBound(key); i < entryCount && keyAt(i) == key; i++) {
+            int offset = i * ENTRY_SIZE;
+            int move = entries.getShort(offset + 8) & 0xFFFF;
+            int weight = entries.getShort(offset + 10) & 0xFFFF;
+            int learn = entries.getInt(offset + 12);
+            found.add(new BookEntry(PolyglotMoves.decode(position, move), weight, learn));
+        }
+        return found;
+    }
+
+    // Weighted random choice among the book moves of the position
+    public Optional<Move> pickMove(Position position, RandomGenerator random) {
+        List<BookEntry> candidates = entries(position);
+        int total = 0;
+        for (BookEntry entry : candidates) {
+            total += entry.weight();
+        }
+        if (total == 0) {
+            return Optional.empty();
+        }
+
+        int pick = random.nextInt(total);
+        for (BookEntry entry : candidates) {
+            pick -= entry.weight();
+            if (pick < 0) {
+                return Optional.of(entry.move());
+            }
+        }
+        throw new IllegalStateException("Weighted pick out of range");
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    // First entry whose key is >= key (keys are compared unsigned)
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
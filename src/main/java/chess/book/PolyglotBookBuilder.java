@@ -0,0 +1,134 @@
+package chess.book;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.errors.ChessEngineException;
+import chess.functions.hash.ZobristHash;
+import chess.functions.moves.MoveApplication;
+import chess.protocol.PGNImporter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles PGN games into a Polyglot book. Every move in the first {@code maxPly}
+ * plies scores 2 for a win, 1 for a draw (or unknown result) and 0 for a loss,
+ * from the mover's point of view; moves that never scored are left out.
+ * Games that fail to parse are skipped and counted.
+ */
+public final class PolyglotBookBuilder {
+
+    private final int maxPly;
+    private final Map<Long, Map<Integer, Long>> scores = new HashMap<>();
+    private long skippedGames;
+
+    public PolyglotBookBuilder(int maxPly) {
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("Book depth must be at least one ply, got: " + maxPly);
+        }
+        this.maxPly = maxPly;
+    }
+
+    public PolyglotBookBuilder addPgn(Reader pgn) {
+        PGNImporter.forEachRawGame(pgn, raw -> {
+            PGNImporter.ImportedGame game;
+            try {
+                game = raw.parse();
+            } catch (ChessEngineException | IllegalArgumentException e) {
+                skippedGames++;
+                return;
+            }
+            addGame(game);
+        });
+        return this;
+    }
+
+    public long skippedGames() {
+        return skippedGames;
+    }
+
+    public PolyglotBookBuilder addGame(PGNImporter.ImportedGame game) {
+        Position position = game.start();
+        List<Move> moves = game.moves();
+
+        for (int ply = 0; ply < Math.min(maxPly, moves.size()); ply++) {
+            Move move = moves.get(ply);
+            int score = scoreFor(game.result(), position.whiteToMove());
+
+            scores.computeIfAbsent(ZobristHash.computePolyglotKey(position), key -> new HashMap<>())
+                    .merge(PolyglotMoves.encode(move), (long) score, Long::sum);
+            position = MoveApplication.applyMove(position, move);
+        }
+        return this;
+    }
+
+    private static int scoreFor(String result, boolean whiteMoved) {
+        return switch (result) {
+            case "1-0" -> whiteMoved ? 2 : 0;
+            case "0-1" -> whiteMoved ? 0 : 2;
+            default -> 1;
+        };
+    }
+
+    public void write(Path file) throws IOException {
+        List<long[]> entries = new ArrayList<>(); // {key, move, score}
+        long maxScore = 1;
+        for (Map.Entry<Long, Map<Integer, Long>> position : scores.entrySet()) {
+            for (Map.Entry<Integer, Long> move : position.getValue().entrySet()) {
+                if (move.getValue() > 0) {
+                    entries.add(new long[] { position.getKey(), move.getKey(), move.getValue() });
+                    maxScore = Math.max(maxScore, move.getValue());
+                }
+            }
+        }
+
+        // Polyglot readers expect ascending keys, best move first within a key
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        ByteBuffer buffer = ByteBuffer.allocate(entries.size() * PolyglotBook.ENTRY_SIZE);
+        for (long[] entry : entries) {
+            // Scale into the 16-bit weight field, keeping every stored move selectable
+            long weight = maxScore > 0xFFFF ? Math.max(1, entry[2] * 0xFFFF / maxScore) : entry[2];
+            buffer.putLong(entry[0]);
+            buffer.putShort((short) entry[1]);
+            buffer.putShort((short) weight);
+            buffer.putInt(0);
+        }
+        buffer.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // Usage: PolyglotBookBuilder <games.pgn> <book.bin> [max plies]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PolyglotBookBuilder <games.pgn> <book.bin> [max plies]");
+            System.exit(1);
+        }
+        int maxPly = args.length > 2 ? Integer.parseInt(args[2]) : 24;
+
+        PolyglotBookBuilder builder = new PolyglotBookBuilder(maxPly);
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            builder.addPgn(reader);
+        }
+        builder.write(Path.of(args[1]));
+        if (builder.skippedGames() > 0) {
+            System.err.printf("%d games skipped%n", builder.skippedGames());
+        }
+    }
+}
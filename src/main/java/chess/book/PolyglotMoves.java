@@ -0,0 +1,47 @@
+package chess.book;
+
+import chess.data.Move;
+import chess.data.PieceType;
+import chess.data.Position;
+
+/**
+ * Polyglot move encoding:
+ * Bits  0–5   : destination square
+ * Bits  6–11  : origin square
+ * Bits 12–14  : promotion piece: 0=none, 1=knight, 2=bishop, 3=rook, 4=queen
+ * Castling is stored as the king capturing its own rook (e1h1, e1a1, e8h8, e8a8).
+ */
+final class PolyglotMoves {
+
+    private PolyglotMoves() {} // Utility class
+
+    static int encode(Move move) {
+        int from = move.from();
+        int to = move.to();
+        if (move.isCastling()) {
+            to = to > from ? to + 1 : to - 2; // King destination -> rook square
+        }
+        int promotion = move.isPromotion() ? move.promotionType() + 1 : 0;
+        return to | from << 6 | promotion << 12;
+    }
+
+    static Move decode(Position position, int encoded) {
+        int to = encoded & 0x3F;
+        int from = (encoded >> 6) & 0x3F;
+        int promotion = (encoded >> 12) & 0x7;
+
+        if (promotion != 0) {
+            return Move.promotion(from, to, promotion - 1);
+        }
+
+        int piece = position.pieceAt(from);
+        if (PieceType.isKing(piece) && PieceType.isRook(position.pieceAt(to)) &&
+                position.pieceAt(to) / 6 == piece / 6) {
+            return Move.castling(from, to > from ? from + 2 : from - 2);
+        }
+        if (PieceType.isPawn(piece) && to == position.enPassantSquare()) {
+            return Move.enPassant(from, to);
+        }
+        return Move.normal(from, to);
+    }
+}
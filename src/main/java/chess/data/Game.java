@@ -6,19 +6,19 @@ import java.util.List;
 
 public record Game(
         Position position,
-        List<Position> history,
+        long[] history,             // Zobrist keys since the last irreversible move, current last
         GameState state,
         List<Move> legalMoves,
-        List<Move> moveHistory
+        MoveHistory moveHistory
 ) {
     public static Game newStandardGame() {
         Position starPos = FenParser.standPos();
         return new Game(
                 starPos,
-                List.of(starPos),
+                new long[] { starPos.zobristHash() },
                 new GameState.Ongoing(),
                 List.of(),
-                List.of()
+                MoveHistory.empty()
         );
     }
 
@@ -26,10 +26,10 @@ public record Game(
         Position fenGame = FenParser.parse(FEN);
         return new Game(
                 fenGame,
-                List.of(fenGame),
+                new long[] { fenGame.zobristHash() },
                 new GameState.Ongoing(),
                 List.of(),
-                List.of()
+                MoveHistory.empty()
         );
     }
 
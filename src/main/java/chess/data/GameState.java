@@ -11,5 +11,5 @@ public sealed interface GameState
     record Stalemate() implements GameState {}
 
     enum WinType { CHECKMATE, RESIGNATION, TIME }
-    enum DrawType { STALEMATE, REPETITION, FIFTY_MOVE, INSUFFICIENT_MATERIAL, AGREEMENT }
+    enum DrawType { STALEMATE, REPETITION, FIFTY_MOVE, INSUFFICIENT_MATERIAL, AGREEMENT, ADJUDICATION }
 }
\ No newline at end of file
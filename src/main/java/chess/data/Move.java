@@ -108,7 +108,7 @@ public record Move(int encoded) {
     }
 
     // Utility methods
-    private static int encode(int from, int to, int promoType, int specialFlag) {
+    public static int encode(int from, int to, int promoType, int specialFlag) {
         validateSquare(from, "from");
         validateSquare(to, "to");
 
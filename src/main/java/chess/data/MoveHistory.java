@@ -0,0 +1,84 @@
+package chess.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable move list backed by a packed int[] of encoded moves.
+ * Games descending from the same parent share one buffer: appending to the
+ * newest history claims the next slot in place (O(1)), while appending to an
+ * older history (a branch) copies its prefix into a fresh buffer.
+ * Move objects are only created on access.
+ */
+public final class MoveHistory extends AbstractList<Move> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final MoveHistory EMPTY = new MoveHistory(new Buffer(new int[0], 0), 0);
+
+    private final Buffer buffer;
+    private final int size;
+
+    // Slots below used are written exactly once and never change afterwards
+    private static final class Buffer {
+        final int[] moves;
+        final AtomicInteger used;
+
+        Buffer(int[] moves, int used) {
+            this.moves = moves;
+            this.used = new AtomicInteger(used);
+        }
+    }
+
+    private MoveHistory(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    public static MoveHistory empty() {
+        return EMPTY;
+    }
+
+    public static MoveHistory copyOf(List<Move> moves) {
+        if (moves instanceof MoveHistory history) {
+            return history;
+        }
+        int[] encoded = new int[Math.max(INITIAL_CAPACITY, moves.size())];
+        for (int i = 0; i < moves.size(); i++) {
+            encoded[i] = moves.get(i).encoded();
+        }
+        return new MoveHistory(new Buffer(encoded, moves.size()), moves.size());
+    }
+
+    public MoveHistory append(Move move) {
+        int[] moves = buffer.moves;
+        if (size < moves.length && buffer.used.compareAndSet(size, size + 1)) {
+            moves[size] = move.encoded();
+            return new MoveHistory(buffer, size + 1);
+        }
+
+        // Buffer is full or another history already extended it: copy our prefix
+        int[] grown = Arrays.copyOf(moves, Math.max(INITIAL_CAPACITY, size * 2));
+        grown[size] = move.encoded();
+        return new MoveHistory(new Buffer(grown, size + 1), size + 1);
+    }
+
+    public int encodedAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return buffer.moves[index];
+    }
+
+    @Override
+    public Move get(int index) {
+        return Move.fromEncoded(encodedAt(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
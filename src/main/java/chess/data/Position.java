@@ -4,6 +4,7 @@ import java.util.Arrays;
 
 public record Position(
         long[] bitboards,           // [wP, wN, wB, wR, wQ, wK, bP, bN, bB, bR, bQ, bK]
+        byte[] mailbox,             // Bitboard index of the piece on each square, -1 if empty
         boolean whiteToMove,
         byte castlingRights,
         int enPassantSquare,       // -1 if none
@@ -14,19 +15,54 @@ public record Position(
         long blackPieces,           // Cached for performance
         long zobristHash
 ) {
-    // Factory method for creating positions
+    // Factory method for creating positions; the mailbox is derived from the bitboards
     public static Position create(long[] bitboards, boolean whiteToMove,
                                   byte castlingRights, int enPassantSquare,
                                   int halfMoveClock, int fullMoveNumber, long zobristHash) {
+        return create(bitboards, mailboxOf(bitboards), whiteToMove, castlingRights,
+                enPassantSquare, halfMoveClock, fullMoveNumber, zobristHash);
+    }
+
+    // Factory method for callers that keep the mailbox in sync themselves (move application)
+    public static Position create(long[] bitboards, byte[] mailbox, boolean whiteToMove,
+                                  byte castlingRights, int enPassantSquare,
+                                  int halfMoveClock, int fullMoveNumber, long zobristHash) {
         long white = bitboards[0] | bitboards[1] | bitboards[2] |
                 bitboards[3] | bitboards[4] | bitboards[5];
         long black = bitboards[6] | bitboards[7] | bitboards[8] |
                 bitboards[9] | bitboards[10] | bitboards[11];
         long occupied = white | black;
 
-        return new Position(bitboards, whiteToMove, castlingRights,
+        Position position = new Position(bitboards, mailbox, whiteToMove, castlingRights,
                 enPassantSquare, halfMoveClock, fullMoveNumber,
                 occupied, white, black, zobristHash);
+        assert position.isConsistent() : "Mailbox out of sync with bitboards";
+        return position;
+    }
+
+    public static byte[] mailboxOf(long[] bitboards) {
+        byte[] mailbox = new byte[64];
+        Arrays.fill(mailbox, (byte) -1);
+        for (int piece = 0; piece < 12; piece++) {
+            long pieces = bitboards[piece];
+            while (pieces != 0) {
+                mailbox[Long.numberOfTrailingZeros(pieces)] = (byte) piece;
+                pieces &= pieces - 1;
+            }
+        }
+        return mailbox;
+    }
+
+    // True if no two bitboards overlap and the mailbox agrees with them on every square
+    public boolean isConsistent() {
+        long seen = 0L;
+        for (long pieces : bitboards) {
+            if ((seen & pieces) != 0) {
+                return false;
+            }
+            seen |= pieces;
+        }
+        return Arrays.equals(mailbox, mailboxOf(bitboards));
     }
 
     public long friendlyPieces() {
@@ -38,13 +74,7 @@ public record Position(
     }
 
     public int pieceAt(int square) {
-        long mask = 1L << square;
-        for (int piece = 0; piece < 12; piece++) {
-            if ((bitboards[piece] & mask) != 0) {
-                return piece;
-            }
-        }
-        return -1;
+        return mailbox[square];
     }
 
     @Override
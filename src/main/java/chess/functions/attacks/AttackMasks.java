@@ -9,16 +9,19 @@ public class AttackMasks {
     private static final long[] KING_ATTACKS = new long[64];
     private static final long[][] PAWN_ATTACKS = new long[2][64]; // [color][square]
 
-    // Magic bitboard tables
-    private static long[] ROOK_MAGICS = new long[64];
+    // Magic bitboard tables: every rook and bishop attack set lives in one shared array,
+    // each square owning the slice that starts at its offset ("fancy" magics)
+    private static final long[] ROOK_MAGICS = MagicNumbers.ROOK_MAGICS;
+    private static final int[] ROOK_SHIFTS = MagicNumbers.ROOK_SHIFTS;
     private static final long[] ROOK_MASKS = new long[64];
-    private static final int[] ROOK_BITS = new int[64];
-    private static final long[][] ROOK_ATTACKS = new long[64][];
+    private static final int[] ROOK_OFFSETS = new int[64];
 
-    private static long[] BISHOP_MAGICS = new long[64];
+    private static final long[] BISHOP_MAGICS = MagicNumbers.BISHOP_MAGICS;
+    private static final int[] BISHOP_SHIFTS = MagicNumbers.BISHOP_SHIFTS;
     private static final long[] BISHOP_MASKS = new long[64];
-    private static final int[] BISHOP_BITS = new int[64];
-    private static final long[][] BISHOP_ATTACKS = new long[64][];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+
+    private static final long[] SLIDER_ATTACKS = new long[layoutSliderTables()];
 
     static {
         initializeAllTables();
@@ -26,33 +29,94 @@ public class AttackMasks {
 
     private AttackMasks() {} // Utility class
 
-    // Public API for attack calculations
+    // Public API for attack calculations; squares are 0 (a1) to 63 (h8)
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+    public static long pawnAttacks(int square, Color color) {
+        return PAWN_ATTACKS[color.index][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return SLIDER_ATTACKS[ROOK_OFFSETS[square] + index];
+    }
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return SLIDER_ATTACKS[BISHOP_OFFSETS[square] + index];
+    }
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    // ===== SETWISE PAWN SETS =====
+    // Operate on a whole pawn bitboard at once; "west" captures go toward the a-file
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = 0x8080808080808080L;
+    public static final long RANK_3 = 0x0000000000FF0000L;
+    public static final long RANK_6 = 0x0000FF0000000000L;
+
+    public static long pawnAttacksWest(long pawns, Color color) {
+        return color == Color.WHITE ? (pawns & ~FILE_A) << 7 : (pawns & ~FILE_A) >>> 9;
+    }
+    public static long pawnAttacksEast(long pawns, Color color) {
+        return color == Color.WHITE ? (pawns & ~FILE_H) << 9 : (pawns & ~FILE_H) >>> 7;
+    }
+    public static long pawnAttackSet(long pawns, Color color) {
+        return pawnAttacksWest(pawns, color) | pawnAttacksEast(pawns, color);
+    }
+
+    public static long pawnSinglePushes(long pawns, long empty, Color color) {
+        return (color == Color.WHITE ? pawns << 8 : pawns >>> 8) & empty;
+    }
+    public static long pawnDoublePushes(long pawns, long empty, Color color) {
+        // Only single pushes that landed on the third rank can push again
+        long singles = pawnSinglePushes(pawns, empty, color) & (color == Color.WHITE ? RANK_3 : RANK_6);
+        return (color == Color.WHITE ? singles << 8 : singles >>> 8) & empty;
+    }
+
+    // Every square the pawns could attack as they advance (for outposts and passed pawns)
+    public static long pawnAttackSpan(long pawns, Color color) {
+        return frontFill(pawnAttackSet(pawns, color), color);
+    }
+    // Squares ahead of the pawns on their own files, excluding the pawns' squares
+    public static long pawnFrontSpan(long pawns, Color color) {
+        return frontFill(color == Color.WHITE ? pawns << 8 : pawns >>> 8, color);
+    }
+    private static long frontFill(long set, Color color) {
+        if (color == Color.WHITE) {
+            set |= set << 8;
+            set |= set << 16;
+            set |= set << 32;
+        } else {
+            set |= set >>> 8;
+            set |= set >>> 16;
+            set |= set >>> 32;
+        }
+        return set;
+    }
+
+    // Square overloads, kept for callers that already hold a Square
     public static long knightAttacks(Square square) {
-        return KNIGHT_ATTACKS[square.value()];
+        return knightAttacks(square.value());
     }
     public static long kingAttacks(Square square) {
-        return KING_ATTACKS[square.value()];
+        return kingAttacks(square.value());
     }
     public static long pawnAttacks(Square square, Color color) {
-        return PAWN_ATTACKS[color.index][square.value()];
+        return pawnAttacks(square.value(), color);
     }
-
     public static long rookAttacks(Square square, long occupied) {
-        int sq = square.value();
-        occupied &= ROOK_MASKS[sq];
-        occupied *= ROOK_MAGICS[sq];
-        occupied >>>= (64 - ROOK_BITS[sq]);
-        return ROOK_ATTACKS[sq][(int)occupied];
+        return rookAttacks(square.value(), occupied);
     }
     public static long bishopAttacks(Square square, long occupied) {
-        int sq = square.value();
-        occupied &= BISHOP_MASKS[sq];
-        occupied *= BISHOP_MAGICS[sq];
-        occupied >>>= (64 - BISHOP_BITS[sq]);
-        return BISHOP_ATTACKS[sq][(int)occupied];
+        return bishopAttacks(square.value(), occupied);
     }
     public static long queenAttacks(Square square, long occupied) {
-        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+        return queenAttacks(square.value(), occupied);
     }
 
     private static void initializeAllTables() {
@@ -120,187 +184,113 @@ public class AttackMasks {
             PAWN_ATTACKS[1][square] = blackAttacks;
         }
     }
-    private static void initializeMagicBitboards() {
-        // Initialize magic numbers
-        ROOK_MAGICS = new long[] {
-                0x0080011040008020L, 0x0440002008100040L, 0x0080200010001880L, 0x0080048010008800L,
-                0x0200020010042008L, 0x0180010200040080L, 0x0080060008800100L, 0x0080022100004080L,
-                0x0010800420804000L, 0x0400401000200440L, 0x0003001040200100L, 0x0000800800823000L,
-                0x4040808004000800L, 0x0200808044000200L, 0x0005000200010084L, 0x0208800040800100L,
-                0x0480008020804000L, 0x0400808040002004L, 0x0003010020004010L, 0x0090004040080400L,
-                0x1008008008040080L, 0x3000808004000200L, 0x0042004080400100L, 0x0000020000408124L,
-                0x0001400080208002L, 0x0000400080200182L, 0x0000100480200480L, 0x0040090100100020L,
-                0x0008110100040800L, 0x0084010040400200L, 0x0401000100020014L, 0x0003000100004082L,
-                0x0000864000800020L, 0x0040008040802004L, 0x0000904101002000L, 0x0001080084801000L,
-                0x8000040280800800L, 0x0011000803000400L, 0x0001000C21000200L, 0x0200802040800100L,
-                0x0080209040008000L, 0x0010002010C04000L, 0x0020200041010010L, 0x000010200A020040L,
-                0x0000900801010004L, 0x2000140002008080L, 0x0000A20004010100L, 0x0001000440810002L,
-                0x4280004000200040L, 0x0011804000200080L, 0x0000421100200100L, 0x0800880080100080L,
-                0x0800040080880080L, 0x1001040080020080L, 0x0001004200044100L, 0x0400800041000280L,
-                0x0000800020410011L, 0x0000400080102101L, 0x0000410010200009L, 0x0000100100200805L,
-                0x0002001004200802L, 0x0002000410080102L, 0x0001000200208401L, 0x0000002040810402L
-        };
-        BISHOP_MAGICS = new long[] {
-                0x0008200400404100L, 0x000C040404002000L, 0x0008080500201000L, 0x0004050208000400L,
-                0x0022021000000180L, 0x8001042004200000L, 0x4001041004040000L, 0x0000804410010800L,
-                0x0080100410040040L, 0x0000020202022200L, 0x0000100106006000L, 0x2001024081000000L,
-                0x0000020210002402L, 0x0000430420040000L, 0x00000A0801041000L, 0x0000002088041040L,
-                0x0040000410042100L, 0x0020000401060200L, 0x1008001000801010L, 0x0008000401202010L,
-                0x0804001080A00000L, 0x0041000080414000L, 0x0004040082011000L, 0x0000800042080140L,
-                0x00044000A0020400L, 0x0008080020018100L, 0x0000221010008200L, 0x0024004004010002L,
-                0x0800840000802002L, 0x0008104002010080L, 0x0001011004008800L, 0x0004208001004100L,
-                0x0008041010042000L, 0x0008012400080800L, 0x0040802080040800L, 0x0000401808008200L,
-                0x0800408020020200L, 0x00008101000A1000L, 0x0005040080040200L, 0x2008010020004200L,
-                0x0002022020000408L, 0x0082020202002000L, 0x0000104028001004L, 0x0000804012001040L,
-                0x8000400081200200L, 0x0802200041000080L, 0x0004010401000401L, 0x0010014200200080L,
-                0x0001011010040020L, 0x0000208808084000L, 0x0400008400880010L, 0x0402000084040100L,
-                0x0006201002020000L, 0x0200082008008010L, 0x00200801010C0000L, 0x0208100082004000L,
-                0x0000820801010800L, 0x0080002404040400L, 0x0000000084208820L, 0x0000002005420200L,
-                0x0000000008912400L, 0x0000001042101100L, 0x0002200802080040L, 0x0010200080820040L
-        };
-
-        // Initialize masks and attack tables
+    // Computes masks and slice offsets; runs before SLIDER_ATTACKS is allocated
+    private static int layoutSliderTables() {
+        int size = 0;
         for (int square = 0; square < 64; square++) {
             ROOK_MASKS[square] = createRookMask(square);
+            ROOK_OFFSETS[square] = size;
+            size += 1 << (64 - ROOK_SHIFTS[square]);
+        }
+        for (int square = 0; square < 64; square++) {
             BISHOP_MASKS[square] = createBishopMask(square);
-            ROOK_BITS[square] = Long.bitCount(ROOK_MASKS[square]);
-            BISHOP_BITS[square] = Long.bitCount(BISHOP_MASKS[square]);
-
-            // Initialize attack tables
-            ROOK_ATTACKS[square] = new long[1 << ROOK_BITS[square]];
-            BISHOP_ATTACKS[square] = new long[1 << BISHOP_BITS[square]];
-
-            initSliderAttacks(square, true);  // rook
-            initSliderAttacks(square, false); // bishop
+            BISHOP_OFFSETS[square] = size;
+            size += 1 << (64 - BISHOP_SHIFTS[square]);
         }
+        return size;
     }
 
-    private static void initSliderAttacks(int square, boolean isRook) {
-        long mask = isRook ? ROOK_MASKS[square] : BISHOP_MASKS[square];
-        int bits = (isRook ? ROOK_BITS[square] : BISHOP_BITS[square]);
-
-        for (int i = 0; i < (1 << bits); i++) {
-            long occupied = createOccupancyFromIndex(i, mask);
-            long attacks = isRook ? createRookAttacks(square, occupied) : createBishopAttacks(square, occupied);
-
-            long magic = isRook ? ROOK_MAGICS[square] : BISHOP_MAGICS[square];
-            int index = (int)((occupied * magic) >>> (64 - bits)); // guchi
-
-            if (isRook) {
-                ROOK_ATTACKS[square][index] = attacks;
-            } else {
-                BISHOP_ATTACKS[square][index] = attacks;
-            }
+    private static void initializeMagicBitboards() {
+        for (int square = 0; square < 64; square++) {
+            // Rook: the rank and the file through the square
+            fillSlice(square, ROOK_MASKS[square], ROOK_MAGICS[square], ROOK_SHIFTS[square], ROOK_OFFSETS[square],
+                    0, 1, 1, 0);
+            // Bishop: the diagonal and the anti-diagonal
+            fillSlice(square, BISHOP_MASKS[square], BISHOP_MAGICS[square], BISHOP_SHIFTS[square], BISHOP_OFFSETS[square],
+                    1, 1, 1, -1);
         }
     }
-    private static long createRookMask(int square) {
-        long mask = 0L;
-        int rank = square / 8;
-        int file = square % 8;
 
-        // Horizontal
-        for (int f = 1; f < 7; f++) {
-            if (f != file) {
-                mask |= 1L << (rank * 8 + f);
-            }
-        }
-        // Vertical
-        for (int r = 1; r < 7; r++) {
-            if (r != rank) {
-                mask |= 1L << (r * 8 + file);
-            }
+    // The attack set splits into two independent lines through the square, so each
+    // line's attacks are computed once per line occupancy and then combined
+    private static void fillSlice(int square, long mask, long magic, int shift, int offset,
+                                  int firstRankStep, int firstFileStep, int secondRankStep, int secondFileStep) {
+        long firstMask = line(square, 0L, firstRankStep, firstFileStep) & mask;
+        long secondMask = mask & ~firstMask;
+
+        int count = 1 << Long.bitCount(secondMask);
+        long[] secondSubsets = new long[count];
+        long[] secondAttacks = new long[count];
+        long subset = 0;
+        for (int i = 0; i < count; i++) {
+            secondSubsets[i] = subset;
+            secondAttacks[i] = line(square, subset, secondRankStep, secondFileStep);
+            subset = (subset - secondMask) & secondMask; // Next subset (carry-rippler)
         }
 
-        return mask;
+        subset = 0;
+        do {
+            fillCombinations(offset, magic, shift, subset, line(square, subset, firstRankStep, firstFileStep),
+                    secondSubsets, secondAttacks);
+            subset = (subset - firstMask) & firstMask;
+        } while (subset != 0);
     }
-    private static long createBishopMask(int square) {
-        long mask = 0L;
-        int rank = square / 8;
-        int file = square % 8;
-
-        // Diagonal directions
-        int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-
-        for (int[] dir : directions) {
-            int r = rank + dir[0];
-            int f = file + dir[1];
 
-            while (r >= 1 && r <= 6 && f >= 1 && f <= 6) {
-                mask |= 1L << (r * 8 + f);
-                r += dir[0];
-                f += dir[1];
-            }
+    // Kept small and called often so the JIT compiles it early during class initialization
+    private static void fillCombinations(int offset, long magic, int shift, long firstSubset, long firstAttacks,
+                                         long[] secondSubsets, long[] secondAttacks) {
+        for (int i = 0; i < secondSubsets.length; i++) {
+            int index = (int) (((firstSubset | secondSubsets[i]) * magic) >>> shift);
+            SLIDER_ATTACKS[offset + index] = firstAttacks | secondAttacks[i];
         }
-        return mask;
     }
 
-    private static long createOccupancyFromIndex(int index, long mask) {
-        long occupancy = 0L;
-        int bitIndex = 0;
-
-        while (mask != 0) {
-            int square = Long.numberOfTrailingZeros(mask);
-            if ((index & (1 << bitIndex)) != 0) {
-                occupancy |= 1L << square;
-            }
-            mask &= mask - 1;
-            bitIndex++;
-        }
-
-        return occupancy;
+    // ===== TABLE CONSTRUCTION (shared with MagicFinder) =====
+    // Relevant occupancy: the rays without their final edge square
+    static long createRookMask(int square) {
+        return createRookAttacks(square, 0L) & ~edgesBeyond(square);
+    }
+    static long createBishopMask(int square) {
+        return createBishopAttacks(square, 0L) & ~edgesBeyond(square);
     }
-    private static long createRookAttacks(int square, long occupied) {
-        long attacks = 0L;
-        int rank = square / 8;
-        int file = square % 8;
-
-        // Horizontal and vertical directions
-        int[][] directions = {{0,1}, {0,-1}, {1,0}, {-1,0}};
-
-        for (int[] dir : directions) {
-            int r = rank + dir[0];
-            int f = file + dir[1];
 
-            while (r >= 0 && r < 8 && f >= 0 && f < 8) {
-                int targetSquare = r * 8 + f;
-                attacks |= 1L << targetSquare;
+    static long createRookAttacks(int square, long occupied) {
+        return line(square, occupied, 0, 1) | line(square, occupied, 1, 0);
+    }
+    static long createBishopAttacks(int square, long occupied) {
+        return line(square, occupied, 1, 1) | line(square, occupied, 1, -1);
+    }
 
-                if ((occupied & (1L << targetSquare)) != 0) {
-                    break;
-                }
+    // Both rays along one line through the square
+    private static long line(int square, long occupied, int rankStep, int fileStep) {
+        return ray(square, occupied, rankStep, fileStep) | ray(square, occupied, -rankStep, -fileStep);
+    }
 
-                r += dir[0];
-                f += dir[1];
+    // Squares from square (exclusive) in one direction, up to and including the first blocker
+    private static long ray(int square, long occupied, int rankStep, int fileStep) {
+        long attacks = 0L;
+        int r = square / 8 + rankStep;
+        int f = square % 8 + fileStep;
+
+        while (r >= 0 && r < 8 && f >= 0 && f < 8) {
+            long target = 1L << (r * 8 + f);
+            attacks |= target;
+            if ((occupied & target) != 0) {
+                break;
             }
+            r += rankStep;
+            f += fileStep;
         }
-
         return attacks;
     }
-    private static long createBishopAttacks(int square, long occupied) {
-        long attacks = 0L;
+
+    // Board edges, minus the edge lines the square itself stands on
+    private static long edgesBeyond(int square) {
+        long rank1 = 0xFFL;
+        long rank8 = 0xFF00000000000000L;
         int rank = square / 8;
         int file = square % 8;
-
-        // Diagonal directions
-        int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-
-        for (int[] dir : directions) {
-            int r = rank + dir[0];
-            int f = file + dir[1];
-
-            while (r >= 0 && r < 8 && f >= 0 && f < 8) {
-                int targetSquare = r * 8 + f;
-                attacks |= 1L << targetSquare;
-
-                if ((occupied & (1L << targetSquare)) != 0) {
-                    break;
-                }
-
-                r += dir[0];
-                f += dir[1];
-            }
-        }
-
-        return attacks;
+        return ((rank1 | rank8) & ~(0xFFL << (rank * 8))) |
+                ((FILE_A | FILE_H) & ~(FILE_A << file));
     }
-}
\ No newline at end of file
+}
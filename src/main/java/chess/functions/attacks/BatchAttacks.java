@@ -0,0 +1,153 @@
+package chess.functions.attacks;
+
+import chess.data.Color;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Attack sets for many positions at once, one position per vector lane. Input is
+ * structure-of-arrays: {@code bitboards[piece][position]} in the usual piece order
+ * [wP, wN, wB, wR, wQ, wK, bP, bN, bB, bR, bQ, bK]. Every method writes, for each of
+ * the first {@code count} positions, the union of the attacks of the given set.
+ *
+ * Everything is computed setwise: shifts for leapers and pawns, Kogge-Stone occluded
+ * fills for sliders, so no lane needs a table lookup. Requires
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+public final class BatchAttacks {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private static final long NOT_A = ~AttackMasks.FILE_A;
+    private static final long NOT_H = ~AttackMasks.FILE_H;
+    private static final long NOT_AB = ~(AttackMasks.FILE_A | AttackMasks.FILE_A << 1);
+    private static final long NOT_GH = ~(AttackMasks.FILE_H | AttackMasks.FILE_H >>> 1);
+
+    private BatchAttacks() {} // Utility class
+
+    public static int laneCount() {
+        return SPECIES.length();
+    }
+
+    public static void knightAttacks(long[] knights, long[] out, int count) {
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Long> lanes = SPECIES.indexInRange(i, count);
+            knights(load(knights, i, lanes)).intoArray(out, i, lanes);
+        }
+    }
+
+    public static void kingAttacks(long[] kings, long[] out, int count) {
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Long> lanes = SPECIES.indexInRange(i, count);
+            kings(load(kings, i, lanes)).intoArray(out, i, lanes);
+        }
+    }
+
+    public static void pawnAttacks(long[] pawns, Color color, long[] out, int count) {
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Long> lanes = SPECIES.indexInRange(i, count);
+            pawns(load(pawns, i, lanes), color).intoArray(out, i, lanes);
+        }
+    }
+
+    public static void rookAttacks(long[] rooks, long[] occupied, long[] out, int count) {
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Long> lanes = SPECIES.indexInRange(i, count);
+            LongVector empty = load(occupied, i, lanes).not();
+            orthogonal(load(rooks, i, lanes), empty).intoArray(out, i, lanes);
+        }
+    }
+
+    public static void bishopAttacks(long[] bishops, long[] occupied, long[] out, int count) {
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Long> lanes = SPECIES.indexInRange(i, count);
+            LongVector empty = load(occupied, i, lanes).not();
+            diagonal(load(bishops, i, lanes), empty).intoArray(out, i, lanes);
+        }
+    }
+
+    // Every square attacked by the given side, including squares of its own pieces
+    public static void attackMaps(long[][] bitboards, Color color, long[] out, int count) {
+        int base = color == Color.WHITE ? 0 : 6;
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Long> lanes = SPECIES.indexInRange(i, count);
+
+            LongVector occupied = LongVector.zero(SPECIES);
+            for (int piece = 0; piece < 12; piece++) {
+                occupied = occupied.or(load(bitboards[piece], i, lanes));
+            }
+            LongVector empty = occupied.not();
+            LongVector queens = load(bitboards[base + 4], i, lanes);
+
+            pawns(load(bitboards[base], i, lanes), color)
+                    .or(knights(load(bitboards[base + 1], i, lanes)))
+                    .or(diagonal(load(bitboards[base + 2], i, lanes).or(queens), empty))
+                    .or(orthogonal(load(bitboards[base + 3], i, lanes).or(queens), empty))
+                    .or(kings(load(bitboards[base + 5], i, lanes)))
+                    .intoArray(out, i, lanes);
+        }
+    }
+
+    // ===== LANEWISE KERNELS =====
+    private static LongVector load(long[] array, int offset, VectorMask<Long> lanes) {
+        return LongVector.fromArray(SPECIES, array, offset, lanes);
+    }
+
+    private static LongVector knights(LongVector knights) {
+        LongVector one = knights.lanewise(VectorOperators.LSHR, 1).and(NOT_H)
+                .or(knights.lanewise(VectorOperators.LSHL, 1).and(NOT_A));
+        LongVector two = knights.lanewise(VectorOperators.LSHR, 2).and(NOT_GH)
+                .or(knights.lanewise(VectorOperators.LSHL, 2).and(NOT_AB));
+        return one.lanewise(VectorOperators.LSHL, 16).or(one.lanewise(VectorOperators.LSHR, 16))
+                .or(two.lanewise(VectorOperators.LSHL, 8)).or(two.lanewise(VectorOperators.LSHR, 8));
+    }
+
+    private static LongVector kings(LongVector kings) {
+        LongVector row = kings.lanewise(VectorOperators.LSHL, 1).and(NOT_A)
+                .or(kings.lanewise(VectorOperators.LSHR, 1).and(NOT_H));
+        LongVector band = row.or(kings);
+        return row.or(band.lanewise(VectorOperators.LSHL, 8)).or(band.lanewise(VectorOperators.LSHR, 8));
+    }
+
+    private static LongVector pawns(LongVector pawns, Color color) {
+        return color == Color.WHITE ?
+                pawns.and(NOT_A).lanewise(VectorOperators.LSHL, 7)
+                        .or(pawns.and(NOT_H).lanewise(VectorOperators.LSHL, 9)) :
+                pawns.and(NOT_A).lanewise(VectorOperators.LSHR, 9)
+                        .or(pawns.and(NOT_H).lanewise(VectorOperators.LSHR, 7));
+    }
+
+    private static LongVector orthogonal(LongVector sliders, LongVector empty) {
+        return slide(sliders, empty, 8, -1L)
+                .or(slide(sliders, empty, -8, -1L))
+                .or(slide(sliders, empty, 1, NOT_A))
+                .or(slide(sliders, empty, -1, NOT_H));
+    }
+
+    private static LongVector diagonal(LongVector sliders, LongVector empty) {
+        return slide(sliders, empty, 9, NOT_A)
+                .or(slide(sliders, empty, 7, NOT_H))
+                .or(slide(sliders, empty, -7, NOT_A))
+                .or(slide(sliders, empty, -9, NOT_H));
+    }
+
+    // Kogge-Stone occluded fill in one direction; wrap masks out squares that would wrap a file edge
+    private static LongVector slide(LongVector sliders, LongVector empty, int shift, long wrap) {
+        LongVector propagators = empty.and(wrap);
+        LongVector generators = sliders;
+        generators = generators.or(propagators.and(shift(generators, shift)));
+        propagators = propagators.and(shift(propagators, shift));
+        generators = generators.or(propagators.and(shift(generators, 2 * shift)));
+        propagators = propagators.and(shift(propagators, 2 * shift));
+        generators = generators.or(propagators.and(shift(generators, 4 * shift)));
+        return shift(generators, shift).and(wrap);
+    }
+
+    private static LongVector shift(LongVector vector, int shift) {
+        return shift > 0 ?
+                vector.lanewise(VectorOperators.LSHL, shift) :
+                vector.lanewise(VectorOperators.LSHR, -shift);
+    }
+}
@@ -0,0 +1,144 @@
+package chess.functions.attacks;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Offline search for slider magics. For every square it first finds a magic for
+ * the usual index width (one bit per relevant occupancy square), then keeps
+ * trying narrower indexes while the attempt budget lasts; every bit saved halves
+ * that square's share of the attack table. Prints a MagicNumbers source file.
+ *
+ * Usage: MagicFinder [attempts per extra bit] [seed] > MagicNumbers.java
+ */
+public final class MagicFinder {
+
+    private static final long DEFAULT_ATTEMPTS = 2_000_000;
+    private static final long DEFAULT_SEED = 0x4D41474943L;
+
+    private MagicFinder() {} // Utility class
+
+    public static void main(String[] args) {
+        long attempts = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_ATTEMPTS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+        RandomGenerator rng = RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(seed);
+
+        long[] rookMagics = new long[64];
+        int[] rookShifts = new int[64];
+        long[] bishopMagics = new long[64];
+        int[] bishopShifts = new int[64];
+        for (int square = 0; square < 64; square++) {
+            find(square, true, attempts, rng, rookMagics, rookShifts);
+            find(square, false, attempts, rng, bishopMagics, bishopShifts);
+        }
+
+        System.err.printf("Rook table: %d entries, bishop table: %d entries%n",
+                tableSize(rookShifts), tableSize(bishopShifts));
+        System.out.print(source(attempts, seed, rookMagics, rookShifts, bishopMagics, bishopShifts));
+    }
+
+    private static void find(int square, boolean rook, long attempts, RandomGenerator rng,
+                             long[] magics, int[] shifts) {
+        long mask = rook ? AttackMasks.createRookMask(square) : AttackMasks.createBishopMask(square);
+        int size = 1 << Long.bitCount(mask);
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+
+        long subset = 0;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = rook ? AttackMasks.createRookAttacks(square, subset) : AttackMasks.createBishopAttacks(square, subset);
+            subset = (subset - mask) & mask;
+        }
+
+        int bits = Long.bitCount(mask);
+        long magic = search(mask, occupancies, attacks, bits, Long.MAX_VALUE, rng);
+        // Narrower indexes only work when colliding occupancies share their attack set
+        while (bits > 1) {
+            long narrower = search(mask, occupancies, attacks, bits - 1, attempts, rng);
+            if (narrower == 0) {
+                break;
+            }
+            magic = narrower;
+            bits--;
+        }
+        magics[square] = magic;
+        shifts[square] = 64 - bits;
+    }
+
+    // Returns a magic that indexes every occupancy into 2^bits slots without a destructive collision, or 0
+    static long search(long mask, long[] occupancies, long[] attacks, int bits, long attempts, RandomGenerator rng) {
+        long[] used = new long[1 << bits];
+        int[] epoch = new int[1 << bits];
+        int shift = 64 - bits;
+
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            // Sparse candidates work far more often
+            long magic = rng.nextLong() & rng.nextLong() & rng.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+
+            boolean failed = false;
+            for (int i = 0; i < occupancies.length && !failed; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    used[index] = attacks[i];
+                } else if (used[index] != attacks[i]) {
+                    failed = true;
+                }
+            }
+            if (!failed) {
+                return magic;
+            }
+        }
+        return 0;
+    }
+
+    private static int tableSize(int[] shifts) {
+        return Arrays.stream(shifts).map(shift -> 1 << (64 - shift)).sum();
+    }
+
+    private static String source(long attempts, long seed, long[] rookMagics, int[] rookShifts,
+                                 long[] bishopMagics, int[] bishopShifts) {
+        StringBuilder out = new StringBuilder();
+        out.append("package chess.functions.attacks;\n\n");
+        out.append("// Generated by MagicFinder ").append(attempts).append(' ').append(seed)
+                .append("; do not edit by hand\n");
+        out.append("final class MagicNumbers {\n\n");
+        out.append("    private MagicNumbers() {} // Utility class\n\n");
+        appendLongs(out, "ROOK_MAGICS", rookMagics);
+        appendInts(out, "ROOK_SHIFTS", rookShifts);
+        appendLongs(out, "BISHOP_MAGICS", bishopMagics);
+        appendInts(out, "BISHOP_SHIFTS", bishopShifts);
+        out.setLength(out.length() - 1);
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static void appendLongs(StringBuilder out, String name, long[] values) {
+        out.append("    static final long[] ").append(name).append(" = {\n");
+        for (int i = 0; i < values.length; i += 4) {
+            out.append("           ");
+            for (int j = i; j < i + 4; j++) {
+                out.append(String.format(" 0x%016XL%s", values[j], j == values.length - 1 ? "" : ","));
+            }
+            out.append('\n');
+        }
+        out.append("    };\n\n");
+    }
+
+    private static void appendInts(StringBuilder out, String name, int[] values) {
+        out.append("    static final int[] ").append(name).append(" = {\n");
+        for (int i = 0; i < values.length; i += 8) {
+            out.append("           ");
+            for (int j = i; j < i + 8; j++) {
+                out.append(String.format(" %d%s", values[j], j == values.length - 1 ? "" : ","));
+            }
+            out.append('\n');
+        }
+        out.append("    };\n\n");
+    }
+}
@@ -0,0 +1,67 @@
+package chess.functions.attacks;
+
+// Generated by MagicFinder 20000000 331807672643; do not edit by hand
+final class MagicNumbers {
+
+    private MagicNumbers() {} // Utility class
+
+    static final long[] ROOK_MAGICS = {
+            0x0880108000400020L, 0x8040001000200040L, 0x6200201082000841L, 0x0880080010018004L,
+            0x2080040002800801L, 0x0200041008010200L, 0x020000A408410200L, 0x0200020080204401L,
+            0x05C0800440042884L, 0x8202401000402000L, 0x3010802000801002L, 0x0040801000840800L,
+            0x2006000422000850L, 0x1002000510020008L, 0x3149000402002100L, 0x202200008500E214L,
+            0x4010410020800100L, 0x0210084020004000L, 0x0000110020004502L, 0x0519010008201001L,
+            0x1208808008000400L, 0x1A64008080020004L, 0x0020040001081002L, 0x0100020020408104L,
+            0x0000800080204008L, 0x0180400880200080L, 0x00A0028480201000L, 0x2810000900210010L,
+            0x40810111000800C4L, 0x1002000200041108L, 0x0502002200880C11L, 0x8020802080004100L,
+            0x2080002001400240L, 0x1A40200040C01000L, 0x8E10001080802000L, 0x0201042109001000L,
+            0xF186002012000408L, 0x4110040080800200L, 0x0808810884000210L, 0x104003129600004CL,
+            0x0080002000514000L, 0x0030004020104002L, 0x0008820014420020L, 0x0001001004090020L,
+            0x0028000409010010L, 0x9080020004008080L, 0x0004084201040010L, 0x0E00240080420001L,
+            0x8010800100204100L, 0x2200401000200040L, 0x4001044020041100L, 0x4211800800100180L,
+            0x0013020408001100L, 0x8044800201040080L, 0x0002102A48890400L, 0x2080410084540E00L,
+            0x7000408020110202L, 0x6400824104516202L, 0x04051020408A0082L, 0x20D0008804A09101L,
+            0x0C09000408000211L, 0xCC12008801700402L, 0x00C0220908089014L, 0x88010248A4008106L
+    };
+
+    static final int[] ROOK_SHIFTS = {
+            52, 53, 53, 53, 53, 53, 53, 52,
+            53, 54, 54, 54, 54, 54, 54, 53,
+            53, 54, 54, 54, 54, 54, 54, 53,
+            53, 54, 54, 54, 54, 54, 54, 53,
+            53, 54, 54, 54, 54, 54, 54, 53,
+            53, 54, 54, 54, 54, 54, 54, 53,
+            53, 54, 54, 54, 54, 54, 54, 53,
+            52, 53, 53, 53, 53, 53, 53, 52
+    };
+
+    static final long[] BISHOP_MAGICS = {
+            0x0808200400902100L, 0x0060040400A02410L, 0x0150410600210000L, 0x80040424844024A0L,
+            0x0001114000000200L, 0x0011100805000000L, 0x080202502208813CL, 0x0102010402020200L,
+            0x1000204410009100L, 0x4310A00400B22640L, 0x0000210210820040L, 0x1000444104200001L,
+            0x0400240308401001L, 0x01000A080C160200L, 0x04110100C2202100L, 0x0000048841082000L,
+            0x0190024110010120L, 0x000A151550060210L, 0x004080080200420AL, 0x00092A0404008080L,
+            0x000A128C01200000L, 0x0C20208200A42000L, 0x9000804404210800L, 0x0800208202010401L,
+            0x1AA9280084101000L, 0x4008048022540820L, 0x8104040140810210L, 0x8004080002202140L,
+            0x2405001253004000L, 0x0030090000208808L, 0x01A4224495211000L, 0x0020850000804840L,
+            0x02B2084010604204L, 0x0828011000090210L, 0x4024002421080041L, 0x2000400820020200L,
+            0x2028122400024100L, 0x0830010045020040L, 0x8002108400091402L, 0x4002204301004400L,
+            0x0008280211210830L, 0x100480D048021012L, 0x20020124280E0400L, 0x30400A0104013240L,
+            0x0406312012000100L, 0x23A6081000A00104L, 0x4220881111040044L, 0x0014114041040A04L,
+            0x2213040260060800L, 0xB001008084200102L, 0x4100008400C802A0L, 0xE000080720981302L,
+            0x0000C01202020805L, 0x00A2202001024480L, 0x4004200802288B22L, 0x4020011200810680L,
+            0x0003010802010400L, 0x0050050401010801L, 0x000000014A10B000L, 0x002080004904A800L,
+            0x10008100201CA400L, 0x4224081021010109L, 0x4811202204184089L, 0x0440020082021240L
+    };
+
+    static final int[] BISHOP_SHIFTS = {
+            58, 59, 59, 59, 59, 59, 59, 58,
+            59, 59, 59, 59, 59, 59, 59, 59,
+            59, 59, 57, 57, 57, 57, 59, 59,
+            59, 59, 57, 55, 55, 57, 59, 59,
+            59, 59, 57, 55, 55, 57, 59, 59,
+            59, 59, 57, 57, 57, 57, 59, 59,
+            59, 59, 59, 59, 59, 59, 59, 59,
+            58, 59, 59, 59, 59, 59, 59, 58
+    };
+}
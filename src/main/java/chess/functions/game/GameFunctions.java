@@ -5,8 +5,9 @@ import chess.errors.IllegalMoveException;
 import chess.functions.moves.MoveApplication;
 import chess.functions.moves.MoveGeneration;
 import chess.functions.rules.CheckRules;
+import chess.functions.rules.DrawRules;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class GameFunctions {
@@ -36,8 +37,8 @@ public class GameFunctions {
         }
 
         Position newPosition = MoveApplication.applyMove(game.position(), move);
-        List<Position> newHistory = appendToHistory(game.history(), newPosition);
-        List<Move> newMoveHistory = appendToHistory(game.moveHistory(),move);
+        long[] newHistory = appendToHistory(game.history(), newPosition);
+        MoveHistory newMoveHistory = game.moveHistory().append(move);
 
         List<Move> newLegalMoves = MoveGeneration.generateLegalMoves(newPosition);
 
@@ -63,7 +64,7 @@ public class GameFunctions {
         return current;
     }
 
-    private static GameState determinegameState(Position position, List<Position> history, List<Move> legalMoves) {
+    private static GameState determinegameState(Position position, long[] history, List<Move> legalMoves) {
         Color activeColor = position.whiteToMove() ? Color.WHITE : Color.BLACK;
         if (legalMoves.isEmpty()) {
             if (CheckRules.isInCheck(position, activeColor)) {
@@ -93,11 +94,11 @@ public class GameFunctions {
     }
 
     private static boolean hasInsufficientMaterial(Position position) {
-        throw new Error("Not supported yet");
+        return DrawRules.hasInsufficientMaterial(position);
     }
 
-    private static boolean isThreeFoldRepetion(Position position, List<Position> history) {
-        throw new Error("Not supported yet");
+    private static boolean isThreeFoldRepetion(Position position, long[] history) {
+        return DrawRules.isThreefoldRepetition(history, history.length, position.halfmoveClock());
     }
 
     public static Game offerDraw(Game game) {
@@ -138,14 +139,11 @@ public class GameFunctions {
         );
     }
 
-    private static List<Position> appendToHistory(List<Position> history, Position newPosition) {
-        List<Position> newHistory = new ArrayList<>(history);
-        newHistory.add(newPosition);
-        return List.copyOf(newHistory); // Return immutable list
-    }
-    private static List<Move> appendToHistory(List<Move> history, Move move) {
-        List<Move> newHistory = new ArrayList<>(history);
-        newHistory.add(move);
-        return List.copyOf(newHistory);
+    private static long[] appendToHistory(long[] history, Position newPosition) {
+        // Positions before the last irreversible move can never repeat, so drop them
+        int keep = Math.min(history.length, newPosition.halfmoveClock());
+        long[] newHistory = Arrays.copyOfRange(history, history.length - keep, history.length + 1);
+        newHistory[keep] = newPosition.zobristHash();
+        return newHistory;
     }
 }
\ No newline at end of file
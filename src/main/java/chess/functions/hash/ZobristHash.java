@@ -1,9 +1,16 @@
 package chess.functions.hash;
 
 import chess.data.*;
+import chess.functions.attacks.AttackMasks;
 import chess.functions.moves.MoveApplication;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public final class ZobristHash {
 
@@ -12,9 +19,12 @@ public final class ZobristHash {
     private static final long[] CASTLING_KEYS = new long[16];            // All castling combinations
     private static final long[] EN_PASSANT_KEYS = new long[8];          // En passant file keys
 
+    // Fixed so keys (and with them table layouts and bench node counts) are the same every run
+    private static final long SEED = 0x4E554C4C45584AL;
+
     static {
         // Initialize with seed
-        RandomGenerator rng = RandomGenerator.of("Xoshiro256PlusPlus");
+        RandomGenerator rng = RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(SEED);
 
         // Initialize piece-square keys
         for (int piece = 0; piece < 12; piece++) {
@@ -78,18 +88,18 @@ public final class ZobristHash {
     }
 
     public static long updateHashForNormalMove(long hash, int movingPiece, int capturedPiece, Position oldPos, int enPassantSquare, byte castlingRights, Move move) {
-        Square from = Square.of(move.from());
-        Square to = Square.of(move.to());
+        int from = move.from();
+        int to = move.to();
 
         // Remove moving piece from origin square
-        hash ^= PIECE_SQUARE_KEYS[movingPiece][from.value()];
+        hash ^= PIECE_SQUARE_KEYS[movingPiece][from];
 
         // Add moving piece to destination square
-        hash ^= PIECE_SQUARE_KEYS[movingPiece][to.value()];
+        hash ^= PIECE_SQUARE_KEYS[movingPiece][to];
 
         // Remove captured piece if any
         if (capturedPiece != -1) {
-            hash ^= PIECE_SQUARE_KEYS[capturedPiece][to.value()];
+            hash ^= PIECE_SQUARE_KEYS[capturedPiece][to];
         }
 
         // Update side to move
@@ -106,18 +116,18 @@ public final class ZobristHash {
     }
 
     public static long updateHashForPromotionMove(long hash, int pawnIndex, int promotionPieceIndex, int capturedPiece, Position oldPos, byte castlingRights, Move move) {
-        Square from = Square.of(move.from());
-        Square to = Square.of(move.to());
+        int from = move.from();
+        int to = move.to();
 
         // Remove pawn from origin square
-        hash ^= PIECE_SQUARE_KEYS[pawnIndex][from.value()];
+        hash ^= PIECE_SQUARE_KEYS[pawnIndex][from];
 
         // Add promoted piece to destination square
-        hash ^= PIECE_SQUARE_KEYS[promotionPieceIndex][to.value()];
+        hash ^= PIECE_SQUARE_KEYS[promotionPieceIndex][to];
 
         // Remove captured piece if any
         if (capturedPiece != -1) {
-            hash ^= PIECE_SQUARE_KEYS[capturedPiece][to.value()];
+            hash ^= PIECE_SQUARE_KEYS[capturedPiece][to];
         }
 
         // Update side to move
@@ -134,14 +144,14 @@ public final class ZobristHash {
     }
 
     public static long updateHashForEnPassantMove(long hash, int movingPawnIndex, int capturedPawnIndex, int capturedPawnSquare, Position oldPos, Move move) {
-        Square from = Square.of(move.from());
-        Square to = Square.of(move.to());
+        int from = move.from();
+        int to = move.to();
 
         // Remove moving pawn from origin square
-        hash ^= PIECE_SQUARE_KEYS[movingPawnIndex][from.value()];
+        hash ^= PIECE_SQUARE_KEYS[movingPawnIndex][from];
 
         // Add moving pawn to destination square
-        hash ^= PIECE_SQUARE_KEYS[movingPawnIndex][to.value()];
+        hash ^= PIECE_SQUARE_KEYS[movingPawnIndex][to];
 
         // Remove captured pawn
         hash ^= PIECE_SQUARE_KEYS[capturedPawnIndex][capturedPawnSquare];
@@ -156,20 +166,20 @@ public final class ZobristHash {
     }
 
     public static long updateHashForCastlingMove(long hash, int kingIndex, int rookIndex, MoveApplication.CastlingPositions positions, Position oldPos, byte castlingRights , Move move) {
-        Square kingFrom = Square.of(move.from());
-        Square kingTo = Square.of(move.to());
+        int kingFrom = move.from();
+        int kingTo = move.to();
 
         // Remove king from origin square
-        hash ^= PIECE_SQUARE_KEYS[kingIndex][kingFrom.value()];
+        hash ^= PIECE_SQUARE_KEYS[kingIndex][kingFrom];
 
         // Add king to destination square
-        hash ^= PIECE_SQUARE_KEYS[kingIndex][kingTo.value()];
+        hash ^= PIECE_SQUARE_KEYS[kingIndex][kingTo];
 
         // Remove rook from origin square
-        hash ^= PIECE_SQUARE_KEYS[rookIndex][positions.rookFrom().value()];
+        hash ^= PIECE_SQUARE_KEYS[rookIndex][positions.rookFrom()];
 
         // Add rook to destination square
-        hash ^= PIECE_SQUARE_KEYS[rookIndex][positions.rookTo().value()];
+        hash ^= PIECE_SQUARE_KEYS[rookIndex][positions.rookTo()];
 
         // Update side to move
         hash ^= WHITE_TO_MOVE_KEY;
@@ -193,4 +203,87 @@ public final class ZobristHash {
         }
         return hash;
     }
-}
\ No newline at end of file
+
+    // ===== POLYGLOT KEYS =====
+    // Polyglot books use their own fixed Random64 table (781 values), read from the classpath
+    // on first use. The file may be pasted straight from Polyglot's sources: any 16-digit hex
+    // literals are picked up in order.
+    private static final String POLYGLOT_RANDOM_RESOURCE = "/chess/polyglot-random64.txt";
+    private static final int POLYGLOT_RANDOM_COUNT = 781;
+    private static final int POLYGLOT_CASTLE_OFFSET = 768;
+    private static final int POLYGLOT_EN_PASSANT_OFFSET = 772;
+    private static final int POLYGLOT_TURN_OFFSET = 780;
+
+    private static final class PolyglotRandom {
+        private static final long[] VALUES = load();
+
+        private static long[] load() {
+            try (InputStream in = ZobristHash.class.getResourceAsStream(POLYGLOT_RANDOM_RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Polyglot Random64 table not found on classpath: " +
+                            POLYGLOT_RANDOM_RESOURCE);
+                }
+                String text = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+                Matcher matcher = Pattern.compile("(?:0x)?([0-9A-Fa-f]{16})").matcher(text);
+
+                long[] values = new long[POLYGLOT_RANDOM_COUNT];
+                int count = 0;
+                while (matcher.find()) {
+                    if (count == POLYGLOT_RANDOM_COUNT) {
+                        throw new IllegalStateException("Polyglot Random64 table has more than " +
+                                POLYGLOT_RANDOM_COUNT + " values");
+                    }
+                    values[count++] = Long.parseUnsignedLong(matcher.group(1), 16);
+                }
+                if (count != POLYGLOT_RANDOM_COUNT) {
+                    throw new IllegalStateException("Polyglot Random64 table needs " + POLYGLOT_RANDOM_COUNT +
+                            " values, found: " + count);
+                }
+                return values;
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + POLYGLOT_RANDOM_RESOURCE, e);
+            }
+        }
+    }
+
+    public static long computePolyglotKey(Position position) {
+        long[] random = PolyglotRandom.VALUES;
+        long[] bitboards = position.bitboards();
+        long key = 0L;
+
+        for (int piece = 0; piece < 12; piece++) {
+            // Polyglot kinds interleave colors: black pawn 0, white pawn 1, black knight 2, ...
+            int kind = 2 * (piece % 6) + (piece < 6 ? 1 : 0);
+            long pieceBitboard = bitboards[piece];
+
+            while (pieceBitboard != 0) {
+                int square = Long.numberOfTrailingZeros(pieceBitboard);
+                key ^= random[64 * kind + square];
+                pieceBitboard &= pieceBitboard - 1;
+            }
+        }
+
+        // Castling bits already follow Polyglot's order: K, Q, k, q
+        for (int right = 0; right < 4; right++) {
+            if ((position.castlingRights() & (1 << right)) != 0) {
+                key ^= random[POLYGLOT_CASTLE_OFFSET + right];
+            }
+        }
+
+        // Polyglot only hashes the en passant file when a capture is actually possible
+        int enPassantSquare = position.enPassantSquare();
+        if (enPassantSquare != -1) {
+            Color mover = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+            long capturers = AttackMasks.pawnAttacks(enPassantSquare, mover.opposite()) &
+                    bitboards[PieceType.PAWN.toBitboardIndex(mover)];
+            if (capturers != 0) {
+                key ^= random[POLYGLOT_EN_PASSANT_OFFSET + (enPassantSquare & 7)];
+            }
+        }
+
+        if (position.whiteToMove()) {
+            key ^= random[POLYGLOT_TURN_OFFSET];
+        }
+        return key;
+    }
+}
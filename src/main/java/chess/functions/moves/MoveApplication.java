@@ -1,6 +1,7 @@
 package chess.functions.moves;
 
 import chess.data.*;
+import chess.functions.hash.ZobristHash;
 
 public class MoveApplication {
 
@@ -25,47 +26,55 @@ public class MoveApplication {
     }
 
     private static Position applyNormalMove(Position position, Move move) {
-        Square from = Square.of(move.from());
-        Square to = Square.of(move.to());
+        int from = move.from();
+        int to = move.to();
 
-        int movingPiece = position.pieceAt(from.value());
+        int movingPiece = position.pieceAt(from);
         if (movingPiece == -1) {
-            throw new IllegalArgumentException("No piece at square " + from.value());
+            throw new IllegalArgumentException("No piece at square " + from);
         }
 
 
         long[] newBitboards = position.bitboards().clone();
 
         // Remove piece from origin square
-        newBitboards[movingPiece] &= ~from.toBitboard();
+        newBitboards[movingPiece] &= ~(1L << from);
 
         // Handle capture
-        int capturedPiece = position.pieceAt(to.value());
+        int capturedPiece = position.pieceAt(to);
         if (capturedPiece != -1) {
-            newBitboards[capturedPiece] &= ~to.toBitboard();
+            newBitboards[capturedPiece] &= ~(1L << to);
         }
 
         // Place piece on destination square
-        newBitboards[movingPiece] |= to.toBitboard();
+        newBitboards[movingPiece] |= (1L << to);
+
+        byte[] newMailbox = position.mailbox().clone();
+        newMailbox[from] = -1;
+        newMailbox[to] = (byte) movingPiece;
 
         // Update game state
         byte newCastlingRights = updateCastlingRights(position, move, movingPiece, capturedPiece);
         int newEnPassantSquare = updateEnPassantSquare(position, move, movingPiece);
         int newHalfmoveClock = updateHalfmoveClock(position, movingPiece, capturedPiece);
         int newFullmoveNumber = position.whiteToMove() ? position.fullmoveNumber() : position.fullmoveNumber() + 1;
+        long newHash = ZobristHash.updateHashForNormalMove(position.zobristHash(), movingPiece, capturedPiece,
+                position, newEnPassantSquare, newCastlingRights, move);
 
         return Position.create(
                 newBitboards,
+                newMailbox,
                 !position.whiteToMove(),
                 newCastlingRights,
                 newEnPassantSquare,
                 newHalfmoveClock,
-                newFullmoveNumber
+                newFullmoveNumber,
+                newHash
         );
     }
     private static Position applyPromotionMove(Position position, Move move) {
-        Square from = Square.of(move.from());
-        Square to = Square.of(move.to());
+        int from = move.from();
+        int to = move.to();
 
         Color movingColor = position.whiteToMove() ? Color.WHITE : Color.BLACK;
         int pawnIndex = PieceType.PAWN.toBitboardIndex(movingColor);
@@ -74,34 +83,42 @@ public class MoveApplication {
         long[] newBitboards = position.bitboards().clone();
 
         // Remove pawn from origin square
-        newBitboards[pawnIndex] &= ~from.toBitboard();
+        newBitboards[pawnIndex] &= ~(1L << from);
 
         // Handle capture
-        int capturedPiece = position.pieceAt(to.value());
+        int capturedPiece = position.pieceAt(to);
         if (capturedPiece != -1) {
-            newBitboards[capturedPiece] &= ~to.toBitboard();
+            newBitboards[capturedPiece] &= ~(1L << to);
         }
 
         // Place promoted piece on destination square
-        newBitboards[promotionPieceIndex] |= to.toBitboard();
+        newBitboards[promotionPieceIndex] |= (1L << to);
+
+        byte[] newMailbox = position.mailbox().clone();
+        newMailbox[from] = -1;
+        newMailbox[to] = (byte) promotionPieceIndex;
 
         // Update game state
         byte newCastlingRights = updateCastlingRights(position, move, pawnIndex, capturedPiece);
         int newHalfmoveClock = 0; // Pawn move resets halfmove clock
         int newFullmoveNumber = position.whiteToMove() ? position.fullmoveNumber() : position.fullmoveNumber() + 1;
+        long newHash = ZobristHash.updateHashForPromotionMove(position.zobristHash(), pawnIndex, promotionPieceIndex,
+                capturedPiece, position, newCastlingRights, move);
 
         return Position.create(
                 newBitboards,
+                newMailbox,
                 !position.whiteToMove(),
                 newCastlingRights,
                 -1, // No en passant after promotion
                 newHalfmoveClock,
-                newFullmoveNumber
+                newFullmoveNumber,
+                newHash
         );
     }
     private static Position applyEnPassantMove(Position position, Move move) {
-        Square from = Square.of(move.from());
-        Square to = Square.of(move.to());
+        int from = move.from();
+        int to = move.to();
 
         Color movingColor = position.whiteToMove() ? Color.WHITE : Color.BLACK;
         Color capturedColor = movingColor.opposite();
@@ -110,39 +127,47 @@ public class MoveApplication {
         int capturedPawnIndex = PieceType.PAWN.toBitboardIndex(capturedColor);
 
         // Calculate captured pawn position
-        int capturedPawnSquare = movingColor == Color.WHITE ? to.value() - 8 : to.value() + 8;
-        Square capturedPawnPos = Square.of(capturedPawnSquare);
+        int capturedPawnSquare = movingColor == Color.WHITE ? to - 8 : to + 8;
 
         long[] newBitboards = position.bitboards().clone();
 
         // Remove moving pawn from origin
-        newBitboards[movingPawnIndex] &= ~from.toBitboard();
+        newBitboards[movingPawnIndex] &= ~(1L << from);
 
         // Remove captured pawn
-        newBitboards[capturedPawnIndex] &= ~capturedPawnPos.toBitboard();
+        newBitboards[capturedPawnIndex] &= ~(1L << capturedPawnSquare);
 
         // Place moving pawn on destination
-        newBitboards[movingPawnIndex] |= to.toBitboard();
+        newBitboards[movingPawnIndex] |= (1L << to);
+
+        byte[] newMailbox = position.mailbox().clone();
+        newMailbox[from] = -1;
+        newMailbox[capturedPawnSquare] = -1;
+        newMailbox[to] = (byte) movingPawnIndex;
 
         // Update game state
         int newHalfmoveClock = 0; // Pawn move resets halfmove clock
         int newFullmoveNumber = position.whiteToMove() ? position.fullmoveNumber() : position.fullmoveNumber() + 1;
+        long newHash = ZobristHash.updateHashForEnPassantMove(position.zobristHash(), movingPawnIndex,
+                capturedPawnIndex, capturedPawnSquare, position, move);
 
         return Position.create(
                 newBitboards,
+                newMailbox,
                 !position.whiteToMove(),
                 position.castlingRights(), // En passant doesn't affect castling
                 -1, // No en passant after en passant capture
                 newHalfmoveClock,
-                newFullmoveNumber
+                newFullmoveNumber,
+                newHash
         );
     }
     private static Position applyCastlingMove(Position position, Move move) {
-        Square kingFrom = Square.of(move.from());
-        Square kingTo = Square.of(move.to());
+        int kingFrom = move.from();
+        int kingTo = move.to();
 
         Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
-        boolean isKingside = kingTo.value() > kingFrom.value();
+        boolean isKingside = kingTo > kingFrom;
 
         // Determine rook positions
         CastlingPositions positions = getCastlingPositions(color, isKingside);
@@ -153,12 +178,18 @@ public class MoveApplication {
         long[] newBitboards = position.bitboards().clone();
 
         // Move king
-        newBitboards[kingIndex] &= ~kingFrom.toBitboard();
-        newBitboards[kingIndex] |= kingTo.toBitboard();
+        newBitboards[kingIndex] &= ~(1L << kingFrom);
+        newBitboards[kingIndex] |= (1L << kingTo);
 
         // Move rook
-        newBitboards[rookIndex] &= ~positions.rookFrom().toBitboard();
-        newBitboards[rookIndex] |= positions.rookTo().toBitboard();
+        newBitboards[rookIndex] &= ~(1L << positions.rookFrom());
+        newBitboards[rookIndex] |= (1L << positions.rookTo());
+
+        byte[] newMailbox = position.mailbox().clone();
+        newMailbox[kingFrom] = -1;
+        newMailbox[positions.rookFrom()] = -1;
+        newMailbox[kingTo] = (byte) kingIndex;
+        newMailbox[positions.rookTo()] = (byte) rookIndex;
 
         // Update castling rights (remove for the color that just castled)
         byte newCastlingRights = removeCastlingRights(position.castlingRights(), color);
@@ -166,27 +197,32 @@ public class MoveApplication {
         // Update game state
         int newHalfmoveClock = position.halfmoveClock() + 1; // King move doesn't reset clock
         int newFullmoveNumber = position.whiteToMove() ? position.fullmoveNumber() : position.fullmoveNumber() + 1;
+        long newHash = ZobristHash.updateHashForCastlingMove(position.zobristHash(), kingIndex, rookIndex,
+                positions, position, newCastlingRights, move);
 
         return Position.create(
                 newBitboards,
+                newMailbox,
                 !position.whiteToMove(),
                 newCastlingRights,
                 -1, // No en passant after castling
                 newHalfmoveClock,
-                newFullmoveNumber
+                newFullmoveNumber,
+                newHash
         );
     }
 
-    private record CastlingPositions(Square rookFrom, Square rookTo) {}
+    public record CastlingPositions(int rookFrom, int rookTo) {}
+    private static final CastlingPositions WHITE_KINGSIDE = new CastlingPositions(7, 5);    // h1->f1
+    private static final CastlingPositions WHITE_QUEENSIDE = new CastlingPositions(0, 3);   // a1->d1
+    private static final CastlingPositions BLACK_KINGSIDE = new CastlingPositions(63, 61);  // h8->f8
+    private static final CastlingPositions BLACK_QUEENSIDE = new CastlingPositions(56, 59); // a8->d8
+
     private static CastlingPositions getCastlingPositions(Color color, boolean isKingside) {
         if (color == Color.WHITE) {
-            return isKingside ?
-                    new CastlingPositions(Square.of(7), Square.of(5)) :  // Kingside: h1->f1
-                    new CastlingPositions(Square.of(0), Square.of(3));   // Queenside: a1->d1
+            return isKingside ? WHITE_KINGSIDE : WHITE_QUEENSIDE;
         } else {
-            return isKingside ?
-                    new CastlingPositions(Square.of(63), Square.of(61)) : // Kingside: h8->f8
-                    new CastlingPositions(Square.of(56), Square.of(59));  // Queenside: a8->d8
+            return isKingside ? BLACK_KINGSIDE : BLACK_QUEENSIDE;
         }
     }
     private static byte updateCastlingRights(Position position, Move move,
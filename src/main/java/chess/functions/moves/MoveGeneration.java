@@ -2,248 +2,441 @@ package chess.functions.moves;
 
 import chess.data.*;
 import chess.functions.attacks.AttackMasks;
-import chess.functions.rules.CheckRules2;
+import chess.functions.rules.CheckRules;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public final class MoveGeneration {
 
+    // Upper bound on pseudo-legal moves in any reachable position (218 legal is the known maximum)
+    public static final int MAX_MOVES = 256;
+
+    // Scratch space for the List-returning entry points
+    private static final ThreadLocal<int[]> BUFFER = ThreadLocal.withInitial(() -> new int[MAX_MOVES]);
+
     private MoveGeneration() {} // Utility class
 
     // Main entry point for legal move generation
     public static List<Move> generateLegalMoves(Position position) {
-        return generatePseudoLegalMoves(position).stream()
-                .filter(move -> !CheckRules2.leavesKingInCheck(position, move))
-                .toList();
+        int[] buffer = BUFFER.get();
+        return toMoves(buffer, generateLegalMoves(position, buffer));
     }
 
     // Generate all pseudo-legal moves
     public static List<Move> generatePseudoLegalMoves(Position position) {
-        List<Move> moves = new ArrayList<>(64);
-        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        int[] buffer = BUFFER.get();
+        return toMoves(buffer, generatePseudoLegalMoves(position, buffer));
+    }
 
-        generatePawnMoves(position, color, moves);
-        generateKnightMoves(position, color, moves);
-        generateBishopMoves(position, color, moves);
-        generateRookMoves(position, color, moves);
-        generateQueenMoves(position, color, moves);
-        generateKingMoves(position, color, moves);
+    // Pseudo-legal evasions; the side to move must be in check
+    public static List<Move> generateEvasions(Position position) {
+        int[] buffer = BUFFER.get();
+        return toMoves(buffer, generateEvasions(position, buffer));
+    }
 
-        return moves;
+    // Legal quiet moves that give check
+    public static List<Move> generateQuietChecks(Position position) {
+        int[] buffer = BUFFER.get();
+        return toMoves(buffer, generateQuietChecks(position, buffer));
     }
 
-    private static void generatePawnMoves(Position position, Color color, List<Move> moves) {
-        long pawns = position.bitboards()[PieceType.PAWN.toBitboardIndex(color)];
+    /**
+     * Writes the encoded legal moves into {@code moves} (at least {@link #MAX_MOVES} long)
+     * and returns how many were written. In check, only evasions are generated.
+     */
+    public static int generateLegalMoves(Position position, int[] moves) {
+        // One attack map serves check detection, castling and every king move
+        long attacked = CheckRules.enemyAttacks(position);
+        long checkers = CheckRules.checkers(position, attacked);
+        int count = checkers == 0 ? generatePseudoLegalMoves(position, attacked, moves) :
+                generateEvasions(position, checkers, moves);
+        return filterLegal(position, attacked, moves, count);
+    }
 
-        while (pawns != 0) {
-            int square = Long.numberOfTrailingZeros(pawns);
-            generatePawnMovesFromSquare(position, Square.of(square), color, moves);
-            pawns &= pawns - 1;
-        }
-    }
-    private static void generatePawnMovesFromSquare(Position position, Square from,
-                                                    Color color, List<Move> moves) {
-        int direction = color == Color.WHITE ? 8 : -8;
-        int startRank = color == Color.WHITE ? 1 : 6;
-        int promotionRank = color == Color.WHITE ? 7 : 0;
-
-        // Single push
-        int singlePushSquare = from.value() + direction;
-        if (singlePushSquare >= 0 && singlePushSquare < 64 &&
-                position.pieceAt(singlePushSquare) == -1) {
-
-            Square to = Square.of(singlePushSquare);
-
-            if (to.rank() == promotionRank) {
-                addPromotionMoves(from, to, moves);
-            } else {
-                moves.add(Move.normal(from.value(), to.value()));
-
-                // Double push
-                if (from.rank() == startRank) {
-                    int doublePushSquare = singlePushSquare + direction;
-                    if (doublePushSquare >= 0 && doublePushSquare < 64 &&
-                            position.pieceAt(doublePushSquare) == -1) {
-                        moves.add(Move.normal(from.value(), doublePushSquare));
-                    }
-                }
-            }
-        }
+    /**
+     * Writes the encoded pseudo-legal moves into {@code moves} (at least {@link #MAX_MOVES}
+     * long) and returns how many were written. Allocates nothing.
+     */
+    public static int generatePseudoLegalMoves(Position position, int[] moves) {
+        // The attack map is only needed to castle
+        return generatePseudoLegalMoves(position, position.castlingRights() == 0 ? 0 :
+                CheckRules.enemyAttacks(position), moves);
+    }
 
-        // Captures
-        generatePawnCaptures(position, from, color, moves);
+    private static int generatePseudoLegalMoves(Position position, long attacked, int[] moves) {
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        long targets = ~position.friendlyPieces();
 
-        // En passant
-        if (position.enPassantSquare() != -1) {
-            generateEnPassantCaptures(position, from, color, moves);
+        int count = generatePawnMoves(position, color, targets, moves, 0);
+        count = generatePieceMoves(position, color, targets, moves, count);
+
+        long king = position.bitboards()[PieceType.KING.toBitboardIndex(color)];
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            count = addMovesFromBitboard(from, AttackMasks.kingAttacks(from) & targets, moves, count);
         }
+
+        // Castling moves
+        return generateCastlingMoves(position, color, attacked, moves, count);
     }
-    private static void generatePawnCaptures(Position position, Square from,
-                                             Color color, List<Move> moves) {
-        long attacks = AttackMasks.pawnAttacks(from, color);
-        long enemyPieces = position.enemyPieces();
-        long captureTargets = attacks & enemyPieces;
 
-        while (captureTargets != 0) {
-            int toSquare = Long.numberOfTrailingZeros(captureTargets);
-            Square to = Square.of(toSquare);
+    // ===== CHECK EVASIONS =====
+    /**
+     * Writes pseudo-legal evasions for a side in check: king steps, and with a single
+     * checker also its capture and interpositions on the check ray. Returns the count.
+     */
+    public static int generateEvasions(Position position, int[] moves) {
+        long checkers = CheckRules.checkers(position);
+        if (checkers == 0) {
+            throw new IllegalArgumentException("Side to move is not in check");
+        }
+        return generateEvasions(position, checkers, moves);
+    }
 
-            int promotionRank = color == Color.WHITE ? 7 : 0;
-            if (to.rank() == promotionRank) {
-                addPromotionMoves(from, to, moves);
-            } else {
-                moves.add(Move.normal(from.value(), to.value()));
-            }
+    private static int generateEvasions(Position position, long checkers, int[] moves) {
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        int king = Long.numberOfTrailingZeros(position.bitboards()[PieceType.KING.toBitboardIndex(color)]);
+        int count = addMovesFromBitboard(king, AttackMasks.kingAttacks(king) & ~position.friendlyPieces(), moves, 0);
+        if ((checkers & checkers - 1) != 0) {
+            return count; // Double check: only the king can move
+        }
 
-            captureTargets &= captureTargets - 1;
+        // A slider's ray is where its attacks and the king's meet; knights and pawns have none
+        int checker = Long.numberOfTrailingZeros(checkers);
+        int piece = position.pieceAt(checker) % 6;
+        long occupied = position.occupied();
+        long ray = 0;
+        if (piece != PieceType.KNIGHT.index && piece != PieceType.PAWN.index) {
+            long straight = AttackMasks.rookAttacks(king, occupied);
+            ray = (straight & checkers) != 0 ?
+                    straight & AttackMasks.rookAttacks(checker, occupied) :
+                    AttackMasks.bishopAttacks(king, occupied) & AttackMasks.bishopAttacks(checker, occupied);
         }
+        long targets = checkers | ray;
+        count = generatePawnMoves(position, color, targets, moves, count);
+        return generatePieceMoves(position, color, targets, moves, count);
     }
 
-    private static void generateEnPassantCaptures(Position position, Square from,
-                                                  Color color, List<Move> moves) {
-        Square enPassantSquare = Square.of(position.enPassantSquare());
-        long attacks = AttackMasks.pawnAttacks(from, color);
+    // ===== QUIET CHECKS =====
+    /**
+     * Writes the legal non-capturing, non-promoting moves that give check, direct or
+     * discovered (castling into check is left out), and returns how many were written.
+     * Meant for the first quiescence ply, next to captures and promotions.
+     */
+    public static int generateQuietChecks(Position position, int[] moves) {
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        long[] bitboards = position.bitboards();
+        long enemyKing = bitboards[PieceType.KING.toBitboardIndex(color.opposite())];
+        if (enemyKing == 0) {
+            return 0;
+        }
+        long empty = ~position.occupied();
+        long promotionRank = color == Color.WHITE ? 0xFF00000000000000L : 0x00000000000000FFL;
+
+        int count = 0;
+        long pawns = bitboards[PieceType.PAWN.toBitboardIndex(color)];
+        int forward = color == Color.WHITE ? 8 : -8;
+        count = addPawnMoves(AttackMasks.pawnSinglePushes(pawns, empty, color) & ~promotionRank, forward, moves, count);
+        count = addPawnMoves(AttackMasks.pawnDoublePushes(pawns, empty, color), 2 * forward, moves, count);
+        count = generatePieceMoves(position, color, empty, moves, count);
+        long king = bitboards[PieceType.KING.toBitboardIndex(color)];
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            count = addMovesFromBitboard(from, AttackMasks.kingAttacks(from) & empty, moves, count);
+        }
 
-        if ((attacks & enPassantSquare.toBitboard()) != 0) {
-            moves.add(Move.enPassant(from.value(), enPassantSquare.value()));
+        int checks = 0;
+        int kingSquare = Long.numberOfTrailingZeros(enemyKing);
+        for (int i = 0; i < count; i++) {
+            if (givesQuietCheck(position, color, moves[i], kingSquare)) {
+                moves[checks++] = moves[i];
+            }
         }
-    }
-    private static void addPromotionMoves(Square from, Square to, List<Move> moves) {
-        moves.add(Move.promotion(from.value(), to.value(), Move.PROMO_QUEEN));
-        moves.add(Move.promotion(from.value(), to.value(), Move.PROMO_ROOK));
-        moves.add(Move.promotion(from.value(), to.value(), Move.PROMO_BISHOP));
-        moves.add(Move.promotion(from.value(), to.value(), Move.PROMO_KNIGHT));
+        return filterLegal(position, CheckRules.enemyAttacks(position), moves, checks);
     }
 
-    private static void generateKnightMoves(Position position, Color color, List<Move> moves) {
-        long knights = position.bitboards()[PieceType.KNIGHT.toBitboardIndex(color)];
-        generateJumpingPieceMoves(position, knights, AttackMasks::knightAttacks, moves);
+    // Whether a quiet move gives check, from the moved piece or a line it opens; no move is made
+    private static boolean givesQuietCheck(Position position, Color color, int move, int kingSquare) {
+        int from = move >>> 6 & 0x3F;
+        int to = move & 0x3F;
+        long[] bitboards = position.bitboards();
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        long occupied = position.occupied() ^ fromBit ^ toBit;
+        int piece = position.pieceAt(from) % 6;
+
+        if (piece == PieceType.KNIGHT.index && (AttackMasks.knightAttacks(to) & (1L << kingSquare)) != 0 ||
+                piece == PieceType.PAWN.index && (AttackMasks.pawnAttacks(to, color) & (1L << kingSquare)) != 0) {
+            return true;
+        }
+        long queens = bitboards[PieceType.QUEEN.toBitboardIndex(color)];
+        long diagonal = (bitboards[PieceType.BISHOP.toBitboardIndex(color)] | queens) & ~fromBit;
+        long straight = (bitboards[PieceType.ROOK.toBitboardIndex(color)] | queens) & ~fromBit;
+        if (piece == PieceType.BISHOP.index || piece == PieceType.QUEEN.index) {
+            diagonal |= toBit;
+        }
+        if (piece == PieceType.ROOK.index || piece == PieceType.QUEEN.index) {
+            straight |= toBit;
+        }
+        return (AttackMasks.bishopAttacks(kingSquare, occupied) & diagonal) != 0 ||
+                (AttackMasks.rookAttacks(kingSquare, occupied) & straight) != 0;
     }
-    private static void generateKingMoves(Position position, Color color, List<Move> moves) {
-        long king = position.bitboards()[PieceType.KING.toBitboardIndex(color)];
-        generateJumpingPieceMoves(position, king, AttackMasks::kingAttacks, moves);
 
-        // Castling moves
-        generateCastlingMoves(position, color, moves);
-    }
-    private static void generateBishopMoves(Position position, Color color, List<Move> moves) {
-        long bishops = position.bitboards()[PieceType.BISHOP.toBitboardIndex(color)];
-        generateSlidingPieceMoves(position, bishops,
-                square -> AttackMasks.bishopAttacks(square, position.occupied()), moves);
-    }
-    private static void generateRookMoves(Position position, Color color, List<Move> moves) {
-        long rooks = position.bitboards()[PieceType.ROOK.toBitboardIndex(color)];
-        generateSlidingPieceMoves(position, rooks,
-                square -> AttackMasks.rookAttacks(square, position.occupied()), moves);
-    }
-    private static void generateQueenMoves(Position position, Color color, List<Move> moves) {
-        long queens = position.bitboards()[PieceType.QUEEN.toBitboardIndex(color)];
-        generateSlidingPieceMoves(position, queens,
-                square -> AttackMasks.queenAttacks(square, position.occupied()), moves);
+    private static int filterLegal(Position position, long attacked, int[] moves, int count) {
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            if (keepsKingSafe(position, attacked, moves[i])) {
+                moves[legal++] = moves[i];
+            }
+        }
+        return legal;
     }
 
-    // Higher-order functions for piece move generation
-    private static void generateJumpingPieceMoves(Position position, long pieces,
-                                                  java.util.function.Function<Square, Long> attackFunction,
-                                                  List<Move> moves) {
-        while (pieces != 0) {
-            int fromSquare = Long.numberOfTrailingZeros(pieces);
-            Square from = Square.of(fromSquare);
-
-            long attacks = attackFunction.apply(from) & ~position.friendlyPieces();
-            addMovesFromBitboard(from, attacks, moves);
+    // ===== SINGLE-MOVE VALIDATION =====
+    /**
+     * Whether a raw 16-bit encoding is a move {@link #generatePseudoLegalMoves} would
+     * produce here, checked against the bitboards without generating anything. Meant
+     * for moves pulled from tables (hash and killer moves), which may come from
+     * another position.
+     */
+    public static boolean isPseudoLegal(Position position, int move) {
+        if ((move & 0xFFFF0000) != 0) {
+            return false;
+        }
+        int from = move >>> 6 & 0x3F;
+        int to = move & 0x3F;
+        int promotion = move >>> 12 & 0x3;
+        int flag = move >>> 14 & 0x3;
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        int piece = position.pieceAt(from);
+        if (piece < 0 || Color.getPieceColor(piece) != color || from == to) {
+            return false;
+        }
+        long toBit = 1L << to;
+        if ((position.friendlyPieces() & toBit) != 0 || (flag != Move.PROMOTION && promotion != 0)) {
+            return false;
+        }
 
-            pieces &= pieces - 1;
+        int type = piece % 6;
+        long occupied = position.occupied();
+        if (type == PieceType.PAWN.index) {
+            return isPseudoLegalPawnMove(position, color, from, to, flag);
+        }
+        if (flag == Move.CASTLING) {
+            return type == PieceType.KING.index && isPseudoLegalCastle(position, color, from, to);
+        }
+        if (flag != Move.NORMAL) {
+            return false;
         }
+        long attacks = switch (PieceType.fromCombinedIndex(piece)) {
+            case KNIGHT -> AttackMasks.knightAttacks(from);
+            case BISHOP -> AttackMasks.bishopAttacks(from, occupied);
+            case ROOK -> AttackMasks.rookAttacks(from, occupied);
+            case QUEEN -> AttackMasks.queenAttacks(from, occupied);
+            default -> AttackMasks.kingAttacks(from);
+        };
+        return (attacks & toBit) != 0;
     }
 
-    private static void generateSlidingPieceMoves(Position position, long pieces,
-                                                  java.util.function.Function<Square, Long> attackFunction,
-                                                  List<Move> moves) {
-        while (pieces != 0) {
-            int fromSquare = Long.numberOfTrailingZeros(pieces);
-            Square from = Square.of(fromSquare);
-
-            long attacks = attackFunction.apply(from) & ~position.friendlyPieces();
-
-            addMovesFromBitboard(from, attacks, moves);
+    // Whether a raw encoding is a legal move here; see isPseudoLegal
+    public static boolean isLegal(Position position, int move) {
+        return isPseudoLegal(position, move) && keepsKingSafe(position, CheckRules.enemyAttacks(position), move);
+    }
 
-            pieces &= pieces - 1;
+    private static boolean isPseudoLegalPawnMove(Position position, Color color, int from, int to, int flag) {
+        boolean white = color == Color.WHITE;
+        long toBit = 1L << to;
+        long empty = ~position.occupied();
+        if (flag == Move.EN_PASSANT) {
+            return to == position.enPassantSquare() && (AttackMasks.pawnAttacks(from, color) & toBit) != 0;
         }
+        long promotionRank = white ? 0xFF00000000000000L : 0x00000000000000FFL;
+        if ((flag == Move.PROMOTION) != ((promotionRank & toBit) != 0) || flag == Move.CASTLING) {
+            return false;
+        }
+        long fromBit = 1L << from;
+        return (AttackMasks.pawnSinglePushes(fromBit, empty, color) & toBit) != 0 ||
+                (AttackMasks.pawnDoublePushes(fromBit, empty, color) & toBit) != 0 ||
+                (AttackMasks.pawnAttacks(from, color) & position.enemyPieces() & toBit) != 0;
     }
 
-    private static void addMovesFromBitboard(Square from, long targets, List<Move> moves) {
-        while (targets != 0) {
-            int toSquare = Long.numberOfTrailingZeros(targets);
-            moves.add(Move.normal(from.value(), toSquare));
-            targets &= targets - 1;
+    private static boolean isPseudoLegalCastle(Position position, Color color, int from, int to) {
+        int kingSquare = color == Color.WHITE ? 4 : 60;
+        if (from != kingSquare || (to != kingSquare + 2 && to != kingSquare - 2)) {
+            return false;
         }
+        // Run the generator for just this side; it checks rights, empty squares and attacks
+        int[] castles = new int[2];
+        int count = generateCastlingMoves(position, color, CheckRules.enemyAttacks(position), castles, 0);
+        int move = Move.encode(from, to, 0, Move.CASTLING);
+        return count > 0 && castles[0] == move || count > 1 && castles[1] == move;
     }
-    private static void generateCastlingMoves(Position position, Color color, List<Move> moves) {
-        // Castling constants
-        byte kingside = (byte) (color == Color.WHITE ? 0x01 : 0x04);
-        byte queenside = (byte) (color == Color.WHITE ? 0x02 : 0x08);
 
-        if ((position.castlingRights() & (kingside | queenside)) == 0) {
-            return;
+    /**
+     * Whether a pseudo-legal move leaves the mover's king unattacked, without making
+     * it. A king step is one test against the enemy attack map; for other pieces,
+     * pins and checks both show up as an attacker of the king on the occupancy after
+     * the move. En passant, which removes a second piece, is made in full.
+     */
+    private static boolean keepsKingSafe(Position position, long attacked, int move) {
+        int from = move >>> 6 & 0x3F;
+        int to = move & 0x3F;
+        int flag = move >>> 14 & 0x3;
+        if (flag == Move.EN_PASSANT) {
+            return !CheckRules.leavesKingInCheck(position, Move.fromEncoded(move));
+        }
+        if (flag == Move.CASTLING) {
+            return true; // The generator only offers castles through unattacked squares
         }
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        long toBit = 1L << to;
+        long king = position.bitboards()[PieceType.KING.toBitboardIndex(color)];
+        if (from == Long.numberOfTrailingZeros(king)) {
+            return (attacked & toBit) == 0;
+        }
+        long occupied = position.occupied() & ~(1L << from) | toBit;
+        // A captured piece attacks nothing
+        return (CheckRules.attackersOf(position, Long.numberOfTrailingZeros(king), color.opposite(), occupied) &
+                ~toBit) == 0;
+    }
+
+    // Knight, bishop, rook and queen moves onto the target squares
+    private static int generatePieceMoves(Position position, Color color, long targets, int[] moves, int count) {
+        long[] bitboards = position.bitboards();
+        long occupied = position.occupied();
 
-        Square kingSquare = Square.of(color == Color.WHITE ? 4 : 60);
+        long knights = bitboards[PieceType.KNIGHT.toBitboardIndex(color)];
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            count = addMovesFromBitboard(from, AttackMasks.knightAttacks(from) & targets, moves, count);
+            knights &= knights - 1;
+        }
 
-        // Can't castle when in check
-        if (CheckRules2.isSquareAttacked(position, kingSquare, color.opposite())) {
-            return;
+        long bishops = bitboards[PieceType.BISHOP.toBitboardIndex(color)];
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            count = addMovesFromBitboard(from, AttackMasks.bishopAttacks(from, occupied) & targets, moves, count);
+            bishops &= bishops - 1;
         }
 
-        // Kingside castling
-        if ((position.castlingRights() & kingside) != 0) {
-            generateKingsideCastle(position, color, moves);
+        long rooks = bitboards[PieceType.ROOK.toBitboardIndex(color)];
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            count = addMovesFromBitboard(from, AttackMasks.rookAttacks(from, occupied) & targets, moves, count);
+            rooks &= rooks - 1;
         }
 
-        // Queenside castling
-        if ((position.castlingRights() & queenside) != 0) {
-            generateQueensideCastle(position, color, moves);
+        long queens = bitboards[PieceType.QUEEN.toBitboardIndex(color)];
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            count = addMovesFromBitboard(from, AttackMasks.queenAttacks(from, occupied) & targets, moves, count);
+            queens &= queens - 1;
         }
+        return count;
     }
-    private static void generateKingsideCastle(Position position, Color color, List<Move> moves) {
-        int kingSquare = color == Color.WHITE ? 4 : 60;
-        int rookSquare = color == Color.WHITE ? 7 : 63;
-        int kingDestination = color == Color.WHITE ? 6 : 62;
 
-        // Check if squares are empty
-        long emptyMask = color == Color.WHITE ? 0x60L : 0x6000000000000000L;
-        if ((position.occupied() & emptyMask) != 0) {
-            return;
+    private static List<Move> toMoves(int[] encoded, int count) {
+        List<Move> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(Move.fromEncoded(encoded[i]));
         }
+        return moves;
+    }
 
-        // Check if squares are not attacked
-        Square f1g1 = Square.of(color == Color.WHITE ? 5 : 61);
-        Square g1g8 = Square.of(kingDestination);
+    // Pawn moves are generated setwise: shift the whole pawn set, then bitscan the targets.
+    // Pushes and captures are limited to the target squares; en passant is always offered.
+    private static int generatePawnMoves(Position position, Color color, long targets, int[] moves, int count) {
+        long pawns = position.bitboards()[PieceType.PAWN.toBitboardIndex(color)];
+        if (pawns == 0) {
+            return count;
+        }
+        boolean white = color == Color.WHITE;
+        int forward = white ? 8 : -8;
+        long promotionRank = white ? 0xFF00000000000000L : 0x00000000000000FFL;
+        long empty = ~position.occupied();
+        long enemies = position.enemyPieces();
+
+        long pushes = AttackMasks.pawnSinglePushes(pawns, empty, color) & targets;
+        count = addPawnMoves(pushes & ~promotionRank, forward, moves, count);
+        count = addPawnPromotions(pushes & promotionRank, forward, moves, count);
+        count = addPawnMoves(AttackMasks.pawnDoublePushes(pawns, empty, color) & targets, 2 * forward, moves, count);
+
+        long westCaptures = AttackMasks.pawnAttacksWest(pawns, color) & enemies & targets;
+        long eastCaptures = AttackMasks.pawnAttacksEast(pawns, color) & enemies & targets;
+        int westOffset = white ? 7 : -9;
+        int eastOffset = white ? 9 : -7;
+        count = addPawnMoves(westCaptures & ~promotionRank, westOffset, moves, count);
+        count = addPawnPromotions(westCaptures & promotionRank, westOffset, moves, count);
+        count = addPawnMoves(eastCaptures & ~promotionRank, eastOffset, moves, count);
+        count = addPawnPromotions(eastCaptures & promotionRank, eastOffset, moves, count);
 
-        if (!CheckRules2.isSquareAttacked(position, f1g1, color.opposite()) &&
-                !CheckRules2.isSquareAttacked(position, g1g8, color.opposite())) {
-            moves.add(Move.castling(kingSquare, kingDestination));
+        // En passant
+        int enPassantSquare = position.enPassantSquare();
+        if (enPassantSquare != -1) {
+            long target = 1L << enPassantSquare;
+            if ((AttackMasks.pawnAttacksWest(pawns, color) & target) != 0) {
+                moves[count++] = Move.encode(enPassantSquare - westOffset, enPassantSquare, 0, Move.EN_PASSANT);
+            }
+            if ((AttackMasks.pawnAttacksEast(pawns, color) & target) != 0) {
+                moves[count++] = Move.encode(enPassantSquare - eastOffset, enPassantSquare, 0, Move.EN_PASSANT);
+            }
         }
+        return count;
     }
-    private static void generateQueensideCastle(Position position, Color color, List<Move> moves) {
-        int kingSquare = color == Color.WHITE ? 4 : 60;
-        int rookSquare = color == Color.WHITE ? 0 : 56;
-        int kingDestination = color == Color.WHITE ? 2 : 58;
-
-        // Check if squares are empty
-        long emptyMask = color == Color.WHITE ? 0x0EL : 0x0E00000000000000L;
-        if ((position.occupied() & emptyMask) != 0) {
-            return;
+    // Every target in the set was reached by a pawn standing {@code offset} squares behind it
+    private static int addPawnMoves(long targets, int offset, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.encode(to - offset, to, 0, Move.NORMAL);
+            targets &= targets - 1;
+        }
+        return count;
+    }
+    private static int addPawnPromotions(long targets, int offset, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            count = addPromotionMoves(to - offset, to, moves, count);
+            targets &= targets - 1;
         }
+        return count;
+    }
+    private static int addPromotionMoves(int from, int to, int[] moves, int count) {
+        moves[count++] = Move.encode(from, to, Move.PROMO_QUEEN, Move.PROMOTION);
+        moves[count++] = Move.encode(from, to, Move.PROMO_ROOK, Move.PROMOTION);
+        moves[count++] = Move.encode(from, to, Move.PROMO_BISHOP, Move.PROMOTION);
+        moves[count++] = Move.encode(from, to, Move.PROMO_KNIGHT, Move.PROMOTION);
+        return count;
+    }
 
-        // Check if squares are not attacked
-        Square d1d8 = Square.of(color == Color.WHITE ? 3 : 59);
-        Square c1c8 = Square.of(kingDestination);
+    private static int addMovesFromBitboard(int from, long targets, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.encode(from, to, 0, Move.NORMAL);
+            targets &= targets - 1;
+        }
+        return count;
+    }
+    // Castling needs the right, empty squares up to the rook and no attacked square on the king's path
+    private static int generateCastlingMoves(Position position, Color color, long attacked, int[] moves,
+                                             int count) {
+        byte kingside = (byte) (color == Color.WHITE ? 0x01 : 0x04);
+        byte queenside = (byte) (color == Color.WHITE ? 0x02 : 0x08);
+        if ((position.castlingRights() & (kingside | queenside)) == 0) {
+            return count;
+        }
 
-        if (!CheckRules2.isSquareAttacked(position, d1d8, color.opposite()) &&
-                !CheckRules2.isSquareAttacked(position, c1c8, color.opposite())) {
-            moves.add(Move.castling(kingSquare, kingDestination));
+        int shift = color == Color.WHITE ? 0 : 56;
+        int kingSquare = 4 + shift;
+        long occupied = position.occupied();
+        if ((position.castlingRights() & kingside) != 0 &&
+                (occupied & 0x60L << shift) == 0 && (attacked & 0x70L << shift) == 0) {
+            moves[count++] = Move.encode(kingSquare, kingSquare + 2, 0, Move.CASTLING);
+        }
+        if ((position.castlingRights() & queenside) != 0 &&
+                (occupied & 0x0EL << shift) == 0 && (attacked & 0x1CL << shift) == 0) {
+            moves[count++] = Move.encode(kingSquare, kingSquare - 2, 0, Move.CASTLING);
         }
+        return count;
     }
-}
\ No newline at end of file
+}
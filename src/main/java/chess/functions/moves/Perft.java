@@ -0,0 +1,72 @@
+package chess.functions.moves;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. The counts for
+ * well-known positions are published, so any mismatch points at a move
+ * generation or move application bug; {@link #divide} narrows it to a root move.
+ */
+public final class Perft {
+
+    private Perft() {} // Utility class
+
+    public static long perft(Position position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = new int[MoveGeneration.MAX_MOVES];
+        int count = MoveGeneration.generateLegalMoves(position, moves);
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            nodes += perft(MoveApplication.applyMove(position, Move.fromEncoded(moves[i])), depth - 1);
+        }
+        return nodes;
+    }
+
+    // Leaf counts per root move, in generation order
+    public static Map<Move, Long> divide(Position position, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1, got: " + depth);
+        }
+        Map<Move, Long> counts = new LinkedHashMap<>();
+        for (Move move : MoveGeneration.generateLegalMoves(position)) {
+            counts.put(move, perft(MoveApplication.applyMove(position, move), depth - 1));
+        }
+        return counts;
+    }
+
+    // Usage: Perft <depth> [fen]
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Perft <depth> [fen]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        Position position = args.length > 1 ?
+                FenParser.parse(String.join(" ", Arrays.copyOfRange(args, 1, args.length))) :
+                FenParser.standPos();
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<Move, Long> entry : divide(position, depth).entrySet()) {
+            System.out.println(entry.getKey().toAlgebraic() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.println("Time (ms): " + elapsedMs);
+    }
+}
@@ -2,28 +2,25 @@ package chess.functions.parser;
 
 import chess.data.Color;
 import chess.data.Position;
+import chess.functions.hash.ZobristHash;
 import chess.utilities.fenUtilities;
 
-import java.util.Arrays;
-
 import static chess.utilities.fenUtilities.*;
 
 
 public class FenParser {
     public static Position parse(String FEN) {
-        //throw new UnsupportedOperationException("Not supported yet.");
-
         if (FEN == null || FEN.trim().isEmpty()) {
             throw new IllegalArgumentException("FEN string cannot be null or empty"); // TODO: Create custom exceptions
         }
 
-        String[] tokens = FEN.split("\\s+");
+        String[] tokens = FEN.trim().split("\\s+");
         if (tokens.length != 6) {
             throw new IllegalArgumentException("FEN string must have 6 components");
         }
 
         String piecePlacement = tokens[0];
-        Long[] bitboard = parsePiecePlacement(piecePlacement);
+        long[] bitboard = parsePiecePlacement(piecePlacement);
 
         Color activePlayer = Color.BLACK;
 
@@ -37,21 +34,75 @@ public class FenParser {
         }
 
         String castlingAvailability = tokens[2];
+        byte castlingRights = parseCastlingRights(castlingAvailability);
+
+        int enPassantSquare = parseEnPassantSquare(tokens[3]);
+        int halfMoveClock = parseCounter(tokens[4], "halfmove clock");
+        int fullMoveNumber = parseCounter(tokens[5], "fullmove number");
+
+        boolean whiteToMove = activePlayer == Color.WHITE;
+        long zobristHash = ZobristHash.computeHash(bitboard, whiteToMove, castlingRights, enPassantSquare);
+
+        return Position.create(
+                bitboard,
+                whiteToMove,
+                castlingRights,
+                enPassantSquare,
+                halfMoveClock,
+                fullMoveNumber,
+                zobristHash
+        );
+    }
 
+    private static byte parseCastlingRights(String castlingAvailability) {
+        if ("-".equals(castlingAvailability)) {
+            return 0;
+        }
+
+        byte rights = 0;
+        for (char c : castlingAvailability.toCharArray()) {
+            switch (c) {
+                case 'K': rights |= 0x01; break;
+                case 'Q': rights |= 0x02; break;
+                case 'k': rights |= 0x04; break;
+                case 'q': rights |= 0x08; break;
+                default:
+                    throw new IllegalArgumentException("Invalid castling availability: " + castlingAvailability);
+            }
+        }
+        return rights;
+    }
 
-        //Position.create()
-        //return Position; //TODO: Must continue with the fen parser implementation
-        return standPos(); // Temp
+    private static int parseEnPassantSquare(String enPassant) {
+        if ("-".equals(enPassant)) {
+            return -1;
+        }
+        if (enPassant.length() != 2 || enPassant.charAt(0) < 'a' || enPassant.charAt(0) > 'h' ||
+                (enPassant.charAt(1) != '3' && enPassant.charAt(1) != '6')) {
+            throw new IllegalArgumentException("Invalid en passant square: " + enPassant);
+        }
+        return (enPassant.charAt(1) - '1') * 8 + (enPassant.charAt(0) - 'a');
+    }
+
+    private static int parseCounter(String counter, String name) {
+        try {
+            int value = Integer.parseInt(counter);
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + counter);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + counter);
+        }
     }
 
-    private static Long[] parsePiecePlacement(String piecePlacement) {
+    private static long[] parsePiecePlacement(String piecePlacement) {
         String[] ranks = piecePlacement.split("/");
         if (ranks.length != 8) {
             throw new IllegalArgumentException("FEN string must have 8 components");
         }
 
-        Long[] bitboard = new Long[12];
-        Arrays.fill(bitboard, 0L);
+        long[] bitboard = new long[12];
 
         for (int rank = 0; rank < 8; rank++) {
             String rankStr = ranks[rank];
@@ -113,6 +164,7 @@ public class FenParser {
         final int enPassantSquare = -1;
         final int halfMoveCounter = 0;
         final int fullMoveCounter = 0;
+        final long zobristHash = ZobristHash.computeHash(bitboard, whiteToMove, castLingRights, enPassantSquare);
 
         return Position.create(
                 bitboard,
@@ -120,7 +172,8 @@ public class FenParser {
                 castLingRights,
                 enPassantSquare,
                 halfMoveCounter,
-                fullMoveCounter
+                fullMoveCounter,
+                zobristHash
         );
     }
 }
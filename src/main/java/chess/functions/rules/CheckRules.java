@@ -4,16 +4,98 @@ import chess.data.*;
 import chess.functions.attacks.AttackMasks;
 import chess.functions.moves.MoveApplication;
 
+/**
+ * Attack and check tests. The squares attacked by the side not to move are
+ * computed once per position and kept in a one-entry cache per thread, since
+ * check detection, king moves and castling all ask about the same position in a
+ * row; each of those tests is then a single mask test.
+ */
 public final class CheckRules {
 
+    private static final class AttackCache {
+        private Position position;
+        private long attacks;
+    }
+
+    private static final ThreadLocal<AttackCache> CACHE = ThreadLocal.withInitial(AttackCache::new);
+
     private CheckRules() {} // Utility class
 
+    /**
+     * Squares attacked by the side not to move, defended pieces included. Sliders
+     * see through the mover's king, so a square behind the king on a checking line
+     * counts as attacked and a king step can be tested against this mask alone.
+     */
+    public static long enemyAttacks(Position position) {
+        AttackCache cache = CACHE.get();
+        if (cache.position != position) {
+            cache.attacks = computeAttacks(position);
+            cache.position = position;
+        }
+        return cache.attacks;
+    }
+
+    // Enemy pieces giving check to the side to move
+    public static long checkers(Position position) {
+        return checkers(position, enemyAttacks(position));
+    }
+
+    // As above, with the position's enemyAttacks already at hand
+    public static long checkers(Position position, long enemyAttacks) {
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        long king = position.bitboards()[PieceType.KING.toBitboardIndex(color)];
+        if ((enemyAttacks & king) == 0) {
+            return 0;
+        }
+        return attackersOf(position, Long.numberOfTrailingZeros(king), color.opposite(), position.occupied());
+    }
+
+    // Whether the side to move is in check
+    public static boolean isInCheck(Position position) {
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        return (enemyAttacks(position) & position.bitboards()[PieceType.KING.toBitboardIndex(color)]) != 0;
+    }
+
+    private static long computeAttacks(Position position) {
+        Color enemy = position.whiteToMove() ? Color.BLACK : Color.WHITE;
+        long[] bitboards = position.bitboards();
+        long occupied = position.occupied() &
+                ~bitboards[PieceType.KING.toBitboardIndex(enemy.opposite())];
+
+        long attacks = AttackMasks.pawnAttackSet(bitboards[PieceType.PAWN.toBitboardIndex(enemy)], enemy);
+        long knights = bitboards[PieceType.KNIGHT.toBitboardIndex(enemy)];
+        while (knights != 0) {
+            attacks |= AttackMasks.knightAttacks(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+        long queens = bitboards[PieceType.QUEEN.toBitboardIndex(enemy)];
+        long diagonal = bitboards[PieceType.BISHOP.toBitboardIndex(enemy)] | queens;
+        while (diagonal != 0) {
+            attacks |= AttackMasks.bishopAttacks(Long.numberOfTrailingZeros(diagonal), occupied);
+            diagonal &= diagonal - 1;
+        }
+        long straight = bitboards[PieceType.ROOK.toBitboardIndex(enemy)] | queens;
+        while (straight != 0) {
+            attacks |= AttackMasks.rookAttacks(Long.numberOfTrailingZeros(straight), occupied);
+            straight &= straight - 1;
+        }
+        long king = bitboards[PieceType.KING.toBitboardIndex(enemy)];
+        if (king != 0) {
+            attacks |= AttackMasks.kingAttacks(Long.numberOfTrailingZeros(king));
+        }
+        return attacks;
+    }
+
     public static boolean isSquareAttacked(Position position, Square square, Color byColor) {
+        return isSquareAttacked(position, square.value(), byColor);
+    }
+
+    public static boolean isSquareAttacked(Position position, int square, Color byColor) {
         long occupied = position.occupied();
 
         // Check for pawn attacks
-        if ((AttackMasks.pawnAttacks(square, byColor.opposite()) &
-                position.bitboards()[PieceType.PAWN.toBitboardIndex(byColor)]) != 0) {
+        if ((AttackMasks.pawnAttackSet(position.bitboards()[PieceType.PAWN.toBitboardIndex(byColor)], byColor) &
+                (1L << square)) != 0) {
             return true;
         }
 
@@ -46,23 +128,41 @@ public final class CheckRules {
         return false;
     }
 
+    // Pieces of byColor attacking the square, with sliders blocked by the given occupancy
+    public static long attackersOf(Position position, int square, Color byColor, long occupied) {
+        long[] bitboards = position.bitboards();
+        long queens = bitboards[PieceType.QUEEN.toBitboardIndex(byColor)];
+        return (AttackMasks.pawnAttacks(square, byColor.opposite()) &
+                        bitboards[PieceType.PAWN.toBitboardIndex(byColor)])
+                | (AttackMasks.knightAttacks(square) & bitboards[PieceType.KNIGHT.toBitboardIndex(byColor)])
+                | (AttackMasks.bishopAttacks(square, occupied) &
+                        (bitboards[PieceType.BISHOP.toBitboardIndex(byColor)] | queens))
+                | (AttackMasks.rookAttacks(square, occupied) &
+                        (bitboards[PieceType.ROOK.toBitboardIndex(byColor)] | queens))
+                | (AttackMasks.kingAttacks(square) & bitboards[PieceType.KING.toBitboardIndex(byColor)]);
+    }
+
     public static boolean leavesKingInCheck(Position position, Move move) {
         Position newPosition = MoveApplication.applyMove(position, move);
         Color movedColor = position.whiteToMove() ? Color.WHITE : Color.BLACK;
-        Square kingSquare = findKingSquare(newPosition, movedColor);
+        int kingSquare = findKingSquare(newPosition, movedColor);
 
         return isSquareAttacked(newPosition, kingSquare, movedColor.opposite());
     }
 
-    private static Square findKingSquare(Position position, Color color) {
+    private static int findKingSquare(Position position, Color color) {
         long king = position.bitboards()[PieceType.KING.toBitboardIndex(color)];
         if (king == 0) {
             throw new IllegalStateException("King not found for color: " + color);
         }
-        return Square.of(Long.numberOfTrailingZeros(king));
+        return Long.numberOfTrailingZeros(king);
     }
 
     public static boolean isInCheck(Position position, Color activeColor) {
-        return isSquareAttacked(position, findKingSquare(position,activeColor),activeColor);
+        if (activeColor == (position.whiteToMove() ? Color.WHITE : Color.BLACK)) {
+            findKingSquare(position, activeColor); // Fails on a missing king, as before
+            return isInCheck(position);
+        }
+        return isSquareAttacked(position, findKingSquare(position, activeColor), activeColor.opposite());
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package chess.functions.rules;
+
+import chess.data.Position;
+
+import static chess.utilities.fenUtilities.*;
+
+public final class DrawRules {
+
+    private DrawRules() {} // Utility class
+
+    public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+    public static final long DARK_SQUARES = ~LIGHT_SQUARES;
+
+    // A position can only recur after each side has made at least two moves
+    private static final int MIN_REPETITION_DISTANCE = 4;
+
+    /**
+     * Counts earlier occurrences of the last key in {@code keys[0..length)}.
+     * Only positions with the same side to move are compared (two plies at a time),
+     * and the scan stops at the last irreversible move given by {@code halfmoveClock}.
+     */
+    public static int countRepetitions(long[] keys, int length, int halfmoveClock) {
+        long key = keys[length - 1];
+        int oldest = Math.max(0, length - 1 - halfmoveClock);
+        int count = 0;
+
+        for (int i = length - 1 - MIN_REPETITION_DISTANCE; i >= oldest; i -= 2) {
+            if (keys[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Twofold repetition, used by search to score a cycle as a draw
+    public static boolean isRepetition(long[] keys, int length, int halfmoveClock) {
+        long key = keys[length - 1];
+        int oldest = Math.max(0, length - 1 - halfmoveClock);
+
+        for (int i = length - 1 - MIN_REPETITION_DISTANCE; i >= oldest; i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isThreefoldRepetition(long[] keys, int length, int halfmoveClock) {
+        return countRepetitions(keys, length, halfmoveClock) >= 2;
+    }
+
+    /**
+     * Dead positions by material alone: K vs K, KN vs K, KB vs K and any number
+     * of bishops that all stand on the same square color. Branch-light and
+     * loop-free so search can call it at every node.
+     */
+    public static boolean hasInsufficientMaterial(Position position) {
+        long[] bitboards = position.bitboards();
+
+        // Pawns, rooks or queens can always still force mate
+        if ((bitboards[wP] | bitboards[bP] | bitboards[wR] | bitboards[bR] | bitboards[wQ] | bitboards[bQ]) != 0) {
+            return false;
+        }
+
+        long knights = bitboards[wN] | bitboards[bN];
+        long bishops = bitboards[wB] | bitboards[bB];
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & DARK_SQUARES) == 0);
+    }
+}
@@ -0,0 +1,18 @@
+package chess.match;
+
+import java.util.function.Supplier;
+
+public record EngineConfig(String name, Supplier<MatchEngine> factory) {
+    public EngineConfig {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Engine name cannot be null or empty");
+        }
+        if (factory == null) {
+            throw new IllegalArgumentException("Engine factory cannot be null");
+        }
+    }
+
+    public MatchEngine newInstance() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,16 @@
+package chess.match;
+
+import chess.data.Game;
+import chess.data.Move;
+
+/**
+ * A single engine instance taking part in a match game.
+ * A fresh instance is created per game, so implementations don't need to be thread-safe.
+ */
+@FunctionalInterface
+public interface MatchEngine {
+    Move selectMove(Game game, long remainingMillis, long incrementMillis);
+
+    // Called once when the game ends, so engines can stop background work such as pondering
+    default void gameOver() {}
+}
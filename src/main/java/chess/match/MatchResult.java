@@ -0,0 +1,48 @@
+package chess.match;
+
+/**
+ * Match outcome from the point of view of the first engine.
+ */
+public record MatchResult(
+        String engineName,
+        String opponentName,
+        int wins,
+        int draws,
+        int losses,
+        double llr,
+        Sprt.Decision decision
+) {
+    private static final double Z_95 = 1.959964;
+
+    public int games() {
+        return wins + draws + losses;
+    }
+
+    public double score() {
+        return games() == 0 ? 0.5 : Sprt.scoreOf(wins, draws, games());
+    }
+
+    public double elo() {
+        return Sprt.eloFromScore(score());
+    }
+
+    // Half-width of the 95% confidence interval, in Elo
+    public double eloError() {
+        int games = games();
+        if (games == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double score = score();
+        double stdError = Math.sqrt(Sprt.varianceOf(wins, draws, losses, score) / games);
+        double high = Sprt.eloFromScore(score + Z_95 * stdError);
+        double low = Sprt.eloFromScore(score - Z_95 * stdError);
+        return (high - low) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s: +%d =%d -%d (%d games), Elo %.1f +/- %.1f, LLR %.2f [%s]",
+                engineName, opponentName, wins, draws, losses, games(),
+                elo(), eloError(), llr, decision);
+    }
+}
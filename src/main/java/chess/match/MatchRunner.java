@@ -0,0 +1,166 @@
+package chess.match;
+
+import chess.data.Color;
+import chess.data.Game;
+import chess.data.GameState;
+import chess.data.Move;
+import chess.functions.game.GameFunctions;
+
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Plays two engine configurations against each other in parallel games.
+ * Every opening is played twice with colors swapped, and the match stops as soon
+ * as the SPRT reaches a decision or the game limit is hit.
+ */
+public final class MatchRunner {
+
+    // Games longer than this are adjudicated as a draw
+    private static final int MAX_PLIES = 600;
+
+    private final EngineConfig engine;
+    private final EngineConfig opponent;
+    private final List<String> openings;
+    private final TimeControl timeControl;
+    private final Sprt sprt;
+    private final int concurrency;
+    private final int maxGames;
+
+    public MatchRunner(EngineConfig engine, EngineConfig opponent, List<String> openings,
+                       TimeControl timeControl, Sprt sprt, int concurrency, int maxGames) {
+        if (openings == null || openings.isEmpty()) {
+            throw new IllegalArgumentException("Opening suite cannot be empty");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, got: " + concurrency);
+        }
+        if (maxGames < 2) {
+            throw new IllegalArgumentException("Match needs at least one game pair, got: " + maxGames);
+        }
+        this.engine = engine;
+        this.opponent = opponent;
+        this.openings = List.copyOf(openings);
+        this.timeControl = timeControl;
+        this.sprt = sprt;
+        this.concurrency = concurrency;
+        this.maxGames = maxGames;
+    }
+
+    public MatchResult run() {
+        return run(result -> {});
+    }
+
+    public MatchResult run(Consumer<MatchResult> progress) {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        CompletionService<Double> completion = new ExecutorCompletionService<>(pool);
+
+        int submitted = 0;
+        int inFlight = 0;
+        int wins = 0, draws = 0, losses = 0;
+        double llr = 0.0;
+        Sprt.Decision decision = Sprt.Decision.CONTINUE;
+
+        try {
+            while (inFlight < concurrency && submitted < maxGames) {
+                submitGame(completion, submitted++);
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                double score = completion.take().get();
+                inFlight--;
+
+                if (score == 1.0) wins++;
+                else if (score == 0.0) losses++;
+                else draws++;
+
+                llr = sprt.llr(wins, draws, losses);
+                decision = sprt.decide(llr);
+                progress.accept(new MatchResult(engine.name(), opponent.name(),
+                        wins, draws, losses, llr, decision));
+
+                if (decision != Sprt.Decision.CONTINUE) {
+                    break;
+                }
+                if (submitted < maxGames) {
+                    submitGame(completion, submitted++);
+                    inFlight++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Match interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Match game failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new MatchResult(engine.name(), opponent.name(), wins, draws, losses, llr, decision);
+    }
+
+    // Game pairs share an opening; the first engine is white in even games
+    private void submitGame(CompletionService<Double> completion, int gameIndex) {
+        String opening = openings.get((gameIndex / 2) % openings.size());
+        boolean engineIsWhite = gameIndex % 2 == 0;
+
+        completion.submit(() -> {
+            EngineConfig white = engineIsWhite ? engine : opponent;
+            EngineConfig black = engineIsWhite ? opponent : engine;
+            GameState state = playGame(white, black, opening, timeControl);
+            return scoreFor(state, engineIsWhite ? Color.WHITE : Color.BLACK);
+        });
+    }
+
+    public static GameState playGame(EngineConfig white, EngineConfig black,
+                                     String openingFen, TimeControl timeControl) {
+        MatchEngine[] engines = { white.newInstance(), black.newInstance() };
+        long[] clocks = { timeControl.baseMillis(), timeControl.baseMillis() };
+
+        try {
+            Game game = GameFunctions.initializeGame(Game.fromFen(openingFen));
+            int plies = 0;
+
+            while (!game.isGameOver()) {
+                if (plies >= MAX_PLIES) {
+                    return new GameState.Draw(GameState.DrawType.ADJUDICATION);
+                }
+
+                int side = game.activePlayer().index;
+                long start = System.nanoTime();
+                Move move = engines[side].selectMove(game, clocks[side], timeControl.incrementMillis());
+                clocks[side] -= (System.nanoTime() - start) / 1_000_000;
+
+                if (clocks[side] <= 0) {
+                    return side == Color.WHITE.index ?
+                            new GameState.BlackWins(GameState.WinType.TIME) :
+                            new GameState.WhiteWins(GameState.WinType.TIME);
+                }
+                clocks[side] += timeControl.incrementMillis();
+
+                game = GameFunctions.applyMove(game, move);
+                plies++;
+            }
+            return game.state();
+        } finally {
+            engines[0].gameOver();
+            engines[1].gameOver();
+        }
+    }
+
+    private static double scoreFor(GameState state, Color color) {
+        return switch (state) {
+            case GameState.WhiteWins w -> color == Color.WHITE ? 1.0 : 0.0;
+            case GameState.BlackWins b -> color == Color.BLACK ? 1.0 : 0.0;
+            case GameState.Draw d -> 0.5;
+            case GameState.Stalemate s -> 0.5;
+            case GameState.Ongoing o -> throw new IllegalStateException("Game finished without a result");
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package chess.match;
+
+import chess.data.Game;
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.search.Search;
+import chess.search.SearchLimits;
+import chess.search.SearchResult;
+import chess.search.TranspositionTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MatchEngine backed by {@link Search}. One instance plays a whole game, so the
+ * transposition table and move-ordering state carry over from move to move.
+ *
+ * With pondering on, the engine keeps searching the expected reply (the second move
+ * of its principal variation) while the opponent thinks. If that reply is played,
+ * the running search just starts its clock; otherwise it is stopped and a fresh
+ * search begins, still warmed by the shared table.
+ */
+public final class SearchEngine implements MatchEngine {
+
+    private final Search search;
+    private final boolean ponder;
+
+    private Thread ponderThread;
+    private long ponderKey;
+    private volatile SearchResult ponderResult;
+
+    public SearchEngine(int hashMb, boolean ponder) {
+        this.search = new Search(new TranspositionTable(hashMb));
+        this.ponder = ponder;
+    }
+
+    @Override
+    public Move selectMove(Game game, long remainingMillis, long incrementMillis) {
+        long start = System.currentTimeMillis();
+        SearchResult result = null;
+        if (ponderThread != null) {
+            boolean hit = game.position().zobristHash() == ponderKey;
+            if (hit) {
+                search.ponderHit();
+            } else {
+                search.stop();
+            }
+            joinPonder();
+            result = hit ? ponderResult : null;
+        }
+        if (result == null || result.bestMove() == null) {
+            result = search.search(game, SearchLimits.clock(remainingMillis, incrementMillis));
+        }
+
+        if (ponder) {
+            long remainingAfter = remainingMillis - (System.currentTimeMillis() - start) + incrementMillis;
+            startPondering(game, result, SearchLimits.clock(Math.max(1, remainingAfter), incrementMillis));
+        }
+        return result.bestMove();
+    }
+
+    @Override
+    public void gameOver() {
+        if (ponderThread != null) {
+            search.stop();
+            joinPonder();
+        }
+    }
+
+    private void startPondering(Game game, SearchResult result, SearchLimits limits) {
+        List<Move> pv = result.principalVariation();
+        if (pv.size() < 2) {
+            return;
+        }
+        Position afterMove = MoveApplication.applyMove(game.position(), pv.get(0));
+        Position afterReply = MoveApplication.applyMove(afterMove, pv.get(1));
+        long[] history = Arrays.copyOf(game.history(), game.history().length + 2);
+        history[history.length - 2] = afterMove.zobristHash();
+        history[history.length - 1] = afterReply.zobristHash();
+
+        ponderKey = afterReply.zobristHash();
+        ponderResult = null;
+        search.prepare(true);
+        ponderThread = new Thread(() -> ponderResult =
+                search.search(afterReply, history, limits, 1, lines -> {}, true).get(0), "ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    private void joinPonder() {
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+    }
+}
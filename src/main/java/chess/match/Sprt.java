@@ -0,0 +1,74 @@
+package chess.match;
+
+/**
+ * Sequential probability ratio test between H0: elo = elo0 and H1: elo = elo1.
+ * The log-likelihood ratio uses the normal approximation on the game score (GSPRT),
+ * which is accurate enough for the sample sizes a match actually runs.
+ */
+public record Sprt(double elo0, double elo1, double alpha, double beta) {
+
+    public enum Decision { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    public Sprt {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 must be greater than elo0");
+        }
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("alpha and beta must be in (0, 1)");
+        }
+    }
+
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    public double llr(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        if (games == 0) {
+            return 0.0;
+        }
+
+        double score = scoreOf(wins, draws, games);
+        double variance = varianceOf(wins, draws, losses, score);
+        if (variance == 0.0) {
+            return 0.0;
+        }
+
+        double s0 = scoreFromElo(elo0);
+        double s1 = scoreFromElo(elo1);
+        return games * (s1 - s0) * (2 * score - s0 - s1) / (2 * variance);
+    }
+
+    public Decision decide(double llr) {
+        if (llr >= upperBound()) return Decision.ACCEPT_H1;
+        if (llr <= lowerBound()) return Decision.ACCEPT_H0;
+        return Decision.CONTINUE;
+    }
+
+    // ===== ELO HELPERS =====
+    public static double scoreFromElo(double elo) {
+        return 1.0 / (1.0 + Math.pow(10.0, -elo / 400.0));
+    }
+
+    public static double eloFromScore(double score) {
+        // Clamp so that 100% / 0% scores don't produce infinities
+        double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400.0 * Math.log10(1.0 / clamped - 1.0);
+    }
+
+    static double scoreOf(int wins, int draws, int games) {
+        return (wins + 0.5 * draws) / games;
+    }
+
+    // Per-game variance of the score
+    static double varianceOf(int wins, int draws, int losses, double score) {
+        int games = wins + draws + losses;
+        return (wins * (1.0 - score) * (1.0 - score)
+                + draws * (0.5 - score) * (0.5 - score)
+                + losses * score * score) / games;
+    }
+}
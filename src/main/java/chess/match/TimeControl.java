@@ -0,0 +1,16 @@
+package chess.match;
+
+public record TimeControl(long baseMillis, long incrementMillis) {
+    public TimeControl {
+        if (baseMillis <= 0) {
+            throw new IllegalArgumentException("Base time must be positive, got: " + baseMillis);
+        }
+        if (incrementMillis < 0) {
+            throw new IllegalArgumentException("Increment cannot be negative, got: " + incrementMillis);
+        }
+    }
+
+    public static TimeControl of(long baseMillis, long incrementMillis) {
+        return new TimeControl(baseMillis, incrementMillis);
+    }
+}
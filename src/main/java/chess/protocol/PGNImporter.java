@@ -0,0 +1,216 @@
+package chess.protocol;
+
+import chess.data.Move;
+import chess.data.PieceType;
+import chess.data.Position;
+import chess.errors.IllegalMoveException;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class PGNImporter {
+
+    private static final Pattern TAG = Pattern.compile("^\\[(\\w+)\\s+\"(.*)\"\\]\\s*$");
+    private static final Pattern COORDINATE_MOVE = Pattern.compile("^([a-h][1-8])([a-h][1-8])([qrbn])?$");
+    private static final String PIECE_LETTERS = "PNBRQK";
+    private static final String PROMOTION_LETTERS = "NBRQ"; // Indexed by Move.PROMO_*
+
+    public record ImportedGame(Map<String, String> tags, Position start, List<Move> moves, String result) {}
+
+    private PGNImporter() {} // Utility class
+
+    public static List<ImportedGame> parse(String pgn) {
+        List<ImportedGame> games = new ArrayList<>();
+        forEachGame(new StringReader(pgn), games::add);
+        return games;
+    }
+
+    // Streams games one at a time, so arbitrarily large files can be processed
+    public static void forEachGame(Reader source, Consumer<ImportedGame> consumer) {
+        forEachRawGame(source, raw -> consumer.accept(raw.parse()));
+    }
+
+    // Tags and movetext of one game, not yet replayed; lets callers parse games in parallel
+    public record RawGame(Map<String, String> tags, String movetext) {
+        public ImportedGame parse() {
+            return buildGame(tags, movetext);
+        }
+    }
+
+    // Splits the input into games without parsing any moves
+    public static void forEachRawGame(Reader source, Consumer<RawGame> consumer) {
+        BufferedReader reader = new BufferedReader(source);
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder();
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher tag = TAG.matcher(line.trim());
+                if (tag.matches()) {
+                    // A tag after movetext starts the next game
+                    if (!movetext.toString().isBlank()) {
+                        consumer.accept(new RawGame(tags, movetext.toString()));
+                        tags = new LinkedHashMap<>();
+                        movetext.setLength(0);
+                    }
+                    tags.put(tag.group(1), tag.group(2));
+                } else {
+                    movetext.append(line).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!movetext.toString().isBlank() || !tags.isEmpty()) {
+            consumer.accept(new RawGame(tags, movetext.toString()));
+        }
+    }
+
+    private static ImportedGame buildGame(Map<String, String> tags, String movetext) {
+        Position start = tags.containsKey("FEN") ? FenParser.parse(tags.get("FEN")) : FenParser.standPos();
+        Position current = start;
+        List<Move> moves = new ArrayList<>();
+        String result = tags.getOrDefault("Result", "*");
+
+        for (String token : tokenize(movetext)) {
+            if (isResult(token)) {
+                result = token;
+                continue;
+            }
+            Move move = parseMove(current, token);
+            moves.add(move);
+            current = MoveApplication.applyMove(current, move);
+        }
+        return new ImportedGame(Map.copyOf(tags), start, List.copyOf(moves), result);
+    }
+
+    // Strips comments, variations, NAGs and move numbers, leaving move and result tokens
+    private static List<String> tokenize(String movetext) {
+        StringBuilder clean = new StringBuilder();
+        int variationDepth = 0;
+        boolean inComment = false;
+        boolean inLineComment = false;
+
+        for (int i = 0; i < movetext.length(); i++) {
+            char c = movetext.charAt(i);
+            if (inLineComment) {
+                if (c == '\n') inLineComment = false;
+            } else if (inComment) {
+                if (c == '}') inComment = false;
+            } else if (c == '{') {
+                inComment = true;
+            } else if (c == ';') {
+                inLineComment = true;
+            } else if (c == '(') {
+                variationDepth++;
+            } else if (c == ')') {
+                variationDepth--;
+            } else if (variationDepth == 0) {
+                clean.append(c);
+            }
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : clean.toString().split("\\s+")) {
+            token = token.replaceFirst("^\\d+\\.+", "");
+            if (!token.isEmpty() && !token.startsWith("$")) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    /**
+     * Resolves a SAN token (or a coordinate move such as "e2e4", as written by
+     * {@link PGNExporter}) against the legal moves of the position.
+     */
+    public static Move parseMove(Position position, String token) {
+        String san = token.replaceAll("[+#!?]", "");
+        List<Move> legalMoves = MoveGeneration.generateLegalMoves(position);
+
+        if (san.equals("O-O") || san.equals("0-0") || san.equals("O-O-O") || san.equals("0-0-0")) {
+            int kingFile = san.length() > 3 ? 2 : 6;
+            return findUnique(token, legalMoves.stream()
+                    .filter(move -> move.isCastling() && move.to() % 8 == kingFile)
+                    .toList());
+        }
+
+        Matcher coordinate = COORDINATE_MOVE.matcher(san);
+        if (coordinate.matches()) {
+            int from = squareOf(coordinate.group(1));
+            int to = squareOf(coordinate.group(2));
+            int promotion = coordinate.group(3) == null ? -1 :
+                    PROMOTION_LETTERS.indexOf(Character.toUpperCase(coordinate.group(3).charAt(0)));
+            return findUnique(token, legalMoves.stream()
+                    .filter(move -> move.from() == from && move.to() == to &&
+                            (move.isPromotion() ? move.promotionType() == promotion : promotion == -1))
+                    .toList());
+        }
+
+        int promotion = -1;
+        int equals = san.indexOf('=');
+        if (equals >= 0) {
+            promotion = PROMOTION_LETTERS.indexOf(san.charAt(equals + 1));
+            san = san.substring(0, equals);
+        }
+        if (san.length() < 2) {
+            throw new IllegalMoveException("Cannot parse move: " + token);
+        }
+
+        int pieceType = Character.isUpperCase(san.charAt(0)) ? PIECE_LETTERS.indexOf(san.charAt(0)) : PieceType.PAWN.index;
+        String body = pieceType == PieceType.PAWN.index ? san : san.substring(1);
+        int to = squareOf(body.substring(body.length() - 2));
+        String disambiguation = body.substring(0, body.length() - 2).replace("x", "");
+
+        int requiredPromotion = promotion;
+        return findUnique(token, legalMoves.stream()
+                .filter(move -> move.to() == to && !move.isCastling())
+                .filter(move -> position.pieceAt(move.from()) % 6 == pieceType)
+                .filter(move -> matchesDisambiguation(move.from(), disambiguation))
+                .filter(move -> move.isPromotion() ? move.promotionType() == requiredPromotion : requiredPromotion == -1)
+                .toList());
+    }
+
+    private static boolean matchesDisambiguation(int from, String disambiguation) {
+        for (char c : disambiguation.toCharArray()) {
+            if (c >= 'a' && c <= 'h' && from % 8 != c - 'a') return false;
+            if (c >= '1' && c <= '8' && from / 8 != c - '1') return false;
+        }
+        return true;
+    }
+
+    private static Move findUnique(String token, List<Move> candidates) {
+        if (candidates.size() != 1) {
+            throw new IllegalMoveException((candidates.isEmpty() ? "Illegal" : "Ambiguous") + " move: " + token);
+        }
+        return candidates.get(0);
+    }
+
+    private static int squareOf(String algebraic) {
+        int file = algebraic.charAt(0) - 'a';
+        int rank = algebraic.charAt(1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalMoveException("Invalid square: " + algebraic);
+        }
+        return rank * 8 + file;
+    }
+}
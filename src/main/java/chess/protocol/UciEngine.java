@@ -0,0 +1,249 @@
+package chess.protocol;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.errors.ChessEngineException;
+import chess.functions.moves.MoveApplication;
+import chess.functions.parser.FenParser;
+import chess.search.Search;
+import chess.search.SearchLimits;
+import chess.search.SearchResult;
+import chess.search.TranspositionTable;
+import chess.tablebase.Tablebases;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * UCI front end. Commands are read on the caller's thread and searches run on a
+ * background thread, so "stop", "ponderhit" and "isready" are answered while
+ * searching. The table and move-ordering state live until "ucinewgame", so each
+ * move of a game starts from what the previous searches learned.
+ * Options: Hash (MB), MultiPV, Ponder and TablebasePath (a directory of generated
+ * tables, or {@code <empty>} for none).
+ */
+public final class UciEngine {
+
+    public static final String NAME = "NullexJ";
+
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_MULTI_PV = 256;
+
+    private final PrintStream out;
+    private TranspositionTable table = new TranspositionTable(DEFAULT_HASH_MB);
+    private Search search = new Search(table);
+    private int multiPv = 1;
+    private Tablebases tablebases;
+
+    private Position position = FenParser.standPos();
+    private long[] history = { position.zobristHash() };
+    private Thread searchThread;
+
+    public UciEngine(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.out).run(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+    public void run(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line)) {
+                break;
+            }
+        }
+        stopSearch();
+    }
+
+    // Returns false on "quit"; a malformed command is reported and otherwise ignored
+    public boolean handle(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        try {
+            return dispatch(tokens);
+        } catch (ChessEngineException | IllegalArgumentException e) {
+            send("info string error in '" + line.trim() + "': " + e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean dispatch(String[] tokens) {
+        switch (tokens[0]) {
+            case "uci" -> {
+                send("id name " + NAME);
+                send("id author the " + NAME + " developers");
+                send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                send("option name MultiPV type spin default 1 min 1 max " + MAX_MULTI_PV);
+                send("option name Ponder type check default false");
+                send("option name TablebasePath type string default <empty>");
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "setoption" -> setOption(tokens);
+            case "ucinewgame" -> {
+                stopSearch();
+                table.clear();
+                search = new Search(table);
+                search.setTablebases(tablebases);
+            }
+            case "position" -> {
+                stopSearch();
+                setPosition(tokens);
+            }
+            case "go" -> {
+                stopSearch();
+                go(tokens);
+            }
+            case "ponderhit" -> search.ponderHit();
+            case "stop" -> stopSearch();
+            case "quit" -> {
+                return false;
+            }
+            default -> {} // Unknown commands are ignored, as the protocol asks
+        }
+        return true;
+    }
+
+    private void setOption(String[] tokens) {
+        // setoption name <name> value <value>
+        int value = Arrays.asList(tokens).indexOf("value");
+        if (tokens.length < 3 || value < 0 || value + 1 >= tokens.length) {
+            return;
+        }
+        String name = String.join(" ", Arrays.copyOfRange(tokens, 2, value));
+        if (name.equalsIgnoreCase("Ponder")) {
+            return; // Nothing to configure: the GUI decides when to send "go ponder"
+        }
+        if (name.equalsIgnoreCase("TablebasePath")) {
+            String path = String.join(" ", Arrays.copyOfRange(tokens, value + 1, tokens.length));
+            stopSearch();
+            try {
+                tablebases = path.equals("<empty>") ? null : Tablebases.load(Path.of(path));
+            } catch (IOException e) {
+                tablebases = null;
+                send("info string cannot load tablebases from " + path + ": " + e.getMessage());
+            }
+            search.setTablebases(tablebases);
+            return;
+        }
+        int number = Integer.parseInt(tokens[value + 1]);
+        stopSearch();
+        if (name.equalsIgnoreCase("Hash")) {
+            table = new TranspositionTable(Math.max(1, Math.min(MAX_HASH_MB, number)));
+            search = new Search(table);
+            search.setTablebases(tablebases);
+        } else if (name.equalsIgnoreCase("MultiPV")) {
+            multiPv = Math.max(1, Math.min(MAX_MULTI_PV, number));
+        }
+    }
+
+    private void setPosition(String[] tokens) {
+        // position [startpos | fen <6 fields>] [moves <move>...]
+        int moves = Arrays.asList(tokens).indexOf("moves");
+        int end = moves < 0 ? tokens.length : moves;
+        Position current = tokens.length > 1 && tokens[1].equals("fen") ?
+                FenParser.parse(String.join(" ", Arrays.copyOfRange(tokens, 2, end))) :
+                FenParser.standPos();
+
+        long[] keys = new long[tokens.length];
+        int count = 0;
+        keys[count++] = current.zobristHash();
+        for (int i = moves < 0 ? tokens.length : moves + 1; i < tokens.length; i++) {
+            current = MoveApplication.applyMove(current, PGNImporter.parseMove(current, tokens[i]));
+            keys[count++] = current.zobristHash();
+        }
+        position = current;
+        history = Arrays.copyOf(keys, count);
+    }
+
+    private void go(String[] tokens) {
+        int depth = SearchLimits.MAX_DEPTH;
+        long nodes = 0;
+        long moveTime = 0;
+        long[] clock = new long[2];     // remaining, by color index
+        long[] increment = new long[2];
+        boolean ponder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].equals("ponder")) {
+                ponder = true;
+                continue;
+            }
+            if (i + 1 == tokens.length) {
+                break;
+            }
+            switch (tokens[i]) {
+                case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                case "nodes" -> nodes = Long.parseLong(tokens[++i]);
+                case "movetime" -> moveTime = Long.parseLong(tokens[++i]);
+                case "wtime" -> clock[0] = Long.parseLong(tokens[++i]);
+                case "btime" -> clock[1] = Long.parseLong(tokens[++i]);
+                case "winc" -> increment[0] = Long.parseLong(tokens[++i]);
+                case "binc" -> increment[1] = Long.parseLong(tokens[++i]);
+                default -> {}
+            }
+        }
+        int side = position.whiteToMove() ? 0 : 1;
+        if (moveTime == 0 && clock[side] > 0) {
+            moveTime = SearchLimits.clock(clock[side], increment[side]).timeMillis();
+        }
+
+        SearchLimits limits = new SearchLimits(depth, nodes, moveTime);
+        Position root = position;
+        long[] keys = history;
+        int lines = multiPv;
+        boolean ponderSearch = ponder;
+        long start = System.currentTimeMillis();
+
+        search.prepare(ponder);
+        searchThread = new Thread(() -> {
+            List<SearchResult> result = search.search(root, keys, limits, lines,
+                    iteration -> sendInfo(iteration, start), ponderSearch);
+            List<Move> pv = result.get(0).principalVariation();
+            Move best = result.get(0).bestMove();
+            send("info string " + search.lastSearchStats());
+            send("bestmove " + (best == null ? "0000" : best.toUci()) +
+                    (pv.size() > 1 ? " ponder " + pv.get(1).toUci() : ""));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    private void sendInfo(List<SearchResult> lines, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        for (int k = 0; k < lines.size(); k++) {
+            SearchResult line = lines.get(k);
+            String score = line.isMateScore() ? "mate " + line.mateInMoves() : "cp " + line.score();
+            String pv = line.principalVariation().stream().map(Move::toUci).collect(Collectors.joining(" "));
+            send("info depth " + line.depth() + " multipv " + (k + 1) + " score " + score +
+                    " nodes " + line.nodes() + " nps " + line.nodes() * 1000 / elapsed + " time " + elapsed +
+                    (pv.isEmpty() ? "" : " pv " + pv));
+        }
+    }
+
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        search.stop();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private void send(String message) {
+        synchronized (out) {
+            out.println(message);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package chess.search;
+
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fixed-depth search over a fixed set of positions. The total node count is a
+ * signature of the search: it only changes when search or evaluation behaviour
+ * changes, and it is the same on every machine and for any thread count, since
+ * every position gets a fresh search and transposition table.
+ *
+ * Usage: Bench [depth] [threads] [hash MB]
+ */
+public final class Bench {
+
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int DEFAULT_HASH_MB = 16;
+
+    static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 10",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 11",
+            "4rrk1/pp1n3p/3q2pQ/2p1pb2/2PP4/2P3N1/P2B2PP/4RRK1 b - - 7 19",
+            "rq3rk1/ppp2ppp/1bnpb3/3N2B1/3NP3/7P/PPPQ1PP1/2KR3R w - - 7 14",
+            "r1bq1r1k/1pp1n1pp/1p1p4/4p2Q/4Pp2/1BNP4/PPP2PPP/3R1RK1 w - - 2 14",
+            "r3r1k1/2p2ppp/p1p1bn2/8/1q2P3/2NPQN2/PPP3PP/R4RK1 b - - 2 15",
+            "r1bbk1nr/pp3p1p/2n5/1N4p1/2Np1B2/8/PPP2PPP/2KR1B1R w kq - 0 13",
+            "r1bq1rk1/ppp1nppp/4n3/3p3Q/3P4/1BP1B3/PP1N2PP/R4RK1 w - - 1 16",
+            "4r1k1/r1q2ppp/ppp2n2/4P3/5Rb1/1N1BQ3/PPP3PP/R5K1 w - - 1 17",
+            "2rqkb1r/ppp2p2/2npb1p1/1N1Nn2p/2P1PP2/8/PP2B1PP/R1BQK2R b KQ - 0 11",
+            "r1bq1r1k/b1p1npp1/p2p3p/1p6/3PP3/1B2NN2/PP3PPP/R2Q1RK1 w - - 1 16",
+            "3r1rk1/p5pp/bpp1pp2/8/q1PP1P2/b3P3/P2NQRPP/1R2B1K1 b - - 6 22",
+            "r1q2rk1/2p1bppp/2Pp4/p6b/Q1PNp3/4B3/PP1R1PPP/2K4R w - - 2 18",
+            "4k2r/1pb2ppp/1p2p3/1R1p4/3P4/2r1PN2/P4PPP/1R4K1 b - - 3 22",
+            "3q2k1/pb3p1p/4pbp1/2r5/PpN2N2/1P2P2P/5PP1/Q2R2K1 b - - 4 26",
+            "6k1/6p1/6Pp/ppp5/3pn2P/1P3K2/1PP2P2/8 b - - 0 1",
+            "8/8/8/8/5kp1/P7/8/1K1N4 w - - 0 1",
+            "8/8/8/5N2/8/p7/8/2NK3k w - - 0 1",
+            "8/3k4/8/8/8/4B3/4KB2/2B5 w - - 0 1",
+            "8/8/1P6/5pr1/8/4R3/7k/2K5 w - - 0 1",
+            "8/2p4P/8/kr6/6R1/8/8/1K6 w - - 0 1",
+            "8/8/3P3k/8/1p6/8/1P6/1K3n2 b - - 0 1",
+            "8/R7/2q5/8/6k1/8/1P5p/K6R w - - 0 124",
+            "6k1/3b3r/1p1p4/p1n2p2/1PPNpP1q/P3Q1p1/1R1RB1P1/5K2 b - - 0 1",
+            "r2r1n2/pp2bk2/2p1p2p/3q4/3PN1QP/2P3R1/P4PP1/5RK1 w - - 0 1",
+            "8/8/8/8/8/6k1/6p1/6K1 w - - 0 1",
+            "7k/7P/6K1/8/3B4/8/8/8 b - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4",
+            "2r3k1/pp3ppp/2n1b3/q2pP3/3P4/P1r2N2/1B1Q1PPP/R4RK1 w - - 0 19",
+            "8/8/4k3/8/2K5/8/3Q4/8 w - - 0 60",
+            "rnbqkb1r/pp1ppppp/5n2/2p5/2P5/2N5/PP1PPPPP/R1BQKBNR w KQkq - 2 3",
+            "r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/3P1N2/PPP2PPP/RNBQK2R w KQkq - 1 5",
+            "rnbqk2r/ppp1bppp/4pn2/3p4/2PP4/2N2N2/PP2PPPP/R1BQKB1R w KQkq - 4 5",
+            "r2qkbnr/ppp2ppp/2np4/4p3/2B1P1b1/5N2/PPPP1PPP/RNBQ1RK1 w kq - 2 5",
+            "rnbqkbnr/pp2pppp/3p4/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 3",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/3PP3/5N2/PPP2PPP/RNBQKB1R b KQkq d3 0 3",
+            "rnbqkbnr/ppp2ppp/4p3/3p4/3PP3/8/PPP2PPP/RNBQKBNR w KQkq d6 0 3",
+            "8/5pk1/6p1/8/8/6P1/5PK1/8 w - - 0 40",
+            "8/8/5k2/8/3K4/8/4R3/8 w - - 0 50",
+            "8/1k6/8/8/8/8/2KBN3/8 w - - 0 70",
+            "3k4/8/3K4/8/8/8/8/4Q3 w - - 0 80",
+            "8/4kp2/8/3P4/8/8/5K2/8 w - - 0 45",
+            "2k5/8/1PK5/8/8/8/8/8 w - - 0 60",
+            "r5k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 30",
+            "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1",
+    };
+
+    private Bench() {} // Utility class
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int hashMb = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_HASH_MB;
+
+        long start = System.nanoTime();
+        long nodes = run(depth, threads, hashMb, true);
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        System.out.println("===========================");
+        System.out.println("Total time (ms) : " + elapsedMs);
+        System.out.println("Nodes searched  : " + nodes);
+        System.out.println("Nodes/second    : " + nodes * 1000 / elapsedMs);
+    }
+
+    public static long run(int depth, int threads, int hashMb, boolean verbose)
+            throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SearchStats>> results = new ArrayList<>(POSITIONS.length);
+            for (String fen : POSITIONS) {
+                results.add(pool.submit(() -> searchPosition(fen, depth, hashMb)));
+            }
+
+            SearchStats total = SearchStats.EMPTY;
+            for (int i = 0; i < POSITIONS.length; i++) {
+                SearchStats stats = results.get(i).get();
+                if (verbose) {
+                    System.out.printf("Position %2d/%d: %,d nodes%n", i + 1, POSITIONS.length, stats.nodes());
+                }
+                total = total.plus(stats);
+            }
+            if (verbose) {
+                System.out.println(total);
+            }
+            return total.nodes();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static SearchStats searchPosition(String fen, int depth, int hashMb) {
+        Position position = FenParser.parse(fen);
+        Search search = new Search(new TranspositionTable(hashMb));
+        search.search(position, SearchLimits.depth(depth));
+        return search.lastSearchStats();
+    }
+}
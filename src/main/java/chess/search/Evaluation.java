@@ -0,0 +1,128 @@
+package chess.search;
+
+import chess.data.Color;
+import chess.data.Position;
+import chess.functions.attacks.AttackMasks;
+
+/**
+ * Static evaluation in centipawns from the side to move's point of view:
+ * material, piece-square tables and passed pawns. Tables are written from white's side
+ * with rank 8 first, so a white piece on square s reads entry s ^ 56.
+ */
+public final class Evaluation {
+
+    private static final int WHITE_PAWN = 0;
+    private static final int BLACK_PAWN = 6;
+
+    private Evaluation() {} // Utility class
+
+    // [pawn, knight, bishop, rook, queen, king]
+    public static final int[] MATERIAL = { 100, 320, 330, 500, 900, 0 };
+
+    public static final int[][] PIECE_SQUARE = {
+            { // Pawn
+                    0,   0,   0,   0,   0,   0,   0,   0,
+                    50,  50,  50,  50,  50,  50,  50,  50,
+                    10,  10,  20,  30,  30,  20,  10,  10,
+                    5,   5,  10,  25,  25,  10,   5,   5,
+                    0,   0,   0,  20,  20,   0,   0,   0,
+                    5,  -5, -10,   0,   0, -10,  -5,   5,
+                    5,  10,  10, -20, -20,  10,  10,   5,
+                    0,   0,   0,   0,   0,   0,   0,   0
+            },
+            { // Knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20,   0,   0,   0,   0, -20, -40,
+                    -30,   0,  10,  15,  15,  10,   0, -30,
+                    -30,   5,  15,  20,  20,  15,   5, -30,
+                    -30,   0,  15,  20,  20,  15,   0, -30,
+                    -30,   5,  10,  15,  15,  10,   5, -30,
+                    -40, -20,   0,   5,   5,   0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            { // Bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10,   0,   0,   0,   0,   0,   0, -10,
+                    -10,   0,   5,  10,  10,   5,   0, -10,
+                    -10,   5,   5,  10,  10,   5,   5, -10,
+                    -10,   0,  10,  10,  10,  10,   0, -10,
+                    -10,  10,  10,  10,  10,  10,  10, -10,
+                    -10,   5,   0,   0,   0,   0,   5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            { // Rook
+                    0,   0,   0,   0,   0,   0,   0,   0,
+                    5,  10,  10,  10,  10,  10,  10,   5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    0,   0,   0,   5,   5,   0,   0,   0
+            },
+            { // Queen
+                    -20, -10, -10,  -5,  -5, -10, -10, -20,
+                    -10,   0,   0,   0,   0,   0,   0, -10,
+                    -10,   0,   5,   5,   5,   5,   0, -10,
+                    -5,   0,   5,   5,   5,   5,   0,  -5,
+                    0,   0,   5,   5,   5,   5,   0,  -5,
+                    -10,   5,   5,   5,   5,   5,   0, -10,
+                    -10,   0,   5,   0,   0,   0,   0, -10,
+                    -20, -10, -10,  -5,  -5, -10, -10, -20
+            },
+            { // King
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20,  20,   0,   0,   0,   0,  20,  20,
+                    20,  30,  10,   0,   0,  10,  30,  20
+            }
+    };
+
+    // Bonus for a passed pawn by rank, from its own side (index 1 = second rank)
+    public static final int[] PASSED_PAWN = { 0, 5, 10, 20, 35, 60, 100, 0 };
+
+    public static int evaluate(Position position) {
+        long[] bitboards = position.bitboards();
+        int score = 0;
+
+        for (int type = 0; type < 6; type++) {
+            long white = bitboards[type];
+            while (white != 0) {
+                int square = Long.numberOfTrailingZeros(white);
+                score += MATERIAL[type] + PIECE_SQUARE[type][square ^ 56];
+                white &= white - 1;
+            }
+
+            long black = bitboards[type + 6];
+            while (black != 0) {
+                int square = Long.numberOfTrailingZeros(black);
+                score -= MATERIAL[type] + PIECE_SQUARE[type][square];
+                black &= black - 1;
+            }
+        }
+        score += passedPawns(bitboards[WHITE_PAWN], bitboards[BLACK_PAWN]);
+        return position.whiteToMove() ? score : -score;
+    }
+
+    // A pawn is passed when no enemy pawn can block it or capture it on its way forward
+    private static int passedPawns(long whitePawns, long blackPawns) {
+        int score = 0;
+        long whitePassed = whitePawns & ~(AttackMasks.pawnFrontSpan(blackPawns, Color.BLACK) |
+                AttackMasks.pawnAttackSpan(blackPawns, Color.BLACK));
+        while (whitePassed != 0) {
+            score += PASSED_PAWN[Long.numberOfTrailingZeros(whitePassed) / 8];
+            whitePassed &= whitePassed - 1;
+        }
+        long blackPassed = blackPawns & ~(AttackMasks.pawnFrontSpan(whitePawns, Color.WHITE) |
+                AttackMasks.pawnAttackSpan(whitePawns, Color.WHITE));
+        while (blackPassed != 0) {
+            score -= PASSED_PAWN[7 - Long.numberOfTrailingZeros(blackPassed) / 8];
+            blackPassed &= blackPassed - 1;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,289 @@
+package chess.search;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import chess.functions.rules.CheckRules;
+import chess.functions.rules.DrawRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Proves or refutes forced mates with depth-first proof-number search (df-pn).
+ * The side to move at the root is the attacker: at its nodes one move must lead
+ * to mate, at the defender's nodes every move must. A node's proof and disproof
+ * numbers count the leaves still to be solved to prove or refute it, and the
+ * search always expands the most-proving leaf, so it follows forcing lines (a
+ * check with one reply costs one leaf) deep into the tree instead of searching
+ * every quiet move to full depth. New nodes start at their move count, as in df-pn+.
+ *
+ * Mate in N limits the attacker to N moves. {@link #solve} tries one move, then
+ * two and so on, reusing the table, so the first proof is the shortest mate.
+ * Every cycle in the game contains an attacker move, which uses up one of the
+ * moves left, so nodes keyed on position and moves left form no cycles and the
+ * search needs no repetition handling. The fifty-move rule is ignored.
+ *
+ * One solve at a time per instance; {@link #stop()} may be called from any thread.
+ */
+public final class MateSolver {
+
+    public static final int MAX_MATE_MOVES = 100;
+
+    public enum Status {
+        PROVEN,     // Mate in mateIn moves, and none shorter
+        DISPROVEN,  // No mate within the move limit
+        UNKNOWN     // Node limit or stop before either
+    }
+
+    public record Result(Status status, int mateIn, List<Move> line, int proofNumber, int disproofNumber,
+                         long nodes, long elapsedMillis, long collections) {
+
+        public long nodesPerSecond() {
+            return nodes * 1000 / Math.max(1, elapsedMillis);
+        }
+
+        @Override
+        public String toString() {
+            return status + (status == Status.PROVEN ? " mate in " + mateIn : "") +
+                    " pn " + proofNumber + " dn " + disproofNumber +
+                    " nodes " + nodes + " nps " + nodesPerSecond() + " time " + elapsedMillis +
+                    " collections " + collections +
+                    (line.isEmpty() ? "" : " line " + line.stream().map(Move::toUci).collect(Collectors.joining(" ")));
+        }
+    }
+
+    private static final int INFINITY = ProofTable.INFINITY;
+
+    private final ProofTable table;
+    private final int[] scratch = new int[MoveGeneration.MAX_MOVES];
+    private volatile boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private boolean aborted;
+
+    // Values of the node last evaluated by lookup
+    private int proof;
+    private int disproof;
+    private int distance;
+
+    public MateSolver(int tableMb) {
+        this.table = new ProofTable(tableMb);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Looks for the shortest mate for the side to move within maxMoves of its
+     * moves, searching at most nodeLimit nodes (0 for no limit).
+     */
+    public Result solve(Position root, int maxMoves, long nodeLimit) {
+        if (maxMoves < 1 || maxMoves > MAX_MATE_MOVES) {
+            throw new IllegalArgumentException("Mate moves must be between 1 and " + MAX_MATE_MOVES + ", got: " + maxMoves);
+        }
+        if (nodeLimit < 0) {
+            throw new IllegalArgumentException("Node limit must not be negative, got: " + nodeLimit);
+        }
+        table.clear();
+        this.nodeLimit = nodeLimit;
+        nodes = 0;
+        aborted = false;
+        stopped = false;
+        long start = System.nanoTime();
+
+        long key = root.zobristHash();
+        int moves = 0;
+        do {
+            moves++;
+            if (!lookup(root, key, true, moves)) {
+                mid(root, key, true, moves, INFINITY, INFINITY);
+                lookup(root, key, true, moves);
+            }
+        } while (proof != 0 && moves < maxMoves && !aborted);
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        Status status = proof == 0 ? Status.PROVEN : disproof == 0 && !aborted ? Status.DISPROVEN : Status.UNKNOWN;
+        return new Result(status, status == Status.PROVEN ? (distance + 1) / 2 : 0,
+                status == Status.PROVEN ? proofLine(root, moves) : List.of(),
+                proof, disproof, nodes, elapsed, table.collections());
+    }
+
+    // ===== DF-PN =====
+    /**
+     * Expands the node until its proof number reaches proofThreshold or its
+     * disproof number reaches disproofThreshold, then stores it. Attacker nodes
+     * take the minimum proof number and the sum of disproof numbers of their
+     * children, defender nodes the other way round.
+     */
+    private void mid(Position position, long key, boolean attacker, int moves, int proofThreshold,
+                     int disproofThreshold) {
+        long startNodes = nodes;
+        int entry = table.find(key, moves);
+        long previousWork = entry >= 0 ? table.work(entry) : 0;
+        if (++nodes >= nodeLimit && nodeLimit > 0 || stopped) {
+            aborted = true;
+            return;
+        }
+
+        int count = MoveGeneration.generateLegalMoves(position, scratch);
+        int childMoves = attacker ? moves - 1 : moves;
+        Position[] children = new Position[count];
+        long[] childKeys = new long[count];
+        int[] proofs = new int[count];
+        int[] disproofs = new int[count];
+        for (int i = 0; i < count; i++) {
+            children[i] = MoveApplication.applyMove(position, Move.fromEncoded(scratch[i]));
+            childKeys[i] = children[i].zobristHash();
+        }
+
+        int nodeProof;
+        int nodeDisproof;
+        int nodeDistance;
+        while (true) {
+            // The minimum side picks the child, the sum side adds up
+            int best = -1;
+            int second = INFINITY;
+            long sum = 0;
+            nodeDistance = attacker ? Integer.MAX_VALUE : 0;
+            for (int i = 0; i < count; i++) {
+                lookup(children[i], childKeys[i], !attacker, childMoves);
+                proofs[i] = proof;
+                disproofs[i] = disproof;
+                int minimized = attacker ? proof : disproof;
+                sum += attacker ? disproof : proof;
+                if (best < 0 || minimized < (attacker ? proofs[best] : disproofs[best])) {
+                    second = best < 0 ? INFINITY : attacker ? proofs[best] : disproofs[best];
+                    best = i;
+                } else if (minimized < second) {
+                    second = minimized;
+                }
+                if (proof == 0) {
+                    nodeDistance = attacker ? Math.min(nodeDistance, distance + 1) : Math.max(nodeDistance, distance + 1);
+                }
+            }
+            int minimum = attacker ? proofs[best] : disproofs[best];
+            int total = (int) Math.min(sum, INFINITY);
+            nodeProof = attacker ? minimum : total;
+            nodeDisproof = attacker ? total : minimum;
+            if (nodeProof >= proofThreshold || nodeDisproof >= disproofThreshold || aborted) {
+                break;
+            }
+
+            int childProofThreshold;
+            int childDisproofThreshold;
+            if (attacker) {
+                childProofThreshold = Math.min(proofThreshold, second + 1);
+                childDisproofThreshold = disproofThreshold - nodeDisproof + disproofs[best];
+            } else {
+                childProofThreshold = proofThreshold - nodeProof + proofs[best];
+                childDisproofThreshold = Math.min(disproofThreshold, second + 1);
+            }
+            mid(children[best], childKeys[best], !attacker, childMoves, childProofThreshold, childDisproofThreshold);
+        }
+
+        table.store(key, moves, nodeProof, nodeDisproof, nodeProof == 0 ? nodeDistance : 0,
+                previousWork + nodes - startNodes);
+        if (nodeProof == 0 || nodeDisproof == 0) {
+            // Children left open under a solved node are rarely needed again
+            for (int i = 0; i < count; i++) {
+                if (proofs[i] != 0 && disproofs[i] != 0) {
+                    table.remove(childKeys[i], childMoves);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets proof, disproof and distance for the node from the table, or else
+     * evaluates it: mates and stalemates are solved at once and other nodes get
+     * their move count as initial numbers. Returns whether the node is solved.
+     */
+    private boolean lookup(Position position, long key, boolean attacker, int moves) {
+        int entry = table.find(key, moves);
+        if (entry >= 0) {
+            proof = table.proof(entry);
+            disproof = table.disproof(entry);
+            distance = table.distance(entry);
+            return proof == 0 || disproof == 0;
+        }
+
+        nodes++;
+        int count = MoveGeneration.generateLegalMoves(position, scratch);
+        distance = 0;
+        if (count == 0 && !attacker && CheckRules.isInCheck(position)) {
+            proof = 0;
+            disproof = INFINITY;
+        } else if (count == 0 || !attacker && moves == 0 || DrawRules.hasInsufficientMaterial(position)) {
+            // Attacker mated, stalemate, out of attacker moves or no mate possible
+            proof = INFINITY;
+            disproof = 0;
+        } else {
+            proof = attacker ? 1 : count;
+            disproof = attacker ? count : 1;
+        }
+        table.store(key, moves, proof, disproof, distance, 1);
+        return proof == 0 || disproof == 0;
+    }
+
+    // ===== PROOF LINE =====
+    // The attacker's quickest mate against the defender's longest resistance, as far as the table still holds it
+    private List<Move> proofLine(Position root, int moves) {
+        List<Move> line = new ArrayList<>();
+        Position position = root;
+        boolean attacker = true;
+        while (true) {
+            int count = MoveGeneration.generateLegalMoves(position, scratch);
+            int childMoves = attacker ? moves - 1 : moves;
+            int best = -1;
+            int bestDistance = 0;
+            Position bestChild = null;
+            for (int i = 0; i < count; i++) {
+                Position child = MoveApplication.applyMove(position, Move.fromEncoded(scratch[i]));
+                int entry = table.find(child.zobristHash(), childMoves);
+                if (entry < 0 || table.proof(entry) != 0) {
+                    continue;
+                }
+                int childDistance = table.distance(entry);
+                if (best < 0 || (attacker ? childDistance < bestDistance : childDistance > bestDistance)) {
+                    best = scratch[i];
+                    bestDistance = childDistance;
+                    bestChild = child;
+                }
+            }
+            if (best < 0) {
+                return line;
+            }
+            line.add(Move.fromEncoded(best));
+            if (bestDistance == 0) {
+                return line;
+            }
+            position = bestChild;
+            moves = childMoves;
+            attacker = !attacker;
+        }
+    }
+
+    /**
+     * Usage: MateSolver <moves> <node limit> [fen]
+     * Prints the shortest mate within the given attacker moves, with the root's
+     * proof and disproof numbers and the search speed. A node limit of 0 means none.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: MateSolver <moves> <node limit> [fen]");
+            System.exit(1);
+        }
+        int moves = Integer.parseInt(args[0]);
+        long nodeLimit = Long.parseLong(args[1]);
+        Position position = args.length > 2 ?
+                FenParser.parse(String.join(" ", List.of(args).subList(2, args.length))) : FenParser.standPos();
+
+        MateSolver solver = new MateSolver(64);
+        System.out.println(solver.solve(position, moves, nodeLimit));
+    }
+}
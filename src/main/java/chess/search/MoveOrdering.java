@@ -0,0 +1,57 @@
+package chess.search;
+
+import chess.data.Move;
+import chess.data.Position;
+
+import java.util.List;
+
+final class MoveOrdering {
+
+    private MoveOrdering() {} // Utility class
+
+    private static final int HASH_MOVE = 1_000_000;
+    private static final int CAPTURE = 100_000;
+    private static final int PROMOTION = 90_000;
+    private static final int FIRST_KILLER = 80_000;
+    private static final int SECOND_KILLER = 79_000;
+
+    // Most valuable victim first, least valuable attacker as tie-break
+    static int[] score(Position position, List<Move> moves, int hashMove, int[] killers, int[][] history) {
+        int[] scores = new int[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            int encoded = move.encoded();
+            int attacker = position.pieceAt(move.from());
+
+            if (encoded == hashMove) {
+                scores[i] = HASH_MOVE;
+            } else if (isCapture(position, move)) {
+                int victim = move.isEnPassant() ? 0 : position.pieceAt(move.to()) % 6;
+                scores[i] = CAPTURE + Evaluation.MATERIAL[victim] * 10 - attacker % 6;
+            } else if (move.isPromotion()) {
+                scores[i] = PROMOTION + move.promotionType();
+            } else if (encoded == killers[0]) {
+                scores[i] = FIRST_KILLER;
+            } else if (encoded == killers[1]) {
+                scores[i] = SECOND_KILLER;
+            } else {
+                scores[i] = Math.min(history[attacker][move.to()], SECOND_KILLER - 1);
+            }
+        }
+        return scores;
+    }
+
+    // Selection step: index of the best remaining move, which is then marked as used
+    static int pickNext(int[] scores) {
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        scores[best] = Integer.MIN_VALUE;
+        return best;
+    }
+
+    static boolean isCapture(Position position, Move move) {
+        return move.isEnPassant() || (!move.isCastling() && (position.enemyPieces() & (1L << move.to())) != 0);
+    }
+}
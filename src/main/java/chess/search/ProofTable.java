@@ -0,0 +1,158 @@
+package chess.search;
+
+import java.util.Arrays;
+
+/**
+ * Bounded node store for {@link MateSolver}: primitive arrays in buckets of four
+ * entries, keyed on the Zobrist hash and the attacker moves the node had left.
+ * A proof with fewer moves left also holds with more, and a disproof with more
+ * moves left also holds with fewer, so {@link #find} accepts those as well as an
+ * exact match.
+ * A full bucket gives up its entry with the least work (nodes searched below
+ * it). Once the table is more than {@link #COLLECT_LOAD} full, {@link #collect()}
+ * drops the smallest subtrees, which are the cheapest to search again, until it
+ * is back under {@link #COLLECT_TARGET}.
+ */
+final class ProofTable {
+
+    static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    private static final int BUCKET = 4;
+    private static final int ENTRY_BYTES = 27;
+    private static final double COLLECT_LOAD = 0.9;
+    private static final double COLLECT_TARGET = 0.6;
+
+    private final long[] keys;
+    private final int[] proofs;
+    private final int[] disproofs;
+    private final long[] works;
+    private final short[] distances;
+    private final byte[] moves;     // Attacker moves left + 1, 0 marks an empty slot
+    private final int bucketMask;
+    private int size;
+    private long collections;
+
+    ProofTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB, got: " + sizeMb);
+        }
+        long buckets = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES / BUCKET);
+        int capacity = (int) Math.min(buckets * BUCKET, 1 << 28);
+        this.keys = new long[capacity];
+        this.proofs = new int[capacity];
+        this.disproofs = new int[capacity];
+        this.works = new long[capacity];
+        this.distances = new short[capacity];
+        this.moves = new byte[capacity];
+        this.bucketMask = capacity / BUCKET - 1;
+    }
+
+    // Index of the entry that answers for the position with movesLeft attacker moves, or -1
+    int find(long key, int movesLeft) {
+        int bucket = bucket(key);
+        for (int i = bucket; i < bucket + BUCKET; i++) {
+            if (moves[i] != 0 && keys[i] == key) {
+                int stored = moves[i] - 1;
+                if (stored == movesLeft || proofs[i] == 0 && stored <= movesLeft ||
+                        disproofs[i] == 0 && stored >= movesLeft) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    void store(long key, int movesLeft, int proof, int disproof, int distance, long work) {
+        int bucket = bucket(key);
+        int slot = -1;
+        for (int i = bucket; i < bucket + BUCKET; i++) {
+            if (moves[i] != 0 && keys[i] == key && moves[i] - 1 == movesLeft) {
+                slot = i;
+                break;
+            }
+            // Otherwise an empty slot, or else the one with the least work
+            if (slot < 0 || moves[slot] != 0 && (moves[i] == 0 || works[i] < works[slot])) {
+                slot = i;
+            }
+        }
+        if (moves[slot] == 0) {
+            size++;
+        }
+        keys[slot] = key;
+        proofs[slot] = proof;
+        disproofs[slot] = disproof;
+        works[slot] = work;
+        distances[slot] = (short) distance;
+        moves[slot] = (byte) (movesLeft + 1);
+
+        if (size > keys.length * COLLECT_LOAD) {
+            collect();
+        }
+    }
+
+    // Drops the exact entry, if any; used for the unsolved children of a solved node
+    void remove(long key, int movesLeft) {
+        int bucket = bucket(key);
+        for (int i = bucket; i < bucket + BUCKET; i++) {
+            if (moves[i] != 0 && keys[i] == key && moves[i] - 1 == movesLeft) {
+                moves[i] = 0;
+                size--;
+                return;
+            }
+        }
+    }
+
+    // Removes the entries with the least work, doubling the cutoff until enough are gone
+    void collect() {
+        collections++;
+        long cutoff = 1;
+        while (size > keys.length * COLLECT_TARGET) {
+            for (int i = 0; i < keys.length; i++) {
+                if (moves[i] != 0 && works[i] <= cutoff) {
+                    moves[i] = 0;
+                    size--;
+                }
+            }
+            cutoff *= 2;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(moves, (byte) 0);
+        size = 0;
+        collections = 0;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * BUCKET;
+    }
+
+    // ===== ENTRY ACCESSORS =====
+    int proof(int entry) {
+        return proofs[entry];
+    }
+
+    int disproof(int entry) {
+        return disproofs[entry];
+    }
+
+    int distance(int entry) {
+        return distances[entry];
+    }
+
+    long work(int entry) {
+        return works[entry];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long collections() {
+        return collections;
+    }
+}
@@ -0,0 +1,681 @@
+package chess.search;
+
+import chess.data.Game;
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.rules.CheckRules;
+import chess.functions.rules.DrawRules;
+import chess.tablebase.Tablebase;
+import chess.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Iterative-deepening alpha-beta search with quiescence, a transposition table
+ * and killer/history move ordering. One instance per thread. Keep one instance
+ * (and its table) for a whole game: the table ages its entries per search, history
+ * scores are halved and killers follow the plies played since the previous root.
+ *
+ * Counters are plain fields, as an instance belongs to one thread; {@link #stats()}
+ * snapshots them (racy but harmless when read from another thread), and every
+ * completed iteration is also emitted as a {@link SearchIterationEvent} for JFR.
+ * With tracing compiled in, {@link #setTrace} records every node into a {@link SearchTrace}.
+ *
+ * A ponder search runs without its time limit until {@link #ponderHit()} (the
+ * expected move was played: the clock starts and the search carries on) or
+ * {@link #stop()}, and never returns before one of them.
+ *
+ * With {@link #setTablebases} the search scores positions the tables cover exactly,
+ * at interior nodes and in quiescence; a covered root is answered from the tables
+ * alone. Table scores ignore the fifty-move rule.
+ */
+public final class Search {
+
+    public static final int INFINITE = 32000;
+    public static final int MATE = 31000;
+    public static final int DRAW = 0;
+    public static final int MAX_PLY = 128;
+    // Lowest mate score: mates found in the tree, or table mates up to MAX_PLIES beyond its deepest ply
+    public static final int MATE_BOUND = MATE - MAX_PLY - Tablebase.MAX_PLIES;
+
+    // Capacity of the repetition key stack: game history plus the search path
+    private static final int MAX_HISTORY = 1024;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int NO_SCORE = Integer.MIN_VALUE; // No table covers the position
+
+    private final TranspositionTable table;
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[12][64];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final long[] keys = new long[MAX_HISTORY + MAX_PLY];
+    private final int[] pathMoves = new int[MAX_PLY]; // Move into each ply, kept only when tracing
+    private int keyCount;
+
+    // Root moves already taken by earlier MultiPV lines of the current iteration
+    private int[] excluded = new int[1];
+    private int excludedCount;
+
+    // Root of the previous search, to find how far the game has moved on since
+    private long previousRoot;
+
+    private SearchTrace trace;
+
+    private Tablebases tablebases;
+
+    private long nodes;
+    private long qnodes;
+    private long ttProbes;
+    private long ttHits;
+    private long ttCutoffs;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long branchingSamples;
+    private double branchingLogSum;
+    private boolean searched;
+    private SearchStats completed = SearchStats.EMPTY; // Earlier searches of this instance
+
+    private long nodeLimit;
+    private volatile long deadline;
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+    private long ponderTimeMillis;
+    private boolean prepared;
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public SearchResult search(Game game, SearchLimits limits) {
+        return search(game.position(), game.history(), limits);
+    }
+
+    public SearchResult search(Position root, SearchLimits limits) {
+        return search(root, new long[] { root.zobristHash() }, limits);
+    }
+
+    /**
+     * Searches {@code root}; {@code history} holds the Zobrist keys since the last
+     * irreversible move (ending with the root's key) for repetition detection.
+     */
+    public SearchResult search(Position root, long[] history, SearchLimits limits) {
+        return search(root, history, limits, 1, lines -> {}).get(0);
+    }
+
+    /**
+     * MultiPV search: every iteration searches the root once per line, each time
+     * excluding the root moves of the lines already found, so the lines share the
+     * table, killers and history. Returns up to {@code lineCount} lines, best first;
+     * {@code onIteration} receives the lines of every completed iteration.
+     */
+    public List<SearchResult> search(Position root, long[] history, SearchLimits limits, int lineCount,
+                                     Consumer<List<SearchResult>> onIteration) {
+        return search(root, history, limits, lineCount, onIteration, false);
+    }
+
+    // As above; with ponder set, the time limit only starts counting at ponderHit
+    public List<SearchResult> search(Position root, long[] history, SearchLimits limits, int lineCount,
+                                     Consumer<List<SearchResult>> onIteration, boolean ponder) {
+        if (lineCount < 1) {
+            throw new IllegalArgumentException("Line count must be at least 1, got: " + lineCount);
+        }
+        int kept = Math.min(history.length, MAX_HISTORY);
+        System.arraycopy(history, history.length - kept, keys, 0, kept);
+        keyCount = kept;
+
+        table.newSearch();
+        carryOverOrdering(history);
+        resetCounters();
+        nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        synchronized (this) {
+            if (!prepared) {
+                stopped = false;
+                pondering = ponder;
+            }
+            prepared = false;
+            ponderTimeMillis = limits.timeMillis();
+            deadline = !pondering && limits.timeMillis() > 0 ?
+                    System.currentTimeMillis() + limits.timeMillis() : Long.MAX_VALUE;
+        }
+        excluded = new int[lineCount];
+
+        List<SearchResult> probed = probeRoot(root, lineCount);
+        if (probed != null) {
+            onIteration.accept(probed);
+            awaitPonderEnd();
+            return probed;
+        }
+
+        List<SearchResult> lines = null;
+        long previousIterationNodes = 0;
+        for (int depth = 1; depth <= limits.depth(); depth++) {
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long nodesBefore = nodes;
+            List<SearchResult> iteration = new ArrayList<>(lineCount);
+            excludedCount = 0;
+            for (int line = 0; line < lineCount; line++) {
+                int score = alphaBeta(root, depth, -INFINITE, INFINITE, 0);
+                if (stopped || (line > 0 && pvLength[0] == 0)) {
+                    break; // Out of time, or out of root moves
+                }
+                iteration.add(new SearchResult(pvLength[0] > 0 ? Move.fromEncoded(pvTable[0][0]) : null,
+                        score, depth, nodes, principalVariation()));
+                if (pvLength[0] == 0) {
+                    break;
+                }
+                excluded[excludedCount++] = pvTable[0][0];
+            }
+            if (stopped && lines != null) {
+                break; // Keep the last fully searched iteration
+            }
+            if (iteration.isEmpty()) {
+                // Stopped inside the first iteration: report what the first line found, or any legal move
+                List<Move> legal = MoveGeneration.generateLegalMoves(root);
+                Move move = pvLength[0] > 0 ? Move.fromEncoded(pvTable[0][0]) : legal.isEmpty() ? null : legal.get(0);
+                iteration.add(new SearchResult(move, 0, depth, nodes,
+                        pvLength[0] > 0 ? principalVariation() : move == null ? List.of() : List.of(move)));
+            }
+            // Later lines can outscore earlier ones, as each is a separate search
+            iteration.sort(Comparator.comparingInt(SearchResult::score).reversed());
+            lines = iteration;
+            if (!stopped) {
+                long iterationNodes = nodes - nodesBefore;
+                if (previousIterationNodes > 0) {
+                    branchingSamples++;
+                    branchingLogSum += Math.log((double) iterationNodes / previousIterationNodes);
+                }
+                previousIterationNodes = iterationNodes;
+                commitEvent(event, depth, lines);
+            }
+            onIteration.accept(List.copyOf(lines));
+            if (stopped || lines.get(0).bestMove() == null) {
+                break;
+            }
+        }
+        excludedCount = 0;
+        awaitPonderEnd();
+
+        List<SearchResult> results = new ArrayList<>(lines.size());
+        for (SearchResult line : lines) {
+            results.add(new SearchResult(line.bestMove(), line.score(), line.depth(), nodes, line.principalVariation()));
+        }
+        return List.copyOf(results);
+    }
+
+    /**
+     * For searches started on another thread: resets the stop and ponder state on the
+     * caller's thread, so a stop or ponderhit sent right after the start is not lost.
+     */
+    public synchronized void prepare(boolean ponder) {
+        stopped = false;
+        pondering = ponder;
+        prepared = true;
+    }
+
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+    }
+
+    // Turns a ponder search into a normal one; its time limit counts from now
+    public void ponderHit() {
+        synchronized (this) {
+            if (pondering && ponderTimeMillis > 0) {
+                deadline = System.currentTimeMillis() + ponderTimeMillis;
+            }
+            pondering = false;
+            notifyAll();
+        }
+    }
+
+    public boolean isPondering() {
+        return pondering;
+    }
+
+    // A finished ponder search holds its result until ponderhit or stop
+    private synchronized void awaitPonderEnd() {
+        while (pondering && !stopped) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps move-ordering state from the previous search. If the previous root is in
+     * the game history, killers move down by the plies played since; otherwise they
+     * are cleared. History scores are halved so recent searches weigh most.
+     */
+    void carryOverOrdering(long[] gameHistory) {
+        int played = -1;
+        if (previousRoot != 0) {
+            for (int i = gameHistory.length - 1; i >= 0; i--) {
+                if (gameHistory[i] == previousRoot) {
+                    played = gameHistory.length - 1 - i;
+                    break;
+                }
+            }
+            for (int[] scores : history) {
+                for (int square = 0; square < 64; square++) {
+                    scores[square] >>= 1;
+                }
+            }
+        }
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            int from = ply + played;
+            if (played >= 0 && from < MAX_PLY) {
+                killers[ply][0] = killers[from][0];
+                killers[ply][1] = killers[from][1];
+            } else {
+                killers[ply][0] = 0;
+                killers[ply][1] = 0;
+            }
+        }
+        previousRoot = gameHistory[gameHistory.length - 1];
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    // Killer move (encoded) in the given slot of a ply; 0 if none
+    int killer(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    // Records the nodes of the following searches into the trace; null stops tracing
+    public void setTrace(SearchTrace trace) {
+        if (trace != null && !SearchTrace.ENABLED) {
+            throw new IllegalStateException("Tracing is compiled out; run with -Dchess.trace=true");
+        }
+        this.trace = trace;
+    }
+
+    // Tables to probe in the following searches; null searches without them
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    // Totals over every search run by this instance, including the current one
+    public SearchStats stats() {
+        return completed.plus(lastSearchStats());
+    }
+
+    public SearchStats lastSearchStats() {
+        return new SearchStats(searched ? 1 : 0, nodes, qnodes, ttProbes, ttHits, ttCutoffs,
+                betaCutoffs, firstMoveCutoffs, branchingSamples, branchingLogSum);
+    }
+
+    private void resetCounters() {
+        completed = stats();
+        searched = true;
+        nodes = 0;
+        qnodes = 0;
+        ttProbes = 0;
+        ttHits = 0;
+        ttCutoffs = 0;
+        betaCutoffs = 0;
+        firstMoveCutoffs = 0;
+        branchingSamples = 0;
+        branchingLogSum = 0.0;
+    }
+
+    private void commitEvent(SearchIterationEvent event, int depth, List<SearchResult> lines) {
+        event.end();
+        if (event.shouldCommit()) {
+            SearchStats stats = lastSearchStats();
+            SearchResult best = lines.get(0);
+            event.depth = depth;
+            event.score = best.score();
+            event.bestMove = best.bestMove() == null ? null : best.bestMove().toUci();
+            event.lines = lines.size();
+            event.nodes = stats.nodes();
+            event.qnodes = stats.qnodes();
+            event.ttHitRate = stats.ttHitRate();
+            event.ttCutoffRate = stats.ttCutoffRate();
+            event.firstMoveCutoffRate = stats.firstMoveCutoffRate();
+            event.branchingFactor = stats.branchingFactor();
+            event.commit();
+        }
+    }
+
+    private int alphaBeta(Position position, int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (ply > 0 && isDraw(position)) {
+            return traced(position, ply, depth, alpha, beta, DRAW, SearchTrace.Cut.DRAW);
+        }
+        if (ply > 0) {
+            int score = probeTablebases(position, ply);
+            if (score != NO_SCORE) {
+                nodes++;
+                return traced(position, ply, depth, alpha, beta, score, SearchTrace.Cut.TABLEBASE);
+            }
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(position, alpha, beta, ply, true);
+        }
+
+        nodes++;
+        checkLimits();
+
+        long entry = table.probe(position.zobristHash());
+        ttProbes++;
+        int hashMove = 0;
+        if (entry != TranspositionTable.MISS) {
+            ttHits++;
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER && score >= beta) ||
+                        (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    ttCutoffs++;
+                    return traced(position, ply, depth, alpha, beta, score, SearchTrace.Cut.TABLE);
+                }
+            }
+        }
+
+        // A valid hash move is searched before generating the rest, which a cutoff then saves
+        int firstMove = hashMove != 0 && MoveGeneration.isLegal(position, hashMove) ? hashMove : 0;
+        List<Move> moves = null;
+        int[] scores = null;
+        int picked = 0;
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE;
+        int bestMove = 0;
+
+        for (int i = 0; ; i++) {
+            Move move;
+            if (i == 0 && firstMove != 0) {
+                move = Move.fromEncoded(firstMove);
+            } else {
+                if (moves == null) {
+                    moves = MoveGeneration.generateLegalMoves(position);
+                    if (moves.isEmpty()) {
+                        return isInCheck(position) ?
+                                traced(position, ply, depth, alpha, beta, -MATE + ply, SearchTrace.Cut.MATE) :
+                                traced(position, ply, depth, alpha, beta, DRAW, SearchTrace.Cut.STALEMATE);
+                    }
+                    scores = MoveOrdering.score(position, moves, firstMove, killers[ply], history);
+                    if (firstMove != 0) {
+                        MoveOrdering.pickNext(scores); // The hash move, searched already
+                        picked++;
+                    }
+                }
+                if (picked == moves.size()) {
+                    break;
+                }
+                move = moves.get(MoveOrdering.pickNext(scores));
+                picked++;
+            }
+            if (ply == 0 && isExcluded(move.encoded())) {
+                continue;
+            }
+            Position child = MoveApplication.applyMove(position, move);
+            if (SearchTrace.ENABLED) {
+                pathMoves[ply + 1] = move.encoded();
+            }
+
+            keys[keyCount++] = child.zobristHash();
+            int score = -alphaBeta(child, depth - 1, -beta, -alpha, ply + 1);
+            keyCount--;
+
+            if (stopped) {
+                return traced(position, ply, depth, originalAlpha, beta, 0, SearchTrace.Cut.STOPPED);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move.encoded();
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(ply, move.encoded());
+            }
+            if (score >= beta) {
+                betaCutoffs++;
+                if (i == 0) {
+                    firstMoveCutoffs++;
+                }
+                if (!MoveOrdering.isCapture(position, move)) {
+                    storeKiller(ply, move.encoded());
+                    history[position.pieceAt(move.from())][move.to()] += depth * depth;
+                }
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER :
+                bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        // A restricted root search must not replace the root's entry
+        if (ply > 0 || excludedCount == 0) {
+            table.store(position.zobristHash(), bestMove, scoreToTable(bestScore, ply), depth, bound);
+        }
+        return traced(position, ply, depth, originalAlpha, beta, bestScore,
+                bound == TranspositionTable.LOWER ? SearchTrace.Cut.FAIL_HIGH :
+                        bound == TranspositionTable.EXACT ? SearchTrace.Cut.EXACT : SearchTrace.Cut.FAIL_LOW);
+    }
+
+    // Captures and promotions, plus quiet checks on the first ply; in check, every evasion
+    private int quiescence(Position position, int alpha, int beta, int ply, boolean checks) {
+        nodes++;
+        qnodes++;
+        checkLimits();
+
+        int originalAlpha = alpha;
+        if (!checks) {
+            // The first quiescence ply was probed by its alpha-beta node already
+            int score = probeTablebases(position, ply);
+            if (score != NO_SCORE) {
+                return traced(position, ply, 0, alpha, beta, score, SearchTrace.Cut.TABLEBASE);
+            }
+        }
+        if (ply >= MAX_PLY - 1) {
+            return traced(position, ply, 0, alpha, beta, Evaluation.evaluate(position), SearchTrace.Cut.STAND_PAT);
+        }
+        List<Move> moves;
+        if (isInCheck(position)) {
+            // Standing pat is not an option in check
+            moves = MoveGeneration.generateLegalMoves(position);
+            if (moves.isEmpty()) {
+                return traced(position, ply, 0, alpha, beta, -MATE + ply, SearchTrace.Cut.MATE);
+            }
+        } else {
+            int standPat = Evaluation.evaluate(position);
+            if (standPat >= beta) {
+                return traced(position, ply, 0, alpha, beta, standPat, SearchTrace.Cut.STAND_PAT);
+            }
+            alpha = Math.max(alpha, standPat);
+
+            moves = new ArrayList<>();
+            for (Move move : MoveGeneration.generateLegalMoves(position)) {
+                if (MoveOrdering.isCapture(position, move) || move.isPromotion()) {
+                    moves.add(move);
+                }
+            }
+            if (checks) {
+                moves.addAll(MoveGeneration.generateQuietChecks(position));
+            }
+        }
+        int[] scores = MoveOrdering.score(position, moves, 0, killers[ply], history);
+
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(MoveOrdering.pickNext(scores));
+            if (SearchTrace.ENABLED) {
+                pathMoves[ply + 1] = move.encoded();
+            }
+            int score = -quiescence(MoveApplication.applyMove(position, move), -beta, -alpha, ply + 1, false);
+
+            if (stopped) {
+                return traced(position, ply, 0, originalAlpha, beta, 0, SearchTrace.Cut.STOPPED);
+            }
+            if (score >= beta) {
+                return traced(position, ply, 0, originalAlpha, beta, score, SearchTrace.Cut.CAPTURE_CUT);
+            }
+            alpha = Math.max(alpha, score);
+        }
+        return traced(position, ply, 0, originalAlpha, beta, alpha,
+                alpha > originalAlpha ? SearchTrace.Cut.EXACT : SearchTrace.Cut.FAIL_LOW);
+    }
+
+    // Records a returning node when tracing; compiled out otherwise
+    private int traced(Position position, int ply, int depth, int alpha, int beta, int score, SearchTrace.Cut cut) {
+        if (SearchTrace.ENABLED && trace != null) {
+            trace.record(position.zobristHash(), pathMoves[ply], ply, depth, alpha, beta, score, cut);
+        }
+        return score;
+    }
+
+    // ===== TABLEBASES =====
+    // Exact score from the tables for the side to move, or NO_SCORE if none covers the position
+    private int probeTablebases(Position position, int ply) {
+        if (tablebases == null || Long.bitCount(position.occupied()) > tablebases.maxPieces()) {
+            return NO_SCORE;
+        }
+        int value = tablebases.probe(position);
+        if (value == Tablebases.NOT_FOUND || value == Tablebase.ILLEGAL) {
+            return NO_SCORE;
+        }
+        return tablebaseScore(value, ply);
+    }
+
+    static int tablebaseScore(int value, int ply) {
+        return Tablebase.isDraw(value) ? DRAW : Tablebase.isWin(value) ? MATE - ply - value : -MATE + ply + value;
+    }
+
+    // Score of the side that just moved into the child, or NO_SCORE
+    private int probeChild(Position child) {
+        if (DrawRules.hasInsufficientMaterial(child)) {
+            return DRAW;
+        }
+        int score = probeTablebases(child, 1);
+        return score == NO_SCORE ? NO_SCORE : -score;
+    }
+
+    /**
+     * Scores every root move from the tables, or returns null unless the root and
+     * all its children are covered. Lines follow the best table move of both sides
+     * until mate, as long as the position is won or lost.
+     */
+    private List<SearchResult> probeRoot(Position root, int lineCount) {
+        if (probeTablebases(root, 0) == NO_SCORE) {
+            return null;
+        }
+        List<Move> moves = MoveGeneration.generateLegalMoves(root);
+        if (moves.isEmpty()) {
+            return null; // Mate or stalemate, which the search reports itself
+        }
+        List<SearchResult> lines = new ArrayList<>(moves.size());
+        for (Move move : moves) {
+            Position child = MoveApplication.applyMove(root, move);
+            nodes++;
+            int score = probeChild(child);
+            if (score == NO_SCORE) {
+                return null; // A capture into a table that is not loaded
+            }
+            List<Move> line = new ArrayList<>();
+            line.add(move);
+            Position position = child;
+            while (score != DRAW && line.size() < MAX_PLY) {
+                Move best = bestTableMove(position);
+                if (best == null) {
+                    break;
+                }
+                line.add(best);
+                position = MoveApplication.applyMove(position, best);
+            }
+            lines.add(new SearchResult(move, score, 1, nodes, List.copyOf(line)));
+        }
+        lines.sort(Comparator.comparingInt(SearchResult::score).reversed());
+        return List.copyOf(lines.subList(0, Math.min(lineCount, lines.size())));
+    }
+
+    // The move to the best-scoring covered child, or null at mate or when a child is not covered
+    private Move bestTableMove(Position position) {
+        Move best = null;
+        int bestScore = -INFINITE;
+        for (Move move : MoveGeneration.generateLegalMoves(position)) {
+            int score = probeChild(MoveApplication.applyMove(position, move));
+            if (score == NO_SCORE) {
+                return null;
+            }
+            if (score > bestScore) {
+                best = move;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private boolean isExcluded(int move) {
+        for (int i = 0; i < excludedCount; i++) {
+            if (excluded[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDraw(Position position) {
+        return position.halfmoveClock() >= 100 ||
+                DrawRules.isRepetition(keys, keyCount, position.halfmoveClock()) ||
+                DrawRules.hasInsufficientMaterial(position);
+    }
+
+    private static boolean isInCheck(Position position) {
+        return CheckRules.isInCheck(position);
+    }
+
+    private void checkLimits() {
+        if (nodes >= nodeLimit) {
+            stopped = true;
+        } else if (nodes % TIME_CHECK_INTERVAL == 0 && System.currentTimeMillis() >= deadline) {
+            stopped = true;
+        }
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private List<Move> principalVariation() {
+        List<Move> pv = new ArrayList<>(pvLength[0]);
+        for (int i = 0; i < pvLength[0]; i++) {
+            pv.add(Move.fromEncoded(pvTable[0][i]));
+        }
+        return List.copyOf(pv);
+    }
+
+    // Mate scores are stored relative to the node, not the root
+    static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,51 @@
+package chess.search;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one completed iterative-deepening iteration; its
+ * duration is the time the iteration took. Counters are for the search so far.
+ * Record with: -XX:StartFlightRecording:filename=search.jfr
+ */
+@Name("chess.SearchIteration")
+@Label("Search Iteration")
+@Category({ "Chess", "Search" })
+@Description("One completed iterative-deepening iteration")
+@StackTrace(false)
+final class SearchIterationEvent extends Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Score")
+    int score;
+
+    @Label("Best Move")
+    String bestMove;
+
+    @Label("Lines")
+    int lines;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Quiescence Nodes")
+    long qnodes;
+
+    @Label("TT Hit Rate")
+    double ttHitRate;
+
+    @Label("TT Cutoff Rate")
+    double ttCutoffRate;
+
+    @Label("First-Move Cutoff Rate")
+    double firstMoveCutoffRate;
+
+    @Label("Branching Factor")
+    double branchingFactor;
+}
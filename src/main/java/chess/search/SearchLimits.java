@@ -0,0 +1,36 @@
+package chess.search;
+
+public record SearchLimits(int depth, long nodes, long timeMillis) {
+    public static final int MAX_DEPTH = 64;
+
+    // Clock allocation: an even share of the remaining time over this many moves, plus half the increment
+    private static final int MOVES_TO_GO = 30;
+    private static final long MOVE_OVERHEAD_MS = 30;
+
+    public SearchLimits {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be 1-" + MAX_DEPTH + ", got: " + depth);
+        }
+        if (nodes < 0 || timeMillis < 0) {
+            throw new IllegalArgumentException("Node and time limits cannot be negative");
+        }
+    }
+
+    // 0 means unlimited for nodes and time
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, nodes, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, 0, timeMillis);
+    }
+
+    public static SearchLimits clock(long remainingMillis, long incrementMillis) {
+        long budget = remainingMillis / MOVES_TO_GO + incrementMillis / 2;
+        return time(Math.max(1, Math.min(budget, remainingMillis - MOVE_OVERHEAD_MS)));
+    }
+}
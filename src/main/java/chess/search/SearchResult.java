@@ -0,0 +1,17 @@
+package chess.search;
+
+import chess.data.Move;
+
+import java.util.List;
+
+public record SearchResult(Move bestMove, int score, int depth, long nodes, List<Move> principalVariation) {
+
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    // Full moves to mate, negative when the side to move is getting mated (UCI "score mate")
+    public int mateInMoves() {
+        return score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2;
+    }
+}
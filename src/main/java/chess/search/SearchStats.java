@@ -0,0 +1,69 @@
+package chess.search;
+
+/**
+ * Snapshot of search counters. Snapshots add up, so per-thread counters can be
+ * aggregated on demand; rates are derived from the totals.
+ *
+ * Branching factor is the geometric mean over iterations of nodes(depth) /
+ * nodes(depth - 1), kept as a sum of logs so that it aggregates too.
+ */
+public record SearchStats(
+        long searches,
+        long nodes,               // Main search and quiescence nodes
+        long qnodes,              // Quiescence nodes only
+        long ttProbes,
+        long ttHits,
+        long ttCutoffs,
+        long betaCutoffs,
+        long firstMoveCutoffs,    // Beta cutoffs produced by the first move searched
+        long branchingSamples,
+        double branchingLogSum
+) {
+    public static final SearchStats EMPTY = new SearchStats(0, 0, 0, 0, 0, 0, 0, 0, 0, 0.0);
+
+    public SearchStats plus(SearchStats other) {
+        return new SearchStats(
+                searches + other.searches,
+                nodes + other.nodes,
+                qnodes + other.qnodes,
+                ttProbes + other.ttProbes,
+                ttHits + other.ttHits,
+                ttCutoffs + other.ttCutoffs,
+                betaCutoffs + other.betaCutoffs,
+                firstMoveCutoffs + other.firstMoveCutoffs,
+                branchingSamples + other.branchingSamples,
+                branchingLogSum + other.branchingLogSum);
+    }
+
+    public double ttHitRate() {
+        return ratio(ttHits, ttProbes);
+    }
+
+    public double ttCutoffRate() {
+        return ratio(ttCutoffs, ttProbes);
+    }
+
+    public double firstMoveCutoffRate() {
+        return ratio(firstMoveCutoffs, betaCutoffs);
+    }
+
+    public double quiescenceShare() {
+        return ratio(qnodes, nodes);
+    }
+
+    public double branchingFactor() {
+        return branchingSamples == 0 ? 0.0 : Math.exp(branchingLogSum / branchingSamples);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("searches %d, nodes %d (%.1f%% quiescence), TT hits %.1f%% (cutoffs %.1f%%), " +
+                        "first-move cutoffs %.1f%%, branching factor %.2f",
+                searches, nodes, 100 * quiescenceShare(), 100 * ttHitRate(), 100 * ttCutoffRate(),
+                100 * firstMoveCutoffRate(), branchingFactor());
+    }
+}
@@ -0,0 +1,224 @@
+package chess.search;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer of search tree nodes, for finding nodes the search should not have
+ * spent. Every node is recorded when it returns, so the buffer holds the tree in
+ * post-order and a node's children are the records one ply deeper since the
+ * previous node at its own ply. When the buffer wraps, the oldest subtrees are lost.
+ *
+ * Tracing is compiled out unless the JVM runs with -Dchess.trace=true: the flag is a
+ * static final, so the JIT removes the recording calls and the search pays nothing.
+ *
+ * Record (3 longs):
+ * 0 : Zobrist key
+ * 1 : move into the node (bits 0–15), ply (16–23), depth (24–31), cut (32–39)
+ * 2 : alpha (bits 0–15), beta (16–31), score (32–47), as signed 16-bit values
+ */
+public final class SearchTrace {
+
+    public static final boolean ENABLED = Boolean.getBoolean("chess.trace");
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int LONGS_PER_RECORD = 3;
+
+    // Why a node returned
+    public enum Cut {
+        DRAW,           // Repetition or fifty-move rule
+        TABLE,          // Transposition table bound
+        TABLEBASE,      // Endgame table, exact
+        MATE,
+        STALEMATE,
+        FAIL_HIGH,      // Beta cutoff
+        EXACT,          // Score inside the window
+        FAIL_LOW,       // Nothing reached alpha
+        STAND_PAT,      // Quiescence: static evaluation reached beta
+        CAPTURE_CUT,    // Quiescence: a capture reached beta
+        STOPPED         // Node or time limit; the score is meaningless
+    }
+
+    public record Node(long zobristHash, Move move, int ply, int depth, int alpha, int beta, int score, Cut cut,
+                       List<Node> children) {}
+
+    private static final Cut[] CUTS = Cut.values();
+
+    private final long[] records;
+    private final int capacity;
+    private long count;
+
+    public SearchTrace(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Trace capacity must be at least 1, got: " + capacity);
+        }
+        this.capacity = capacity;
+        this.records = new long[capacity * LONGS_PER_RECORD];
+    }
+
+    // Records ever written, including those overwritten since
+    public long count() {
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    void record(long zobristHash, int move, int ply, int depth, int alpha, int beta, int score, Cut cut) {
+        int offset = (int) (count++ % capacity) * LONGS_PER_RECORD;
+        records[offset] = zobristHash;
+        records[offset + 1] = (move & 0xFFFFL)
+                | (ply & 0xFFL) << 16
+                | (depth & 0xFFL) << 24
+                | (long) cut.ordinal() << 32;
+        records[offset + 2] = (alpha & 0xFFFFL)
+                | (beta & 0xFFFFL) << 16
+                | (score & 0xFFFFL) << 32;
+    }
+
+    /**
+     * Rebuilds the recorded trees, oldest first: one root per search of the root
+     * position (an iteration or MultiPV line), plus the subtrees whose parent had not
+     * returned yet or was lost when the buffer wrapped.
+     */
+    public List<Node> trees() {
+        List<List<Node>> pending = new ArrayList<>();
+        for (long i = count - size(); i < count; i++) {
+            int offset = (int) (i % capacity) * LONGS_PER_RECORD;
+            long info = records[offset + 1];
+            long window = records[offset + 2];
+            int ply = (int) (info >>> 16 & 0xFF);
+            while (pending.size() <= ply + 1) {
+                pending.add(new ArrayList<>());
+            }
+
+            List<Node> children = List.copyOf(pending.get(ply + 1));
+            pending.get(ply + 1).clear();
+            int move = (int) (info & 0xFFFF);
+            pending.get(ply).add(new Node(records[offset], move == 0 ? null : Move.fromEncoded(move), ply,
+                    (int) (info >>> 24 & 0xFF), (short) window, (short) (window >>> 16), (short) (window >>> 32),
+                    CUTS[(int) (info >>> 32 & 0xFF)], children));
+        }
+
+        List<Node> roots = new ArrayList<>();
+        for (List<Node> level : pending) {
+            roots.addAll(level);
+        }
+        return roots;
+    }
+
+    // ===== EXPORT =====
+    public void writeJson(Appendable out) {
+        try {
+            out.append("[");
+            List<Node> roots = trees();
+            for (int i = 0; i < roots.size(); i++) {
+                out.append(i == 0 ? "\n" : ",\n");
+                writeJson(out, roots.get(i));
+            }
+            out.append("\n]\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeJson(Appendable out, Node node) throws IOException {
+        out.append("{\"key\":\"").append(Long.toHexString(node.zobristHash()))
+                .append("\",\"move\":").append(node.move() == null ? "null" : "\"" + node.move().toUci() + "\"")
+                .append(",\"ply\":").append(Integer.toString(node.ply()))
+                .append(",\"depth\":").append(Integer.toString(node.depth()))
+                .append(",\"alpha\":").append(Integer.toString(node.alpha()))
+                .append(",\"beta\":").append(Integer.toString(node.beta()))
+                .append(",\"score\":").append(Integer.toString(node.score()))
+                .append(",\"cut\":\"").append(node.cut().name()).append('"');
+        if (!node.children().isEmpty()) {
+            out.append(",\"children\":[");
+            for (int i = 0; i < node.children().size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeJson(out, node.children().get(i));
+            }
+            out.append(']');
+        }
+        out.append('}');
+    }
+
+    // Graphviz digraph; fail-high nodes are red, exact nodes green and stopped nodes grey
+    public void writeDot(Appendable out) {
+        try {
+            out.append("digraph search {\n  node [shape=box, fontname=monospace, fontsize=10];\n");
+            int[] ids = { 0 };
+            for (Node root : trees()) {
+                writeDot(out, root, -1, ids);
+            }
+            out.append("}\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeDot(Appendable out, Node node, int parent, int[] ids) throws IOException {
+        int id = ids[0]++;
+        String color = switch (node.cut()) {
+            case FAIL_HIGH, CAPTURE_CUT, STAND_PAT -> "red";
+            case EXACT -> "green";
+            case STOPPED -> "grey";
+            default -> "black";
+        };
+        out.append("  n").append(Integer.toString(id)).append(" [color=").append(color).append(", label=\"")
+                .append(node.move() == null ? "root" : node.move().toUci())
+                .append("\\nd=").append(Integer.toString(node.depth()))
+                .append(" [").append(Integer.toString(node.alpha())).append(", ")
+                .append(Integer.toString(node.beta())).append("]\\n")
+                .append(Integer.toString(node.score())).append(' ').append(node.cut().name()).append("\"];\n");
+        if (parent >= 0) {
+            out.append("  n").append(Integer.toString(parent)).append(" -> n").append(Integer.toString(id))
+                    .append(";\n");
+        }
+        for (Node child : node.children()) {
+            writeDot(out, child, id, ids);
+        }
+    }
+
+    /**
+     * Traces one fixed-depth search and prints every recorded tree, one per iteration.
+     * Usage: java -Dchess.trace=true SearchTrace <json|dot> <depth> [fen]
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[0].equals("json") || args[0].equals("dot"))) {
+            System.err.println("Usage: SearchTrace <json|dot> <depth> [fen]");
+            System.exit(1);
+        }
+        if (!ENABLED) {
+            System.err.println("Tracing is compiled out; run with -Dchess.trace=true");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[1]);
+        Position position = args.length > 2 ?
+                FenParser.parse(String.join(" ", List.of(args).subList(2, args.length))) : FenParser.standPos();
+
+        SearchTrace trace = new SearchTrace(DEFAULT_CAPACITY);
+        Search search = new Search(new TranspositionTable(16));
+        search.setTrace(trace);
+        search.search(position, SearchLimits.depth(depth));
+
+        if (args[0].equals("json")) {
+            trace.writeJson(System.out);
+        } else {
+            trace.writeDot(System.out);
+        }
+        System.err.printf("%d nodes recorded, %d kept%n", trace.count(), trace.size());
+    }
+}
@@ -0,0 +1,98 @@
+package chess.search;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results, two longs per entry. The table is
+ * meant to outlive a single search: {@link #newSearch()} starts a new generation,
+ * and an entry from the current generation is only replaced by the same position
+ * or by a search at least as deep, while entries from older searches give way to
+ * anything.
+ * Data Layout:
+ * Bits  0–15  : best move (encoded), 0 if none
+ * Bits 16–31  : score (signed)
+ * Bits 32–39  : depth
+ * Bits 40–41  : bound: 01=exact, 10=lower, 11=upper (00 marks an empty slot)
+ * Bits 42–47  : generation (search that stored the entry)
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 0b01;
+    public static final int LOWER = 0b10;
+    public static final int UPPER = 0b11;
+
+    public static final long MISS = 0L;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int GENERATION_MASK = 0x3F;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int generation;
+
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB, got: " + sizeMb);
+        }
+        // Round down to a power of two so the index is a mask
+        long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+        int capacity = (int) Math.min(entries, 1 << 30);
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Entry data for the key, or MISS
+    public long probe(long key) {
+        int index = (int) key & mask;
+        return keys[index] == key ? data[index] : MISS;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & mask;
+        long existing = data[index];
+        if (keys[index] != key && existing != MISS &&
+                generation(existing) == generation && depth(existing) > depth) {
+            return; // Keep the deeper result of this search for another position
+        }
+        keys[index] = key;
+        data[index] = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (depth & 0xFFL) << 32
+                | (bound & 0x3L) << 40
+                | (long) generation << 42;
+    }
+
+    // Ages every stored entry by one search; called once at the start of each search
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        generation = 0;
+    }
+
+    // ===== ENTRY ACCESSORS =====
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+
+    public static int generation(long entry) {
+        return (int) ((entry >>> 42) & GENERATION_MASK);
+    }
+}
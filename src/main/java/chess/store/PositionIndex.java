@@ -0,0 +1,188 @@
+package chess.store;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only index from Zobrist key to the moves played in that position and how
+ * they scored, as written by {@link PositionIndexBuilder}. Entries are sorted by
+ * (key, move) and grouped into 4 KB pages; the first key of every page is kept in
+ * memory, so a lookup is a binary search over that array plus a search inside one
+ * or two memory-mapped pages.
+ *
+ * File layout (little endian):
+ * Bytes  0–3  : magic "NXPI"
+ * Bytes  4–5  : format version
+ * Bytes  8–15 : entry count
+ * Bytes 16–23 : Zobrist key of the start position (detects a change of keys)
+ * Bytes 32–   : entries, then the first key of every page
+ *
+ * Entry (32 bytes):
+ * Bytes  0–7  : Zobrist key
+ * Bytes  8–9  : move (encoded)
+ * Bytes 12–15 : games (u32)
+ * Bytes 16–27 : white wins, draws, black wins (u32 each)
+ * Bytes 28–31 : ordinal of the first game that played the move here (u32)
+ */
+public final class PositionIndex {
+
+    static final int MAGIC = 0x4950584E; // "NXPI"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 32;
+    static final int PAGE_ENTRIES = 128;
+
+    // Entries are mapped in regions, as a single mapping is limited to 2 GB
+    private static final int REGION_BITS = 30;
+    private static final long REGION_MASK = (1L << REGION_BITS) - 1;
+
+    public record MoveStats(Move move, long games, long whiteWins, long draws, long blackWins, long firstGame) {
+        // Score from the mover's point of view, over games with a known result
+        public double score(boolean whiteMoved) {
+            long decided = whiteWins + draws + blackWins;
+            if (decided == 0) {
+                return 0.5;
+            }
+            return ((whiteMoved ? whiteWins : blackWins) + draws / 2.0) / decided;
+        }
+    }
+
+    private final ByteBuffer[] regions;
+    private final long[] pageKeys;
+    private final long entryCount;
+
+    private PositionIndex(ByteBuffer[] regions, long[] pageKeys, long entryCount) {
+        this.regions = regions;
+        this.pageKeys = pageKeys;
+        this.entryCount = entryCount;
+    }
+
+    public static PositionIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a position index (too short): " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a position index (bad magic): " + file);
+            }
+            if (header.getShort(4) != VERSION) {
+                throw new IOException("Unsupported position index version " + header.getShort(4) + ": " + file);
+            }
+            if (header.getLong(16) != keyCheck()) {
+                throw new IOException("Position index was built with different Zobrist keys: " + file);
+            }
+
+            long entryCount = header.getLong(8);
+            long entryBytes = entryCount * ENTRY_SIZE;
+            int pages = (int) ((entryCount + PAGE_ENTRIES - 1) / PAGE_ENTRIES);
+            if (channel.size() != HEADER_SIZE + entryBytes + (long) pages * Long.BYTES) {
+                throw new IOException("Position index is truncated or corrupt: " + file);
+            }
+
+            long[] pageKeys = new long[pages];
+            channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + entryBytes, (long) pages * Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(pageKeys);
+
+            ByteBuffer[] regions = new ByteBuffer[(int) ((entryBytes + REGION_MASK) >>> REGION_BITS)];
+            for (int region = 0; region < regions.length; region++) {
+                long start = (long) region << REGION_BITS;
+                regions[region] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + start,
+                        Math.min(entryBytes - start, 1L << REGION_BITS)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new PositionIndex(regions, pageKeys, entryCount);
+        }
+    }
+
+    public long size() {
+        return entryCount;
+    }
+
+    // Moves played in the position, most played first
+    public List<MoveStats> moves(Position position) {
+        long key = position.zobristHash();
+        List<MoveStats> found = new ArrayList<>();
+        for (long i = lowerBound(key); i < entryCount && keyAt(i) == key; i++) {
+            ByteBuffer region = regions[(int) (i * ENTRY_SIZE >>> REGION_BITS)];
+            int offset = (int) (i * ENTRY_SIZE & REGION_MASK);
+            found.add(new MoveStats(Move.fromEncoded(region.getShort(offset + 8) & 0xFFFF),
+                    Integer.toUnsignedLong(region.getInt(offset + 12)),
+                    Integer.toUnsignedLong(region.getInt(offset + 16)),
+                    Integer.toUnsignedLong(region.getInt(offset + 20)),
+                    Integer.toUnsignedLong(region.getInt(offset + 24)),
+                    Integer.toUnsignedLong(region.getInt(offset + 28))));
+        }
+        found.sort(Comparator.comparingLong(MoveStats::games).reversed());
+        return found;
+    }
+
+    private long keyAt(long index) {
+        long byteOffset = index * ENTRY_SIZE;
+        return regions[(int) (byteOffset >>> REGION_BITS)].getLong((int) (byteOffset & REGION_MASK));
+    }
+
+    // First entry whose key is >= key (keys are compared unsigned)
+    private long lowerBound(long key) {
+        // First page starting at or after the key; the key's run can begin one page earlier
+        int low = 0;
+        int high = pageKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(pageKeys[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        long first = Math.max(0, low - 1) * (long) PAGE_ENTRIES;
+        long last = Math.min(entryCount, (long) low * PAGE_ENTRIES + 1);
+        while (first < last) {
+            long mid = (first + last) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                first = mid + 1;
+            } else {
+                last = mid;
+            }
+        }
+        return first;
+    }
+
+    static long keyCheck() {
+        return FenParser.standPos().zobristHash();
+    }
+
+    // Usage: PositionIndex <index.bin> [fen]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PositionIndex <index.bin> [fen]");
+            System.exit(1);
+        }
+        PositionIndex index = open(Path.of(args[0]));
+        Position position = args.length > 1 ?
+                FenParser.parse(String.join(" ", List.of(args).subList(1, args.length))) : FenParser.standPos();
+
+        long start = System.nanoTime();
+        List<MoveStats> moves = index.moves(position);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        for (MoveStats stats : moves) {
+            System.out.printf("%-6s %10d games  +%d =%d -%d  %5.1f%%%n", stats.move().toAlgebraic(),
+                    stats.games(), stats.whiteWins(), stats.draws(), stats.blackWins(),
+                    100 * stats.score(position.whiteToMove()));
+        }
+        System.out.printf("%d moves in %d us%n", moves.size(), micros);
+    }
+}
@@ -0,0 +1,407 @@
+package chess.store;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.errors.ChessEngineException;
+import chess.functions.moves.MoveApplication;
+import chess.protocol.PGNImporter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Compiles PGN games into a {@link PositionIndex}. Games are split off the input
+ * sequentially and replayed in parallel batches; move statistics are aggregated in
+ * memory and spilled to sorted run files whenever the in-memory table grows past
+ * its limit, and {@link #write(Path)} merges the runs into the final index.
+ * Games that fail to parse are skipped and counted.
+ */
+public final class PositionIndexBuilder {
+
+    private static final int BATCH_GAMES = 1024;
+
+    // Result codes packed next to the move
+    private static final int WHITE_WIN = 0;
+    private static final int DRAW = 1;
+    private static final int BLACK_WIN = 2;
+    private static final int UNKNOWN = 3;
+
+    // Record slots, shared by the in-memory table, run files and the index entries
+    private static final int KEY = 0;
+    private static final int MOVE = 1;
+    private static final int GAMES = 2;
+    private static final int FIRST_GAME = 6;
+
+    private static final Comparator<long[]> ORDER = (a, b) -> a[KEY] != b[KEY] ?
+            Long.compareUnsigned(a[KEY], b[KEY]) : Long.compare(a[MOVE], b[MOVE]);
+
+    private final int maxPly;
+    private final int maxEntriesInMemory;
+    private final Map<Long, Map<Integer, long[]>> entries = new HashMap<>();
+    private final List<Path> runs = new ArrayList<>();
+    private final List<PGNImporter.RawGame> batch = new ArrayList<>(BATCH_GAMES);
+    private int entriesInMemory;
+    private long games;
+    private long skippedGames;
+
+    public PositionIndexBuilder(int maxPly, int maxEntriesInMemory) {
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("Index depth must be at least one ply, got: " + maxPly);
+        }
+        if (maxEntriesInMemory < 1) {
+            throw new IllegalArgumentException("In-memory entry limit must be positive, got: " + maxEntriesInMemory);
+        }
+        this.maxPly = maxPly;
+        this.maxEntriesInMemory = maxEntriesInMemory;
+    }
+
+    public PositionIndexBuilder addPgn(Reader pgn) throws IOException {
+        IOException[] failure = new IOException[1];
+        PGNImporter.forEachRawGame(pgn, raw -> {
+            batch.add(raw);
+            if (batch.size() == BATCH_GAMES && failure[0] == null) {
+                try {
+                    flushBatch();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        flushBatch();
+        return this;
+    }
+
+    public long games() {
+        return games;
+    }
+
+    public long skippedGames() {
+        return skippedGames;
+    }
+
+    // Replays the batch in parallel, then aggregates in input order so game ordinals are stable
+    private void flushBatch() throws IOException {
+        long firstOrdinal = games;
+        List<long[]> replayed = IntStream.range(0, batch.size()).parallel()
+                .mapToObj(i -> replay(batch.get(i)))
+                .toList();
+
+        for (int game = 0; game < replayed.size(); game++) {
+            long[] plies = replayed.get(game);
+            if (plies == null) {
+                skippedGames++;
+                continue;
+            }
+            for (int i = 0; i < plies.length; i += 2) {
+                add(plies[i], (int) plies[i + 1] & 0xFFFF, (int) plies[i + 1] >>> 16, firstOrdinal + game);
+            }
+            if (entriesInMemory >= maxEntriesInMemory) {
+                spill();
+            }
+        }
+        games += batch.size();
+        batch.clear();
+    }
+
+    // {key, move | result << 16} per ply, or null if the game does not parse
+    private long[] replay(PGNImporter.RawGame raw) {
+        PGNImporter.ImportedGame game;
+        try {
+            game = raw.parse();
+        } catch (ChessEngineException | IllegalArgumentException e) {
+            return null;
+        }
+        int result = resultCode(game.result());
+        List<Move> moves = game.moves();
+        int plies = Math.min(maxPly, moves.size());
+
+        long[] out = new long[plies * 2];
+        Position position = game.start();
+        for (int ply = 0; ply < plies; ply++) {
+            Move move = moves.get(ply);
+            out[2 * ply] = position.zobristHash();
+            out[2 * ply + 1] = move.encoded() | result << 16;
+            position = MoveApplication.applyMove(position, move);
+        }
+        return out;
+    }
+
+    private static int resultCode(String result) {
+        return switch (result) {
+            case "1-0" -> WHITE_WIN;
+            case "1/2-1/2" -> DRAW;
+            case "0-1" -> BLACK_WIN;
+            default -> UNKNOWN;
+        };
+    }
+
+    private void add(long key, int move, int result, long ordinal) {
+        long[] record = entries.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(move, m -> {
+            entriesInMemory++;
+            return new long[] { key, m, 0, 0, 0, 0, ordinal };
+        });
+        record[GAMES]++;
+        if (result != UNKNOWN) {
+            record[GAMES + 1 + result]++;
+        }
+    }
+
+    private List<long[]> sortedEntries() {
+        List<long[]> sorted = new ArrayList<>(entriesInMemory);
+        for (Map<Integer, long[]> moves : entries.values()) {
+            sorted.addAll(moves.values());
+        }
+        sorted.sort(ORDER);
+        return sorted;
+    }
+
+    private void spill() throws IOException {
+        Path run = Files.createTempFile("position-index-", ".run");
+        run.toFile().deleteOnExit();
+        try (EntryWriter writer = new EntryWriter(run, 0)) {
+            for (long[] record : sortedEntries()) {
+                writer.write(record);
+            }
+        }
+        runs.add(run);
+        entries.clear();
+        entriesInMemory = 0;
+    }
+
+    public void write(Path file) throws IOException {
+        // Every source is sorted; equal (key, move) records from different sources are summed
+        PriorityQueue<Source> queue = new PriorityQueue<>(Comparator.comparing(Source::current, ORDER));
+        List<Source> sources = new ArrayList<>();
+        try {
+            // Opened inside the try, so the runs already open are closed if one fails
+            sources.add(new MemorySource(sortedEntries()));
+            for (Path run : runs) {
+                sources.add(new RunSource(run));
+            }
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (EntryWriter writer = new EntryWriter(file, PositionIndex.HEADER_SIZE)) {
+                for (Source source : sources) {
+                    requeue(queue, source);
+                }
+                while (!queue.isEmpty()) {
+                    Source source = queue.poll();
+                    long[] merged = source.current();
+                    requeue(queue, source);
+                    while (!queue.isEmpty() && ORDER.compare(queue.peek().current(), merged) == 0) {
+                        Source duplicate = queue.poll();
+                        mergeInto(merged, duplicate.current());
+                        requeue(queue, duplicate);
+                    }
+                    writer.write(merged);
+                }
+                writer.finishIndex();
+            }
+        } finally {
+            for (Source source : sources) {
+                source.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static void requeue(PriorityQueue<Source> queue, Source source) throws IOException {
+        if (source.advance()) {
+            queue.add(source);
+        }
+    }
+
+    private static void mergeInto(long[] merged, long[] record) {
+        for (int i = GAMES; i < FIRST_GAME; i++) {
+            merged[i] += record[i];
+        }
+        merged[FIRST_GAME] = Math.min(merged[FIRST_GAME], record[FIRST_GAME]);
+    }
+
+    // ===== SORTED SOURCES =====
+    private interface Source extends AutoCloseable {
+        boolean advance() throws IOException;
+        long[] current();
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class MemorySource implements Source {
+        private final List<long[]> records;
+        private int next;
+        private long[] current;
+
+        MemorySource(List<long[]> records) {
+            this.records = records;
+        }
+
+        public boolean advance() {
+            current = next < records.size() ? records.get(next++) : null;
+            return current != null;
+        }
+
+        public long[] current() {
+            return current;
+        }
+
+        public void close() {}
+    }
+
+    private static final class RunSource implements Source {
+        private final DataInputStream in;
+        private final byte[] bytes = new byte[PositionIndex.ENTRY_SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        private long[] current;
+
+        RunSource(Path run) throws IOException {
+            InputStream file = Files.newInputStream(run);
+            this.in = new DataInputStream(new BufferedInputStream(file, 1 << 16));
+        }
+
+        public boolean advance() throws IOException {
+            try {
+                in.readFully(bytes);
+            } catch (EOFException e) {
+                current = null;
+                return false;
+            }
+            current = EntryWriter.decode(buffer);
+            return true;
+        }
+
+        public long[] current() {
+            return current;
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Writes 32-byte entries after a header of the given size; finishIndex adds the header and page keys
+    private static final class EntryWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private final int headerSize;
+        private long[] pageKeys = new long[1024];
+        private long count;
+
+        EntryWriter(Path file, int headerSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.headerSize = headerSize;
+            channel.position(headerSize);
+        }
+
+        void write(long[] record) throws IOException {
+            for (int i = GAMES; i <= FIRST_GAME; i++) {
+                if (record[i] > 0xFFFFFFFFL) {
+                    throw new IllegalStateException("Entry field overflows 32 bits: " + Arrays.toString(record));
+                }
+            }
+            if (count % PositionIndex.PAGE_ENTRIES == 0) {
+                int page = (int) (count / PositionIndex.PAGE_ENTRIES);
+                if (page == pageKeys.length) {
+                    pageKeys = Arrays.copyOf(pageKeys, page * 2);
+                }
+                pageKeys[page] = record[KEY];
+            }
+            if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                drain(buffer);
+            }
+            buffer.putLong(record[KEY]);
+            buffer.putShort((short) record[MOVE]);
+            buffer.putShort((short) 0);
+            for (int i = GAMES; i <= FIRST_GAME; i++) {
+                buffer.putInt((int) record[i]);
+            }
+            count++;
+        }
+
+        static long[] decode(ByteBuffer entry) {
+            return new long[] {
+                    entry.getLong(0),
+                    entry.getShort(8) & 0xFFFF,
+                    Integer.toUnsignedLong(entry.getInt(12)),
+                    Integer.toUnsignedLong(entry.getInt(16)),
+                    Integer.toUnsignedLong(entry.getInt(20)),
+                    Integer.toUnsignedLong(entry.getInt(24)),
+                    Integer.toUnsignedLong(entry.getInt(28))
+            };
+        }
+
+        void finishIndex() throws IOException {
+            int pages = (int) ((count + PositionIndex.PAGE_ENTRIES - 1) / PositionIndex.PAGE_ENTRIES);
+            for (int page = 0; page < pages; page++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    drain(buffer);
+                }
+                buffer.putLong(pageKeys[page]);
+            }
+            drain(buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, PositionIndex.MAGIC);
+            header.putShort(4, PositionIndex.VERSION);
+            header.putLong(8, count);
+            header.putLong(16, PositionIndex.keyCheck());
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+
+        private void drain(ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        public void close() throws IOException {
+            drain(buffer);
+            channel.close();
+        }
+    }
+
+    // Usage: PositionIndexBuilder <games.pgn> <index.bin> [max plies] [entries in memory]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PositionIndexBuilder <games.pgn> <index.bin> [max plies] [entries in memory]");
+            System.exit(1);
+        }
+        int maxPly = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        int maxEntries = args.length > 3 ? Integer.parseInt(args[3]) : 1 << 22;
+
+        PositionIndexBuilder builder = new PositionIndexBuilder(maxPly, maxEntries);
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            builder.addPgn(reader);
+        }
+        builder.write(Path.of(args[1]));
+        System.err.printf("%d games indexed, %d skipped%n", builder.games() - builder.skippedGames(),
+                builder.skippedGames());
+    }
+}
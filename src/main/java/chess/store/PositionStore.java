@@ -0,0 +1,260 @@
+package chess.store;
+
+import chess.data.Position;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar storage for large numbers of positions: 14 longs per position and no
+ * per-position objects. Positions live in fixed-size chunks so the store is not
+ * limited by the maximum array length; each chunk holds three columns, either on
+ * the heap or in direct buffers (off-heap, bounded by -XX:MaxDirectMemorySize).
+ *
+ * Chunk layout:
+ * bitboards : [piece * CHUNK_SIZE + slot], piece order as in Position
+ * hashes    : [slot]
+ * states    : [slot], packed as below
+ *
+ * State word:
+ * Bit   0     : white to move
+ * Bits  1–4   : castling rights
+ * Bits  5–11  : en passant square + 1 (0 if none)
+ * Bits 12–27  : halfmove clock
+ * Bits 32–63  : fullmove number
+ *
+ * Appends are single-threaded; reads and scans may run concurrently once appends stop.
+ */
+public final class PositionStore {
+
+    public static final int CHUNK_BITS = 16;
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final int LONGS_PER_POSITION = 14;
+
+    private final boolean offHeap;
+    private final List<LongBuffer> bitboards = new ArrayList<>();
+    private final List<LongBuffer> hashes = new ArrayList<>();
+    private final List<LongBuffer> states = new ArrayList<>();
+    private long size;
+
+    private PositionStore(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    public static PositionStore onHeap() {
+        return new PositionStore(false);
+    }
+
+    public static PositionStore offHeap() {
+        return new PositionStore(true);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // Bytes reserved by the columns, including the unused tail of the last chunk
+    public long capacityBytes() {
+        return (long) bitboards.size() * CHUNK_SIZE * LONGS_PER_POSITION * Long.BYTES;
+    }
+
+    // Returns the index of the appended position
+    public long append(Position position) {
+        if (position.halfmoveClock() < 0 || position.halfmoveClock() > 0xFFFF) {
+            throw new IllegalArgumentException("Halfmove clock out of range: " + position.halfmoveClock());
+        }
+        int slot = (int) (size & CHUNK_MASK);
+        if (slot == 0) {
+            addChunk();
+        }
+        int chunk = bitboards.size() - 1;
+
+        LongBuffer board = bitboards.get(chunk);
+        long[] pieces = position.bitboards();
+        for (int piece = 0; piece < 12; piece++) {
+            board.put(piece * CHUNK_SIZE + slot, pieces[piece]);
+        }
+        hashes.get(chunk).put(slot, position.zobristHash());
+        states.get(chunk).put(slot, packState(position));
+        return size++;
+    }
+
+    // Materializes a standalone Position; use a View to read fields without allocating
+    public Position get(long index) {
+        return view(index).toPosition();
+    }
+
+    public View view(long index) {
+        return new View().seek(index);
+    }
+
+    // Copies the bitboards of count consecutive positions into out[piece][offset..], the
+    // layout BatchAttacks takes
+    public void copyBitboards(long from, int count, long[][] out, int offset) {
+        checkIndex(from);
+        if (count > 0) {
+            checkIndex(from + count - 1);
+        }
+        int copied = 0;
+        while (copied < count) {
+            long index = from + copied;
+            int slot = (int) (index & CHUNK_MASK);
+            int length = Math.min(count - copied, CHUNK_SIZE - slot);
+            LongBuffer board = bitboards.get((int) (index >>> CHUNK_BITS));
+            for (int piece = 0; piece < 12; piece++) {
+                board.get(piece * CHUNK_SIZE + slot, out[piece], offset + copied, length);
+            }
+            copied += length;
+        }
+    }
+
+    // ===== SCANS =====
+    // Chunks are scanned in parallel; each thread reuses one View, so the action must not keep it
+    public void parallelForEach(Consumer<? super View> action) {
+        IntStream.range(0, bitboards.size()).parallel().forEach(chunk -> {
+            View view = new View();
+            long end = Math.min(size, ((long) chunk + 1) << CHUNK_BITS);
+            for (long index = (long) chunk << CHUNK_BITS; index < end; index++) {
+                action.accept(view.seek(index));
+            }
+        });
+    }
+
+    public long parallelCount(Predicate<? super View> filter) {
+        return IntStream.range(0, bitboards.size()).parallel().mapToLong(chunk -> {
+            View view = new View();
+            long count = 0;
+            long end = Math.min(size, ((long) chunk + 1) << CHUNK_BITS);
+            for (long index = (long) chunk << CHUNK_BITS; index < end; index++) {
+                if (filter.test(view.seek(index))) {
+                    count++;
+                }
+            }
+            return count;
+        }).sum();
+    }
+
+    private void addChunk() {
+        bitboards.add(allocate(12 * CHUNK_SIZE));
+        hashes.add(allocate(CHUNK_SIZE));
+        states.add(allocate(CHUNK_SIZE));
+    }
+
+    private LongBuffer allocate(int longs) {
+        return offHeap ?
+                ByteBuffer.allocateDirect(longs * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer() :
+                LongBuffer.wrap(new long[longs]);
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Position index " + index + " out of range for size " + size);
+        }
+    }
+
+    private static long packState(Position position) {
+        return (position.whiteToMove() ? 1L : 0L)
+                | (position.castlingRights() & 0xFL) << 1
+                | (position.enPassantSquare() + 1L & 0x7F) << 5
+                | (position.halfmoveClock() & 0xFFFFL) << 12
+                | (long) position.fullmoveNumber() << 32;
+    }
+
+    /**
+     * Cursor over one stored position, reading straight from the columns. A View is
+     * not thread-safe and can be moved with {@link #seek(long)} to avoid allocation.
+     */
+    public final class View {
+        private LongBuffer board;
+        private int slot;
+        private long hash;
+        private long state;
+        private long index;
+
+        private View() {}
+
+        public View seek(long index) {
+            checkIndex(index);
+            int chunk = (int) (index >>> CHUNK_BITS);
+            this.index = index;
+            this.slot = (int) (index & CHUNK_MASK);
+            this.board = bitboards.get(chunk);
+            this.hash = hashes.get(chunk).get(slot);
+            this.state = states.get(chunk).get(slot);
+            return this;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        public long bitboard(int piece) {
+            return board.get(piece * CHUNK_SIZE + slot);
+        }
+
+        public long whitePieces() {
+            long white = 0L;
+            for (int piece = 0; piece < 6; piece++) {
+                white |= bitboard(piece);
+            }
+            return white;
+        }
+
+        public long blackPieces() {
+            long black = 0L;
+            for (int piece = 6; piece < 12; piece++) {
+                black |= bitboard(piece);
+            }
+            return black;
+        }
+
+        public long occupied() {
+            return whitePieces() | blackPieces();
+        }
+
+        public boolean whiteToMove() {
+            return (state & 1) != 0;
+        }
+
+        public byte castlingRights() {
+            return (byte) (state >>> 1 & 0xF);
+        }
+
+        public int enPassantSquare() {
+            return (int) (state >>> 5 & 0x7F) - 1;
+        }
+
+        public int halfmoveClock() {
+            return (int) (state >>> 12 & 0xFFFF);
+        }
+
+        public int fullmoveNumber() {
+            return (int) (state >>> 32);
+        }
+
+        public long zobristHash() {
+            return hash;
+        }
+
+        public Position toPosition() {
+            long[] pieces = new long[12];
+            for (int piece = 0; piece < 12; piece++) {
+                pieces[piece] = bitboard(piece);
+            }
+            return Position.create(pieces, whiteToMove(), castlingRights(), enPassantSquare(),
+                    halfmoveClock(), fullmoveNumber(), hash);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package chess.tablebase;
+
+import chess.data.Color;
+import chess.data.PieceType;
+import chess.data.Position;
+
+import java.util.Arrays;
+
+/**
+ * Material signature of a pawnless table, e.g. "KQvKR".
+ * Pieces are labelled in a fixed order: white king, other white pieces
+ * (Q, R, B, N), black king, other black pieces. A position's index is
+ * [side][white king quadrant][square of every other label], with the board
+ * mirrored so that the white king always stands on a1-d4.
+ */
+public record Signature(int[] pieces) {
+
+    public static final int MAX_PIECES = 5;
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+    private static final int[] QUADRANT = new int[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int rank = square / 8;
+            int file = square % 8;
+            QUADRANT[square] = rank < 4 && file < 4 ? rank * 4 + file : -1;
+        }
+    }
+
+    public Signature {
+        if (pieces.length < 2 || pieces.length > MAX_PIECES) {
+            throw new IllegalArgumentException("Tables need 2-" + MAX_PIECES + " pieces, got: " + pieces.length);
+        }
+        if (pieces[0] != PieceType.KING.toBitboardIndex(Color.WHITE)) {
+            throw new IllegalArgumentException("First piece must be the white king");
+        }
+    }
+
+    public static Signature parse(String name) {
+        String[] sides = name.split("v");
+        if (sides.length != 2 || !sides[0].startsWith("K") || !sides[1].startsWith("K")) {
+            throw new IllegalArgumentException("Invalid signature: " + name);
+        }
+
+        int[] counts = new int[12];
+        for (int color = 0; color < 2; color++) {
+            for (char c : sides[color].toCharArray()) {
+                int type = PIECE_LETTERS.indexOf(c);
+                if (type < 0) {
+                    throw new IllegalArgumentException("Invalid piece letter '" + c + "' in: " + name);
+                }
+                if (type == PieceType.PAWN.index) {
+                    throw new IllegalArgumentException("Pawn tables are not supported: " + name);
+                }
+                counts[color * 6 + type]++;
+            }
+        }
+        return fromCounts(counts);
+    }
+
+    private static Signature fromCounts(int[] counts) {
+        int total = 0;
+        for (int count : counts) total += count;
+
+        int[] pieces = new int[total];
+        int label = 0;
+        for (int color = 0; color < 2; color++) {
+            // King first, then the remaining pieces by descending value
+            for (int type = PieceType.KING.index; type >= PieceType.PAWN.index; type--) {
+                for (int i = 0; i < counts[color * 6 + type]; i++) {
+                    pieces[label++] = color * 6 + type;
+                }
+            }
+        }
+        return new Signature(pieces);
+    }
+
+    // Material key independent of labelling, so positions can find their table cheaply
+    public long materialKey() {
+        long key = 0L;
+        for (int piece : pieces) {
+            key += 1L << (piece * 4);
+        }
+        return key;
+    }
+
+    public static long materialKey(Position position, boolean flipColors) {
+        long key = 0L;
+        for (int piece = 0; piece < 12; piece++) {
+            int target = flipColors ? (piece + 6) % 12 : piece;
+            key += (long) Long.bitCount(position.bitboards()[piece]) << (target * 4);
+        }
+        return key;
+    }
+
+    public int size() {
+        return pieces.length;
+    }
+
+    public int colorOf(int label) {
+        return Color.getPieceColor(pieces[label]).index;
+    }
+
+    public int kingLabel(int color) {
+        for (int label = 0; label < pieces.length; label++) {
+            if (pieces[label] == PieceType.KING.toBitboardIndex(color == 0 ? Color.WHITE : Color.BLACK)) {
+                return label;
+            }
+        }
+        throw new IllegalStateException("Signature without king: " + this);
+    }
+
+    public Signature without(int label) {
+        if (PieceType.isKing(pieces[label])) {
+            throw new IllegalArgumentException("Kings cannot be removed from a signature");
+        }
+        int[] remaining = new int[pieces.length - 1];
+        for (int i = 0, j = 0; i < pieces.length; i++) {
+            if (i != label) remaining[j++] = pieces[i];
+        }
+        return new Signature(remaining);
+    }
+
+    // Entries for one side to move
+    public int sideStride() {
+        return 16 << (6 * (pieces.length - 1));
+    }
+
+    public int entryCount() {
+        return 2 * sideStride();
+    }
+
+    /**
+     * Index of the position given by {@code squares} (one per label) with {@code side} to move.
+     * The label {@code skip} is left out, which lets a table index its sub-tables after a capture.
+     */
+    public int index(int[] squares, int skip, int side) {
+        int whiteKing = squares[0];
+        int mirror = (whiteKing % 8 > 3 ? 7 : 0) | (whiteKing / 8 > 3 ? 56 : 0);
+
+        int index = side * 16 + QUADRANT[whiteKing ^ mirror];
+        for (int label = 1; label < squares.length; label++) {
+            if (label != skip) {
+                index = (index << 6) | (squares[label] ^ mirror);
+            }
+        }
+        return index;
+    }
+
+    // Inverse of index(): fills squares and returns the side to move
+    public int decode(int index, int[] squares) {
+        for (int label = pieces.length - 1; label >= 1; label--) {
+            squares[label] = index & 63;
+            index >>>= 6;
+        }
+        int quadrant = index & 15;
+        squares[0] = (quadrant / 4) * 8 + quadrant % 4;
+        return index >>> 4;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Signature other && Arrays.equals(pieces, other.pieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(pieces);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder name = new StringBuilder();
+        for (int label = 0; label < pieces.length; label++) {
+            if (label > 0 && pieces[label] == PieceType.KING.toBitboardIndex(Color.BLACK)) {
+                name.append('v');
+            }
+            name.append(PIECE_LETTERS.charAt(pieces[label] % 6));
+        }
+        return name.toString();
+    }
+}
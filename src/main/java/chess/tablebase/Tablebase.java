@@ -0,0 +1,121 @@
+package chess.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One WDL/DTM table. Every entry is a single unsigned byte from the side to move's
+ * point of view: 0..253 is the number of plies to mate (odd = side to move mates,
+ * even = side to move gets mated), {@link #DRAW} or {@link #ILLEGAL}.
+ *
+ * File layout (little endian):
+ * Bytes  0–3  : magic "NXTB"
+ * Bytes  4–5  : format version
+ * Byte   6    : piece count
+ * Bytes  7–11 : bitboard index of each label, -1 padded
+ * Bytes 12–15 : entry count
+ * Bytes 16–   : entries
+ */
+public final class Tablebase {
+
+    public static final int MAX_PLIES = 253;
+    public static final int DRAW = 254;
+    public static final int ILLEGAL = 255;
+
+    private static final int MAGIC = 0x4254584E; // "NXTB"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final Signature signature;
+    private final ByteBuffer entries;
+
+    Tablebase(Signature signature, ByteBuffer entries) {
+        if (entries.capacity() != signature.entryCount()) {
+            throw new IllegalArgumentException("Table " + signature + " needs " + signature.entryCount() +
+                    " entries, got: " + entries.capacity());
+        }
+        this.signature = signature;
+        this.entries = entries;
+    }
+
+    public Signature signature() {
+        return signature;
+    }
+
+    public int valueAt(int index) {
+        return entries.get(index) & 0xFF;
+    }
+
+    public int probe(int[] squares, int skip, int side) {
+        return valueAt(signature.index(squares, skip, side));
+    }
+
+    // ===== VALUE HELPERS =====
+    public static boolean isWin(int value) {
+        return value <= MAX_PLIES && (value & 1) == 1;
+    }
+
+    public static boolean isLoss(int value) {
+        return value <= MAX_PLIES && (value & 1) == 0;
+    }
+
+    public static boolean isDraw(int value) {
+        return value == DRAW;
+    }
+
+    // ===== FILE FORMAT =====
+    public void write(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.put((byte) signature.size());
+        for (int label = 0; label < Signature.MAX_PIECES; label++) {
+            header.put((byte) (label < signature.size() ? signature.pieces()[label] : -1));
+        }
+        header.putInt(signature.entryCount());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            ByteBuffer body = entries.duplicate().clear();
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+
+    // Maps the entries read-only; nothing but the header is copied onto the heap
+    public static Tablebase map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tablebase version " + version + ": " + file);
+            }
+
+            int[] pieces = new int[header.get()];
+            for (int label = 0; label < Signature.MAX_PIECES; label++) {
+                byte piece = header.get();
+                if (label < pieces.length) pieces[label] = piece;
+            }
+            int entryCount = header.getInt();
+            if (channel.size() != HEADER_SIZE + (long) entryCount) {
+                throw new IOException("Truncated tablebase file: " + file);
+            }
+
+            ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, entryCount);
+            return new Tablebase(new Signature(pieces), entries);
+        }
+    }
+}
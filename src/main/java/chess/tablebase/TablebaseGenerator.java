@@ -0,0 +1,332 @@
+package chess.tablebase;
+
+import chess.data.PieceType;
+import chess.functions.attacks.AttackMasks;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Retrograde generator for pawnless tables.
+ * An initial forward pass over every index (in parallel) marks illegal placements and
+ * mates, counts the quiet moves of each position and resolves captures through the
+ * sub-tables. Resolved positions are then processed ply by ply: un-moves from a loss
+ * mark the predecessor as a win, un-moves from a win count down the predecessor's
+ * remaining moves until it is lost. Sub-tables are generated first and reused.
+ */
+public final class TablebaseGenerator {
+
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    // Capture summary: a capture reaches a draw or a win, so the position can't be lost
+    private static final int CANNOT_LOSE = 0xFF;
+
+    private final Map<Signature, Tablebase> generated = new HashMap<>();
+
+    public Tablebase generate(Signature signature) {
+        Tablebase table = generated.get(signature);
+        if (table != null) {
+            return table;
+        }
+
+        Tablebase[] subTables = new Tablebase[signature.size()];
+        for (int label = 0; label < signature.size(); label++) {
+            if (!PieceType.isKing(signature.pieces()[label])) {
+                subTables[label] = generate(signature.without(label));
+            }
+        }
+
+        table = new Build(signature, subTables).run();
+        generated.put(signature, table);
+        return table;
+    }
+
+    public Map<Signature, Tablebase> generated() {
+        return Map.copyOf(generated);
+    }
+
+    // Usage: TablebaseGenerator <output dir> <signature>...   e.g. out KQvK KRvK KQvKR
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TablebaseGenerator <output dir> <signature>...");
+            System.exit(1);
+        }
+
+        Path directory = Path.of(args[0]);
+        Files.createDirectories(directory);
+
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (int i = 1; i < args.length; i++) {
+            long start = System.nanoTime();
+            generator.generate(Signature.parse(args[i]));
+            System.out.printf("%s generated in %d ms%n", args[i], (System.nanoTime() - start) / 1_000_000);
+        }
+        for (Tablebase table : generator.generated().values()) {
+            table.write(directory.resolve(table.signature() + Tablebases.FILE_EXTENSION));
+        }
+    }
+
+    private static final class Build {
+        private final Signature signature;
+        private final Tablebase[] subTables;
+        private final int size;
+        private final int[] color;
+        private final int[] kingLabel = new int[2];
+
+        private final byte[] values;
+        private final byte[] quietMoves;
+        private final byte[] captureInfo;
+        private final Buckets buckets = new Buckets();
+
+        Build(Signature signature, Tablebase[] subTables) {
+            this.signature = signature;
+            this.subTables = subTables;
+            this.size = signature.size();
+            this.color = new int[size];
+            for (int label = 0; label < size; label++) {
+                color[label] = signature.colorOf(label);
+            }
+            kingLabel[0] = signature.kingLabel(0);
+            kingLabel[1] = signature.kingLabel(1);
+
+            int entries = signature.entryCount();
+            this.values = new byte[entries];
+            this.quietMoves = new byte[entries];
+            this.captureInfo = new byte[entries];
+        }
+
+        Tablebase run() {
+            int chunks = (values.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                Buckets local = new Buckets();
+                int[] squares = new int[size];
+                int end = Math.min(values.length, (chunk + 1) * CHUNK_SIZE);
+                for (int index = chunk * CHUNK_SIZE; index < end; index++) {
+                    initialize(index, squares, local);
+                }
+                buckets.addAll(local);
+            });
+
+            for (int ply = 0; ply <= Tablebase.MAX_PLIES; ply++) {
+                int[] frontier = buckets.take(ply);
+                int frontierChunks = (frontier.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+                int currentPly = ply;
+
+                IntStream.range(0, frontierChunks).parallel().forEach(chunk -> {
+                    Buckets local = new Buckets();
+                    int[] squares = new int[size];
+                    int end = Math.min(frontier.length, (chunk + 1) * CHUNK_SIZE);
+                    for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                        int index = frontier[i];
+                        if (BYTES.compareAndSet(values, index, (byte) Tablebase.DRAW, (byte) currentPly)) {
+                            propagate(index, currentPly, squares, local);
+                        }
+                    }
+                    buckets.addAll(local);
+                });
+            }
+            if (buckets.pendingAbove(Tablebase.MAX_PLIES)) {
+                throw new IllegalStateException("Distance to mate exceeds " + Tablebase.MAX_PLIES +
+                        " plies in " + signature);
+            }
+
+            return new Tablebase(signature, ByteBuffer.wrap(values));
+        }
+
+        private void initialize(int index, int[] squares, Buckets local) {
+            int side = signature.decode(index, squares);
+            if (!isValidPlacement(squares, side)) {
+                values[index] = (byte) Tablebase.ILLEGAL;
+                return;
+            }
+            values[index] = (byte) Tablebase.DRAW;
+
+            long occupied = occupancy(squares);
+            int legalMoves = 0;
+            int quiet = 0;
+            int captures = 0;
+            int fastestWin = Integer.MAX_VALUE;
+
+            for (int label = 0; label < size; label++) {
+                if (color[label] != side) continue;
+
+                int from = squares[label];
+                long targets = attacks(label, from, occupied) & ~sideOccupancy(squares, side);
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+
+                    int victim = labelAt(squares, to);
+                    squares[label] = to;
+                    if (victim >= 0) squares[victim] = -1;
+
+                    if (!isKingAttacked(squares, side)) {
+                        legalMoves++;
+                        if (victim < 0) {
+                            quiet++;
+                        } else {
+                            int child = subTables[victim].probe(squares, victim, 1 - side);
+                            if (child == Tablebase.DRAW || Tablebase.isLoss(child)) {
+                                captures = CANNOT_LOSE;
+                                if (Tablebase.isLoss(child)) fastestWin = Math.min(fastestWin, child + 1);
+                            } else if (captures != CANNOT_LOSE) {
+                                captures = Math.max(captures, child);
+                            }
+                        }
+                    }
+
+                    squares[label] = from;
+                    if (victim >= 0) squares[victim] = to;
+                }
+            }
+
+            if (legalMoves == 0) {
+                if (isKingAttacked(squares, side)) {
+                    local.add(0, index); // Checkmated
+                }
+                return; // Otherwise stalemate, which stays a draw
+            }
+
+            quietMoves[index] = (byte) quiet;
+            captureInfo[index] = (byte) captures;
+            if (fastestWin != Integer.MAX_VALUE) {
+                local.add(fastestWin, index);
+            } else if (quiet == 0 && captures != CANNOT_LOSE) {
+                local.add(captures + 1, index); // Every move is a capture into a lost sub-table
+            }
+        }
+
+        private void propagate(int index, int ply, int[] squares, Buckets local) {
+            int side = signature.decode(index, squares);
+            int mover = 1 - side;
+            long occupied = occupancy(squares);
+
+            for (int label = 0; label < size; label++) {
+                if (color[label] != mover) continue;
+
+                int to = squares[label];
+                long origins = attacks(label, to, occupied) & ~occupied;
+                while (origins != 0) {
+                    squares[label] = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+
+                    int predecessor = signature.index(squares, -1, mover);
+                    int value = (byte) BYTES.getOpaque(values, predecessor) & 0xFF;
+                    if (value != Tablebase.DRAW) continue; // Illegal or resolved already
+
+                    if (Tablebase.isLoss(ply)) {
+                        local.add(ply + 1, predecessor);
+                    } else {
+                        int remaining = ((byte) BYTES.getAndAdd(quietMoves, predecessor, (byte) -1) & 0xFF) - 1;
+                        int captures = captureInfo[predecessor] & 0xFF;
+                        if (remaining == 0 && captures != CANNOT_LOSE) {
+                            local.add(Math.max(ply, captures) + 1, predecessor);
+                        }
+                    }
+                }
+                squares[label] = to;
+            }
+        }
+
+        // ===== BOARD HELPERS =====
+        private boolean isValidPlacement(int[] squares, int side) {
+            long seen = 0L;
+            for (int square : squares) {
+                if ((seen & (1L << square)) != 0) return false;
+                seen |= 1L << square;
+            }
+            // The side that just moved can't have left its king in check
+            return !isKingAttacked(squares, 1 - side);
+        }
+
+        private boolean isKingAttacked(int[] squares, int kingColor) {
+            long king = 1L << squares[kingLabel[kingColor]];
+            long occupied = occupancy(squares);
+            for (int label = 0; label < size; label++) {
+                if (color[label] != kingColor && squares[label] >= 0 &&
+                        (attacks(label, squares[label], occupied) & king) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long attacks(int label, int square, long occupied) {
+            return switch (PieceType.getPieceType(signature.pieces()[label])) {
+                case KNIGHT -> AttackMasks.knightAttacks(square);
+                case BISHOP -> AttackMasks.bishopAttacks(square, occupied);
+                case ROOK -> AttackMasks.rookAttacks(square, occupied);
+                case QUEEN -> AttackMasks.queenAttacks(square, occupied);
+                case KING -> AttackMasks.kingAttacks(square);
+                case PAWN -> throw new IllegalStateException("Pawn tables are not supported");
+            };
+        }
+
+        private long occupancy(int[] squares) {
+            long occupied = 0L;
+            for (int square : squares) {
+                if (square >= 0) occupied |= 1L << square;
+            }
+            return occupied;
+        }
+
+        private long sideOccupancy(int[] squares, int side) {
+            long occupied = 0L;
+            for (int label = 0; label < size; label++) {
+                if (color[label] == side) occupied |= 1L << squares[label];
+            }
+            return occupied;
+        }
+
+        private int labelAt(int[] squares, int square) {
+            for (int label = 0; label < size; label++) {
+                if (squares[label] == square) return label;
+            }
+            return -1;
+        }
+    }
+
+    // Per-ply work lists; thread-local instances are merged into the shared one
+    private static final class Buckets {
+        private final int[][] indices = new int[Tablebase.MAX_PLIES + 2][];
+        private final int[] sizes = new int[Tablebase.MAX_PLIES + 2];
+
+        void add(int ply, int index) {
+            int slot = Math.min(ply, Tablebase.MAX_PLIES + 1);
+            if (indices[slot] == null) {
+                indices[slot] = new int[64];
+            } else if (sizes[slot] == indices[slot].length) {
+                indices[slot] = Arrays.copyOf(indices[slot], sizes[slot] * 2);
+            }
+            indices[slot][sizes[slot]++] = index;
+        }
+
+        synchronized void addAll(Buckets other) {
+            for (int slot = 0; slot < sizes.length; slot++) {
+                for (int i = 0; i < other.sizes[slot]; i++) {
+                    add(slot, other.indices[slot][i]);
+                }
+            }
+        }
+
+        synchronized int[] take(int ply) {
+            int[] taken = indices[ply] == null ? new int[0] : Arrays.copyOf(indices[ply], sizes[ply]);
+            indices[ply] = null;
+            sizes[ply] = 0;
+            return taken;
+        }
+
+        synchronized boolean pendingAbove(int ply) {
+            return sizes[ply + 1] > 0;
+        }
+    }
+}
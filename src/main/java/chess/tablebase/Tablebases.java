@@ -0,0 +1,89 @@
+package chess.tablebase;
+
+import chess.data.Position;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memory-mapped set of tables, probed straight from a {@link Position}.
+ * Positions with the colors reversed are probed in the mirrored table, so only
+ * one of "KQvK" / "KvKQ" needs to exist on disk.
+ */
+public final class Tablebases {
+
+    public static final String FILE_EXTENSION = ".nxtb";
+    public static final int NOT_FOUND = -1;
+
+    private final Map<Long, Tablebase> byMaterial = new HashMap<>();
+    private final int maxPieces;
+
+    private Tablebases(Map<Long, Tablebase> tables) {
+        byMaterial.putAll(tables);
+        maxPieces = tables.values().stream().mapToInt(table -> table.signature().size()).max().orElse(0);
+    }
+
+    public static Tablebases of(Iterable<Tablebase> tables) {
+        Map<Long, Tablebase> byMaterial = new HashMap<>();
+        for (Tablebase table : tables) {
+            byMaterial.put(table.signature().materialKey(), table);
+        }
+        return new Tablebases(byMaterial);
+    }
+
+    public static Tablebases load(Path directory) throws IOException {
+        Map<Long, Tablebase> byMaterial = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                Tablebase table = Tablebase.map(file);
+                byMaterial.put(table.signature().materialKey(), table);
+            }
+        }
+        return new Tablebases(byMaterial);
+    }
+
+    public int maxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Raw table value for the side to move (see {@link Tablebase}), or {@link #NOT_FOUND}
+     * if no table covers the position. Positions with pawns or castling rights are never covered.
+     */
+    public int probe(Position position) {
+        if (Long.bitCount(position.occupied()) > maxPieces || position.castlingRights() != 0) {
+            return NOT_FOUND;
+        }
+
+        boolean flipped = false;
+        Tablebase table = byMaterial.get(Signature.materialKey(position, false));
+        if (table == null) {
+            table = byMaterial.get(Signature.materialKey(position, true));
+            flipped = true;
+        }
+        if (table == null) {
+            return NOT_FOUND;
+        }
+
+        // Assign squares to labels; equal pieces may be labelled in any order
+        int[] pieces = table.signature().pieces();
+        int[] squares = new int[pieces.length];
+        long[] remaining = new long[12];
+        for (int piece = 0; piece < 12; piece++) {
+            remaining[flipped ? (piece + 6) % 12 : piece] = position.bitboards()[piece];
+        }
+        for (int label = 0; label < pieces.length; label++) {
+            long bitboard = remaining[pieces[label]];
+            int square = Long.numberOfTrailingZeros(bitboard);
+            remaining[pieces[label]] = bitboard & (bitboard - 1);
+            squares[label] = flipped ? square ^ 56 : square;
+        }
+
+        int side = position.whiteToMove() != flipped ? 0 : 1;
+        return table.probe(squares, -1, side);
+    }
+}
@@ -0,0 +1,277 @@
+package chess.tuning;
+
+import chess.search.Evaluation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Texel-style tuning of the {@link Evaluation} tables: minimizes the mean squared
+ * error between game results and sigmoid(K * eval / 400) over a {@link TuningSet}
+ * by gradient descent with Adam step sizes. The evaluation is linear in its tables,
+ * so each position is just a sparse feature vector and an epoch is one pass over
+ * the arrays. Positions are split into chunks scanned in parallel, each with its
+ * own gradient accumulator, which are summed at the end of the pass.
+ *
+ * Parameters:
+ * [0, 6)     : MATERIAL by piece type
+ * [6, 390)   : PIECE_SQUARE, type * 64 + table index
+ * [390, 398) : PASSED_PAWN by rank
+ */
+public final class TexelTuner {
+
+    static final int MATERIAL_OFFSET = 0;
+    static final int PIECE_SQUARE_OFFSET = 6;
+    static final int PASSED_PAWN_OFFSET = PIECE_SQUARE_OFFSET + 6 * 64;
+    public static final int PARAMETERS = PASSED_PAWN_OFFSET + 8;
+
+    private static final int BINARY_MAGIC = 0x4E585457; // "NXTW"
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    private final TuningSet set;
+    private final int chunks;
+    private final double[] weights = new double[PARAMETERS];
+    private final double[] firstMoment = new double[PARAMETERS];
+    private final double[] secondMoment = new double[PARAMETERS];
+    private double scale = 1.0;
+    private int steps;
+
+    public TexelTuner(TuningSet set) {
+        if (set.size() == 0) {
+            throw new IllegalArgumentException("Tuning set is empty");
+        }
+        this.set = set;
+        this.chunks = Math.min(set.size(), 4 * ForkJoinPool.getCommonPoolParallelism());
+        for (int parameter = 0; parameter < PARAMETERS; parameter++) {
+            weights[parameter] = initialWeight(parameter);
+        }
+    }
+
+    // The engine's current value for a parameter
+    static int initialWeight(int parameter) {
+        if (parameter < PIECE_SQUARE_OFFSET) {
+            return Evaluation.MATERIAL[parameter - MATERIAL_OFFSET];
+        }
+        if (parameter < PASSED_PAWN_OFFSET) {
+            int index = parameter - PIECE_SQUARE_OFFSET;
+            return Evaluation.PIECE_SQUARE[index / 64][index % 64];
+        }
+        return Evaluation.PASSED_PAWN[parameter - PASSED_PAWN_OFFSET];
+    }
+
+    public double[] weights() {
+        return weights.clone();
+    }
+
+    public double scale() {
+        return scale;
+    }
+
+    void setWeight(int parameter, double value) {
+        weights[parameter] = value;
+    }
+
+    // ===== OPTIMIZATION =====
+    /**
+     * Picks the sigmoid scale K that best fits the current weights, by golden-section
+     * search; run it once before tuning so that the weights keep their centipawn scale.
+     */
+    public double fitScale() {
+        double low = 0.1;
+        double high = 3.0;
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        for (int i = 0; i < 40; i++) {
+            double left = high - ratio * (high - low);
+            double right = low + ratio * (high - low);
+            scale = left;
+            double leftError = error();
+            scale = right;
+            double rightError = error();
+            if (leftError < rightError) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+        scale = (low + high) / 2;
+        return scale;
+    }
+
+    public double error() {
+        return IntStream.range(0, chunks).parallel().mapToDouble(chunk -> {
+            double sum = 0;
+            for (int i = start(chunk); i < start(chunk + 1); i++) {
+                double difference = set.result(i) - sigmoid(set.evaluate(i, weights));
+                sum += difference * difference;
+            }
+            return sum;
+        }).sum() / set.size();
+    }
+
+    // One pass over the set and one Adam step; returns the error before the step
+    public double step(double learningRate) {
+        double[] gradient = gradient();
+        steps++;
+        double correction1 = 1 - Math.pow(BETA1, steps);
+        double correction2 = 1 - Math.pow(BETA2, steps);
+        for (int parameter = 0; parameter < PARAMETERS; parameter++) {
+            double g = gradient[parameter] / set.size();
+            firstMoment[parameter] = BETA1 * firstMoment[parameter] + (1 - BETA1) * g;
+            secondMoment[parameter] = BETA2 * secondMoment[parameter] + (1 - BETA2) * g * g;
+            weights[parameter] -= learningRate * (firstMoment[parameter] / correction1) /
+                    (Math.sqrt(secondMoment[parameter] / correction2) + EPSILON);
+        }
+        return gradient[PARAMETERS] / set.size();
+    }
+
+    // Gradient of the summed squared error over the set; the last slot holds the error itself
+    double[] gradient() {
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(this::chunkGradient)
+                .reduce(TexelTuner::add)
+                .orElseThrow();
+    }
+
+    // As above, over one chunk
+    private double[] chunkGradient(int chunk) {
+        double[] gradient = new double[PARAMETERS + 1];
+        double derivative = scale * Math.log(10) / 400;
+        for (int i = start(chunk); i < start(chunk + 1); i++) {
+            double predicted = sigmoid(set.evaluate(i, weights));
+            double difference = set.result(i) - predicted;
+            gradient[PARAMETERS] += difference * difference;
+            set.accumulate(i, -2 * difference * predicted * (1 - predicted) * derivative, gradient);
+        }
+        return gradient;
+    }
+
+    private static double[] add(double[] a, double[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    private int start(int chunk) {
+        return (int) ((long) set.size() * chunk / chunks);
+    }
+
+    private double sigmoid(double score) {
+        return 1 / (1 + Math.pow(10, -scale * score / 400));
+    }
+
+    // ===== EXPORT =====
+    // The tuned tables as Java declarations, laid out like those in Evaluation
+    public void writeJava(Appendable out) throws IOException {
+        int[] rounded = rounded();
+        out.append("    // [pawn, knight, bishop, rook, queen, king]\n");
+        out.append("    public static final int[] MATERIAL = ")
+                .append(list(rounded, MATERIAL_OFFSET, 6)).append(";\n\n");
+
+        String[] names = { "Pawn", "Knight", "Bishop", "Rook", "Queen", "King" };
+        out.append("    public static final int[][] PIECE_SQUARE = {\n");
+        for (int type = 0; type < 6; type++) {
+            out.append("            { // ").append(names[type]).append('\n');
+            for (int rank = 0; rank < 8; rank++) {
+                StringBuilder row = new StringBuilder("                    ");
+                for (int file = 0; file < 8; file++) {
+                    int value = rounded[PIECE_SQUARE_OFFSET + type * 64 + rank * 8 + file];
+                    row.append(String.format("%4d", value)).append(file < 7 || rank < 7 ? "," : "");
+                }
+                out.append(row.toString().replaceFirst("^( {20}) +", "$1")).append('\n');
+            }
+            out.append(type < 5 ? "            },\n" : "            }\n");
+        }
+        out.append("    };\n\n");
+
+        out.append("    // Bonus for a passed pawn by rank, from its own side (index 1 = second rank)\n");
+        out.append("    public static final int[] PASSED_PAWN = ")
+                .append(list(rounded, PASSED_PAWN_OFFSET, 8)).append(";\n");
+    }
+
+    // Parameters as rounded ints, indexed as above: magic "NXTW", count, values (big endian)
+    public void writeBinary(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(BINARY_MAGIC);
+            out.writeInt(PARAMETERS);
+            for (int value : rounded()) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private int[] rounded() {
+        return Arrays.stream(weights).mapToInt(weight -> (int) Math.round(weight)).toArray();
+    }
+
+    private static String list(int[] values, int from, int count) {
+        StringBuilder list = new StringBuilder("{ ");
+        for (int i = 0; i < count; i++) {
+            list.append(i > 0 ? ", " : "").append(values[from + i]);
+        }
+        return list.append(" }").toString();
+    }
+
+    /**
+     * Usage: TexelTuner <positions> [epochs] [output.java | output.bin]
+     * Positions are read from a tuning set written by {@link TuningSet#save}
+     * (.bin), a PGN file (.pgn) or lines of FEN and result (anything else). A text
+     * or PGN input is also saved next to it as .bin, which loads much faster.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TexelTuner <positions> [epochs] [output.java | output.bin]");
+            System.exit(1);
+        }
+        Path input = Path.of(args[0]);
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Path output = args.length > 2 ? Path.of(args[2]) : null;
+
+        long start = System.nanoTime();
+        TuningSet set;
+        String name = input.getFileName().toString();
+        if (name.endsWith(".bin")) {
+            set = TuningSet.load(input);
+        } else {
+            set = new TuningSet();
+            try (Reader reader = Files.newBufferedReader(input)) {
+                long skipped = name.endsWith(".pgn") ? set.addPgn(reader, 8) : set.addLabeledFens(reader);
+                System.err.printf("Skipped %d unreadable %s%n", skipped, name.endsWith(".pgn") ? "games" : "lines");
+            }
+            set.save(input.resolveSibling(name.replaceFirst("\\.[^.]*$", "") + ".bin"));
+        }
+        System.err.printf("Loaded %,d positions in %d ms%n", set.size(), (System.nanoTime() - start) / 1_000_000);
+
+        TexelTuner tuner = new TexelTuner(set);
+        System.err.printf("K = %.4f, initial error %.6f%n", tuner.fitScale(), tuner.error());
+        start = System.nanoTime();
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            double error = tuner.step(1.0);
+            if (epoch % 50 == 0 || epoch == 1) {
+                System.err.printf("Epoch %5d: error %.6f (%d ms)%n", epoch, error,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+        System.err.printf("Final error %.6f%n", tuner.error());
+
+        if (output != null && output.getFileName().toString().endsWith(".bin")) {
+            tuner.writeBinary(output);
+        } else if (output != null) {
+            try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+                tuner.writeJava(writer);
+            }
+        } else {
+            tuner.writeJava(System.out);
+        }
+    }
+}
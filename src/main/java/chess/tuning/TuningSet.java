@@ -0,0 +1,307 @@
+package chess.tuning;
+
+import chess.data.Color;
+import chess.data.Move;
+import chess.data.Position;
+import chess.errors.ChessEngineException;
+import chess.functions.attacks.AttackMasks;
+import chess.functions.moves.MoveApplication;
+import chess.functions.parser.FenParser;
+import chess.functions.rules.CheckRules;
+import chess.protocol.PGNImporter;
+import chess.search.Evaluation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Labeled positions for {@link TexelTuner}, reduced to the evaluation's features
+ * and stored in primitive arrays: position i owns features
+ * {@code [offsets[i], offsets[i + 1])}, each a parameter index and a count (white
+ * pieces minus black pieces), and results[i] is the game result for white
+ * (1, 0.5 or 0).
+ *
+ * Binary file (big endian):
+ * magic "NXTS", parameter count, position count, feature count, then offsets,
+ * parameter indexes (u16), counts (i8) and results (f32)
+ */
+public final class TuningSet {
+
+    private static final int MAGIC = 0x4E585453; // "NXTS"
+
+    private int size;
+    private int[] offsets = new int[1024];
+    private short[] parameters = new short[16384];
+    private byte[] counts = new byte[16384];
+    private float[] results = new float[1024];
+
+    private final int[] scratch = new int[TexelTuner.PARAMETERS];
+
+    public int size() {
+        return size;
+    }
+
+    public int featureCount() {
+        return offsets[size];
+    }
+
+    // Adds a position labeled with the result for white; returns false if it has no features
+    public boolean add(Position position, double whiteResult) {
+        if (whiteResult < 0 || whiteResult > 1) {
+            throw new IllegalArgumentException("Result must be between 0 and 1, got: " + whiteResult);
+        }
+        Arrays.fill(scratch, 0);
+        extract(position, scratch);
+
+        int start = offsets[size];
+        int end = start;
+        long staticScore = 0;
+        for (int parameter = 0; parameter < scratch.length; parameter++) {
+            if (scratch[parameter] != 0) {
+                end++;
+            }
+        }
+        if (end == start) {
+            return false;
+        }
+        ensureCapacity(end);
+        int next = start;
+        for (int parameter = 0; parameter < scratch.length; parameter++) {
+            if (scratch[parameter] != 0) {
+                parameters[next] = (short) parameter;
+                counts[next] = (byte) scratch[parameter];
+                staticScore += (long) scratch[parameter] * TexelTuner.initialWeight(parameter);
+                next++;
+            }
+        }
+        // The features must add up to what the engine evaluates, or the tuned tables mean nothing
+        int expected = Evaluation.evaluate(position);
+        if (staticScore != (position.whiteToMove() ? expected : -expected)) {
+            throw new IllegalStateException("Tuner features disagree with Evaluation for position " +
+                    Long.toHexString(position.zobristHash()));
+        }
+
+        results[size] = (float) whiteResult;
+        offsets[++size] = end;
+        return true;
+    }
+
+    // ===== LOADING =====
+    /**
+     * Reads one labeled position per line: a FEN (or 4-field EPD) followed by the
+     * result as "1-0", "0-1", "1/2-1/2" or a number from white's point of view, in
+     * any of the usual wrappings ({@code c9 "1-0";}, {@code [0.5]}, {@code | 1.0}).
+     * Returns the number of lines skipped as unreadable.
+     */
+    public long addLabeledFens(Reader source) throws IOException {
+        BufferedReader in = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        long skipped = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                String[] tokens = line.trim().split("\\s+");
+                double result = parseResult(tokens[tokens.length - 1]);
+                StringBuilder fen = new StringBuilder(String.join(" ", Arrays.copyOf(tokens, Math.min(4, tokens.length))));
+                // Clocks are optional, and EPD opcodes may follow the first four fields
+                int clocks = 0;
+                for (int i = 4; i < Math.min(6, tokens.length - 1) && tokens[i].matches("\\d+"); i++) {
+                    fen.append(' ').append(tokens[i]);
+                    clocks++;
+                }
+                fen.append(clocks == 0 ? " 0 1" : clocks == 1 ? " 1" : "");
+                add(FenParser.parse(fen.toString()), result);
+            } catch (IllegalArgumentException | ChessEngineException | ArrayIndexOutOfBoundsException e) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Adds the positions of every decided or drawn game, labeled with its result.
+     * The first {@code skipPlies} plies (book moves) and positions in check (not
+     * quiet) are left out. Returns the number of games skipped.
+     */
+    public long addPgn(Reader source, int skipPlies) {
+        long[] skipped = { 0 };
+        PGNImporter.forEachRawGame(source, raw -> {
+            PGNImporter.ImportedGame game;
+            try {
+                game = raw.parse();
+            } catch (ChessEngineException | IllegalArgumentException e) {
+                skipped[0]++;
+                return;
+            }
+            double result = switch (game.result()) {
+                case "1-0" -> 1.0;
+                case "0-1" -> 0.0;
+                case "1/2-1/2" -> 0.5;
+                default -> -1.0;
+            };
+            if (result < 0) {
+                skipped[0]++;
+                return;
+            }
+            Position position = game.start();
+            List<Move> moves = game.moves();
+            for (int ply = 0; ply < moves.size(); ply++) {
+                if (ply >= skipPlies && !CheckRules.isInCheck(position,
+                        position.whiteToMove() ? Color.WHITE : Color.BLACK)) {
+                    add(position, result);
+                }
+                position = MoveApplication.applyMove(position, moves.get(ply));
+            }
+        });
+        return skipped[0];
+    }
+
+    private static double parseResult(String token) {
+        String result = token.replaceAll("[\\[\\]\";,|]", "");
+        double value = switch (result) {
+            case "1-0" -> 1.0;
+            case "0-1" -> 0.0;
+            case "1/2-1/2" -> 0.5;
+            default -> Double.parseDouble(result);
+        };
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException("Result out of range: " + token);
+        }
+        return value;
+    }
+
+    // ===== BINARY FILES =====
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(TexelTuner.PARAMETERS);
+            out.writeInt(size);
+            out.writeInt(featureCount());
+            for (int i = 0; i <= size; i++) {
+                out.writeInt(offsets[i]);
+            }
+            for (int i = 0; i < featureCount(); i++) {
+                out.writeShort(parameters[i]);
+            }
+            out.write(counts, 0, featureCount());
+            for (int i = 0; i < size; i++) {
+                out.writeFloat(results[i]);
+            }
+        }
+    }
+
+    public static TuningSet load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a tuning set (bad magic): " + file);
+            }
+            if (in.readInt() != TexelTuner.PARAMETERS) {
+                throw new IOException("Tuning set was built for a different evaluation: " + file);
+            }
+            TuningSet set = new TuningSet();
+            int size = in.readInt();
+            int features = in.readInt();
+            set.offsets = new int[size + 1];
+            set.parameters = new short[features];
+            set.counts = new byte[features];
+            set.results = new float[Math.max(1, size)];
+            for (int i = 0; i <= size; i++) {
+                set.offsets[i] = in.readInt();
+            }
+            for (int i = 0; i < features; i++) {
+                set.parameters[i] = in.readShort();
+            }
+            in.readFully(set.counts);
+            for (int i = 0; i < size; i++) {
+                set.results[i] = in.readFloat();
+            }
+            set.size = size;
+            return set;
+        }
+    }
+
+    // ===== TUNER ACCESS =====
+    // Static score for white under the given weights
+    double evaluate(int position, double[] weights) {
+        double score = 0;
+        for (int i = offsets[position]; i < offsets[position + 1]; i++) {
+            score += counts[i] * weights[parameters[i]];
+        }
+        return score;
+    }
+
+    // Adds scale * count to gradient[parameter] for every feature of the position
+    void accumulate(int position, double scale, double[] gradient) {
+        for (int i = offsets[position]; i < offsets[position + 1]; i++) {
+            gradient[parameters[i]] += scale * counts[i];
+        }
+    }
+
+    double result(int position) {
+        return results[position];
+    }
+
+    // ===== FEATURES =====
+    /**
+     * Adds the position's feature counts to out, indexed as in {@link TexelTuner}.
+     * Mirrors {@link Evaluation#evaluate}: every term there is a table entry
+     * times a count, so the evaluation is linear in the tables.
+     */
+    static void extract(Position position, int[] out) {
+        long[] bitboards = position.bitboards();
+        for (int type = 0; type < 6; type++) {
+            long white = bitboards[type];
+            while (white != 0) {
+                int square = Long.numberOfTrailingZeros(white);
+                out[TexelTuner.MATERIAL_OFFSET + type]++;
+                out[TexelTuner.PIECE_SQUARE_OFFSET + type * 64 + (square ^ 56)]++;
+                white &= white - 1;
+            }
+            long black = bitboards[type + 6];
+            while (black != 0) {
+                int square = Long.numberOfTrailingZeros(black);
+                out[TexelTuner.MATERIAL_OFFSET + type]--;
+                out[TexelTuner.PIECE_SQUARE_OFFSET + type * 64 + square]--;
+                black &= black - 1;
+            }
+        }
+
+        long whitePawns = bitboards[0];
+        long blackPawns = bitboards[6];
+        long whitePassed = whitePawns & ~(AttackMasks.pawnFrontSpan(blackPawns, Color.BLACK) |
+                AttackMasks.pawnAttackSpan(blackPawns, Color.BLACK));
+        while (whitePassed != 0) {
+            out[TexelTuner.PASSED_PAWN_OFFSET + Long.numberOfTrailingZeros(whitePassed) / 8]++;
+            whitePassed &= whitePassed - 1;
+        }
+        long blackPassed = blackPawns & ~(AttackMasks.pawnFrontSpan(whitePawns, Color.WHITE) |
+                AttackMasks.pawnAttackSpan(whitePawns, Color.WHITE));
+        while (blackPassed != 0) {
+            out[TexelTuner.PASSED_PAWN_OFFSET + 7 - Long.numberOfTrailingZeros(blackPassed) / 8]--;
+            blackPassed &= blackPassed - 1;
+        }
+    }
+
+    private void ensureCapacity(int features) {
+        if (features > parameters.length) {
+            int length = Math.max(features, parameters.length * 2);
+            parameters = Arrays.copyOf(parameters, length);
+            counts = Arrays.copyOf(counts, length);
+        }
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            results = Arrays.copyOf(results, results.length * 2);
+        }
+    }
+}
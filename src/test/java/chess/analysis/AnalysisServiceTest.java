@@ -0,0 +1,84 @@
+package chess.analysis;
+
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+import chess.search.SearchLimits;
+import chess.search.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisServiceTest {
+
+    private static final Position START = FenParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    private static final Position KIWIPETE =
+            FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+
+    // Long enough that a second request arrives while it runs
+    private static final SearchLimits SLOW = SearchLimits.time(500);
+
+    @Test
+    void completedSearchesAreCached() throws Exception {
+        try (AnalysisService service = new AnalysisService(1, 4, 16, 1)) {
+            SearchResult first = service.submit(START, SearchLimits.depth(3)).get();
+            CompletableFuture<SearchResult> second = service.submit(START, SearchLimits.depth(3));
+
+            assertTrue(second.isDone());
+            assertEquals(first, second.get());
+            assertEquals(1, service.searchesRun());
+            assertEquals(1, service.cacheHits());
+
+            // Another depth or line count is another search
+            service.submit(START, SearchLimits.depth(2)).get();
+            List<SearchResult> lines = service.submit(START, SearchLimits.depth(3), 2).get();
+            assertEquals(2, lines.size());
+            assertEquals(3, service.searchesRun());
+        }
+    }
+
+    @Test
+    void identicalRequestsInFlightShareOneSearch() throws Exception {
+        try (AnalysisService service = new AnalysisService(2, 4, 16, 1)) {
+            CompletableFuture<List<SearchResult>> first = service.trySubmit(KIWIPETE, SLOW, 1);
+            CompletableFuture<List<SearchResult>> second = service.trySubmit(KIWIPETE, SLOW, 1);
+
+            assertSame(first, second);
+            assertEquals(1, service.cacheHits());
+            second.get();
+            assertEquals(1, service.searchesRun());
+        }
+    }
+
+    @Test
+    void fullQueueRejectsTrySubmit() throws Exception {
+        try (AnalysisService service = new AnalysisService(1, 0, 16, 1)) {
+            CompletableFuture<SearchResult> running = service.trySubmit(KIWIPETE, SLOW);
+            CompletableFuture<SearchResult> rejected = service.trySubmit(START, SLOW);
+
+            ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+            // The slot comes back once the running search ends
+            running.get();
+            assertEquals(1, service.trySubmit(START, SearchLimits.depth(2), 1).get().size());
+        }
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AnalysisService(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AnalysisService(1, -1, 1, 1));
+        try (AnalysisService service = new AnalysisService(1, 1, 1, 1)) {
+            assertThrows(IllegalArgumentException.class, () -> service.trySubmit(START, SearchLimits.depth(1), 0));
+        }
+    }
+}
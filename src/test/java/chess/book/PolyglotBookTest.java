@@ -0,0 +1,62 @@
+package chess.book;
+
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.parser.FenParser;
+import chess.protocol.PGNImporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolyglotBookTest {
+
+    private static final String PGN = """
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 Nc6 1-0
+
+            [Result "0-1"]
+
+            1. e4 c5 2. Nf3 d6 0-1
+
+            [Result "1/2-1/2"]
+
+            1. d4 Nf6 2. Qxf7 1/2-1/2
+
+            [Result "1/2-1/2"]
+
+            1. d4 d5 1/2-1/2
+            """;
+
+    @Test
+    void buildsWeightedBookAndSkipsBadGames(@TempDir Path directory) throws IOException {
+        PolyglotBookBuilder builder = new PolyglotBookBuilder(8).addPgn(new StringReader(PGN));
+        assertEquals(1, builder.skippedGames()); // Qxf7 is not a legal move
+        Path file = directory.resolve("book.bin");
+        builder.write(file);
+
+        PolyglotBook book = PolyglotBook.open(file);
+        Position start = FenParser.standPos();
+        Map<String, Integer> weights = book.entries(start).stream()
+                .collect(Collectors.toMap(entry -> entry.move().toUci(), BookEntry::weight));
+        // e4: a win and a loss for white, d4: one draw
+        assertEquals(Map.of("e2e4", 2, "d2d4", 1), weights);
+        assertEquals("e2e4", book.entries(start).get(0).move().toUci());
+
+        // After 1. e4, c5 won once and e5 lost once, so only c5 is stored
+        Position afterE4 = MoveApplication.applyMove(start, PGNImporter.parseMove(start, "e4"));
+        assertEquals(List.of("c7c5"), book.entries(afterE4).stream().map(entry -> entry.move().toUci()).toList());
+        assertEquals("c7c5", book.pickMove(afterE4, new SplittableRandom(1)).orElseThrow().toUci());
+        assertTrue(book.pickMove(FenParser.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), new SplittableRandom(1)).isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package chess.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoveHistoryTest {
+
+    private static Move move(int i) {
+        return Move.normal(i % 64, (i + 1) % 64);
+    }
+
+    private static MoveHistory of(int length) {
+        MoveHistory history = MoveHistory.empty();
+        for (int i = 0; i < length; i++) {
+            history = history.append(move(i));
+        }
+        return history;
+    }
+
+    @Test
+    void appendGrowsPastTheInitialCapacity() {
+        MoveHistory history = of(100);
+        assertEquals(100, history.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(move(i), history.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(100));
+        assertEquals(history, MoveHistory.copyOf(new ArrayList<>(history)));
+    }
+
+    @Test
+    void branchesDoNotSeeEachOther() {
+        MoveHistory parent = of(5);
+        MoveHistory first = parent.append(move(40));
+        MoveHistory second = parent.append(move(50)); // Slot 5 is taken, so this one copies
+        MoveHistory firstLonger = first.append(move(41));
+
+        assertEquals(5, parent.size());
+        assertEquals(move(40), first.get(5));
+        assertEquals(move(50), second.get(5));
+        assertEquals(List.of(move(40), move(41)), firstLonger.subList(5, 7));
+        assertEquals(parent, second.subList(0, 5));
+    }
+
+    @Test
+    void concurrentAppendsToOneParentKeepTheirOwnMove() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                MoveHistory parent = of(round % 20);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<MoveHistory>> children = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    Move own = move(100 + t);
+                    Callable<MoveHistory> task = () -> {
+                        go.await();
+                        return parent.append(own).append(own);
+                    };
+                    children.add(executor.submit(task));
+                }
+                go.countDown();
+
+                for (int t = 0; t < threads; t++) {
+                    MoveHistory child = children.get(t).get();
+                    assertEquals(parent.size() + 2, child.size());
+                    assertEquals(parent, child.subList(0, parent.size()));
+                    assertEquals(move(100 + t), child.get(parent.size()), "round " + round);
+                    assertEquals(move(100 + t), child.get(parent.size() + 1), "round " + round);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package chess.functions.attacks;
+
+import chess.data.Color;
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchAttacksTest {
+
+    private static final int COUNT = 1000;
+    private static final long UNTOUCHED = 0xDEAD_BEEF_DEAD_BEEFL;
+
+    private static final long[][] bitboards = new long[12][COUNT];
+    private static final long[] occupied = new long[COUNT];
+
+    // Seeded random playouts from positions with castling, en passant and promotions
+    @BeforeAll
+    static void randomPositions() {
+        Position[] starts = {
+                FenParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"),
+                FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"),
+                FenParser.parse("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"),
+                FenParser.parse("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"),
+        };
+        SplittableRandom random = new SplittableRandom(38);
+        for (int i = 0; i < COUNT; i++) {
+            Position position = starts[random.nextInt(starts.length)];
+            int plies = random.nextInt(40);
+            for (int ply = 0; ply < plies; ply++) {
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position = MoveApplication.applyMove(position, moves.get(random.nextInt(moves.size())));
+            }
+            for (int piece = 0; piece < 12; piece++) {
+                bitboards[piece][i] = position.bitboards()[piece];
+            }
+            occupied[i] = position.occupied();
+        }
+    }
+
+    private interface Kernel {
+        void run(long[] out, int count);
+    }
+
+    private static long forEachSquare(long pieces, IntToLongFunction attacks) {
+        long union = 0L;
+        while (pieces != 0) {
+            union |= attacks.applyAsLong(Long.numberOfTrailingZeros(pieces));
+            pieces &= pieces - 1;
+        }
+        return union;
+    }
+
+    private static long scalarAttackMap(int position, Color color) {
+        int base = color == Color.WHITE ? 0 : 6;
+        long queens = bitboards[base + 4][position];
+        return forEachSquare(bitboards[base][position], square -> AttackMasks.pawnAttacks(square, color)) |
+                forEachSquare(bitboards[base + 1][position], AttackMasks::knightAttacks) |
+                forEachSquare(bitboards[base + 2][position] | queens,
+                        square -> AttackMasks.bishopAttacks(square, occupied[position])) |
+                forEachSquare(bitboards[base + 3][position] | queens,
+                        square -> AttackMasks.rookAttacks(square, occupied[position])) |
+                forEachSquare(bitboards[base + 5][position], AttackMasks::kingAttacks);
+    }
+
+    // Every count up to three vectors, so each tail length is masked, then the whole batch
+    private static void check(String name, Kernel kernel, IntToLongFunction expected) {
+        long[] out = new long[COUNT];
+        int[] counts = IntStream.concat(IntStream.rangeClosed(0, 3 * BatchAttacks.laneCount()), IntStream.of(COUNT))
+                .toArray();
+        for (int count : counts) {
+            Arrays.fill(out, UNTOUCHED);
+            kernel.run(out, count);
+            for (int i = 0; i < COUNT; i++) {
+                long want = i < count ? expected.applyAsLong(i) : UNTOUCHED;
+                assertEquals(want, out[i], name + ", count " + count + ", position " + i);
+            }
+        }
+    }
+
+    @Test
+    void kernelsMatchAttackMasks() {
+        for (Color color : Color.values()) {
+            int base = color == Color.WHITE ? 0 : 6;
+            check("attackMaps " + color, (out, count) -> BatchAttacks.attackMaps(bitboards, color, out, count),
+                    position -> scalarAttackMap(position, color));
+            check("pawnAttacks " + color, (out, count) -> BatchAttacks.pawnAttacks(bitboards[base], color, out, count),
+                    position -> forEachSquare(bitboards[base][position],
+                            square -> AttackMasks.pawnAttacks(square, color)));
+            check("knightAttacks " + color, (out, count) -> BatchAttacks.knightAttacks(bitboards[base + 1], out, count),
+                    position -> forEachSquare(bitboards[base + 1][position], AttackMasks::knightAttacks));
+            check("bishopAttacks " + color,
+                    (out, count) -> BatchAttacks.bishopAttacks(bitboards[base + 2], occupied, out, count),
+                    position -> forEachSquare(bitboards[base + 2][position],
+                            square -> AttackMasks.bishopAttacks(square, occupied[position])));
+            check("rookAttacks " + color,
+                    (out, count) -> BatchAttacks.rookAttacks(bitboards[base + 3], occupied, out, count),
+                    position -> forEachSquare(bitboards[base + 3][position],
+                            square -> AttackMasks.rookAttacks(square, occupied[position])));
+            check("kingAttacks " + color, (out, count) -> BatchAttacks.kingAttacks(bitboards[base + 5], out, count),
+                    position -> forEachSquare(bitboards[base + 5][position], AttackMasks::kingAttacks));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package chess.functions.game;
+
+import chess.data.Game;
+import chess.data.GameState;
+import chess.data.Move;
+import chess.errors.IllegalMoveException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameFunctionsTest {
+
+    private static Game play(Game game, String... moves) {
+        for (String uci : moves) {
+            Move move = game.legalMoves().stream().filter(legal -> legal.toUci().equals(uci)).findFirst()
+                    .orElseThrow(() -> new AssertionError("Not legal: " + uci));
+            game = GameFunctions.applyMove(game, move);
+        }
+        return game;
+    }
+
+    private static Game start() {
+        return GameFunctions.initializeGame(Game.newStandardGame());
+    }
+
+    @Test
+    void knightShuffleIsAThreefoldRepetition() {
+        Game game = play(start(), "g1f3", "g8f6", "f3g1", "f6g8");
+        assertInstanceOf(GameState.Ongoing.class, game.state()); // Twice is not enough
+        assertEquals(5, game.history().length);
+
+        game = play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(new GameState.Draw(GameState.DrawType.REPETITION), game.state());
+        assertEquals(game.position().zobristHash(), game.history()[game.history().length - 1]);
+    }
+
+    @Test
+    void irreversibleMoveResetsTheHistory() {
+        Game game = play(start(), "g1f3", "g8f6", "f3g1", "f6g8", "e2e3");
+        assertEquals(1, game.history().length);
+        assertEquals(game.position().zobristHash(), game.history()[0]);
+
+        // Only repetitions after the pawn move count
+        game = play(game, "g8f6", "g1f3", "f6g8", "f3g1", "g8f6", "g1f3", "f6g8");
+        assertInstanceOf(GameState.Ongoing.class, game.state());
+        game = play(game, "f3g1");
+        assertEquals(new GameState.Draw(GameState.DrawType.REPETITION), game.state());
+        assertEquals(9, game.history().length);
+        assertEquals(13, game.moveHistory().size());
+    }
+
+    @Test
+    void illegalMovesAndFinishedGamesAreRejected() {
+        Game game = start();
+        assertThrows(IllegalMoveException.class, () -> GameFunctions.applyMove(game, Move.normal(12, 36)));
+
+        Game mated = play(game, "f2f3", "e7e5", "g2g4", "d8h4");
+        assertEquals(new GameState.BlackWins(GameState.WinType.CHECKMATE), mated.state());
+        assertThrows(IllegalStateException.class, () -> GameFunctions.applyMove(mated, Move.normal(12, 28)));
+    }
+
+    @Test
+    void insufficientMaterialEndsTheGame() {
+        // Bxb2 leaves bishops on b2 and e5, both dark
+        Game game = GameFunctions.initializeGame(Game.fromFen("4k3/8/8/4b3/8/8/1p6/B3K3 w - - 0 1"));
+        game = play(game, "a1b2");
+        assertEquals(new GameState.Draw(GameState.DrawType.INSUFFICIENT_MATERIAL), game.state());
+    }
+}
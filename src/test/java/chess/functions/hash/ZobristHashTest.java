@@ -0,0 +1,52 @@
+package chess.functions.hash;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ZobristHashTest {
+
+    // The test keys published with the Polyglot book format
+    @Test
+    void polyglotKeysMatchPublishedValues() {
+        assertPolyglotKey(0x463b96181691fc9cL);
+        assertPolyglotKey(0x823c9b50fd114196L, "e2e4");
+        assertPolyglotKey(0x0756b94461c50fb0L, "e2e4", "d7d5");
+        assertPolyglotKey(0x662fafb965db29d4L, "e2e4", "d7d5", "e4e5");
+        assertPolyglotKey(0x22a48b5a8e47ff78L, "e2e4", "d7d5", "e4e5", "f7f5");
+        assertPolyglotKey(0x652a607ca3f242c1L, "e2e4", "d7d5", "e4e5", "f7f5", "e1e2");
+        assertPolyglotKey(0x00fdd303c946bdd9L, "e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7");
+        assertPolyglotKey(0x3c8123ea7b067637L, "a2a4", "b7b5", "h2h4", "b5b4", "c2c4");
+        assertPolyglotKey(0x5c3f9b829b279560L, "a2a4", "b7b5", "h2h4", "b5b4", "c2c4", "b4c3", "a1a3");
+    }
+
+    @Test
+    void incrementalHashMatchesFullHash() {
+        Position position = FenParser.standPos();
+        for (String uci : new String[]{"e2e4", "d7d5", "e4d5", "g8f6", "f1b5", "c7c6", "d5c6", "d8d2", "b1d2", "b7c6"}) {
+            position = MoveApplication.applyMove(position, legalMove(position, uci));
+            assertEquals(ZobristHash.computeHash(position.bitboards(), position.whiteToMove(),
+                    position.castlingRights(), position.enPassantSquare()), position.zobristHash(), uci);
+        }
+    }
+
+    private static void assertPolyglotKey(long expected, String... moves) {
+        Position position = FenParser.standPos();
+        for (String uci : moves) {
+            position = MoveApplication.applyMove(position, legalMove(position, uci));
+        }
+        assertEquals(expected, ZobristHash.computePolyglotKey(position), String.join(" ", moves));
+    }
+
+    private static Move legalMove(Position position, String uci) {
+        return MoveGeneration.generateLegalMoves(position).stream()
+                .filter(move -> move.toUci().equals(uci))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Not a legal move: " + uci));
+    }
+}
@@ -0,0 +1,102 @@
+package chess.functions.moves;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+import chess.functions.rules.CheckRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The direct evasion and quiet-check generators against filtering every pseudo-legal move
+class MoveGenerationTest {
+
+    private static final int GAMES = 200;
+    private static final int MAX_PLIES = 200;
+    private static final long SEED = 47;
+
+    @Test
+    void generatorsMatchBruteForceAlongRandomGames() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int inCheck = 0;
+        int withQuietChecks = 0;
+        for (int game = 0; game < GAMES; game++) {
+            Position position = FenParser.standPos();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                String where = "game " + game + " ply " + ply;
+                Set<Move> legal = bruteForceLegal(position);
+                assertEquals(legal, new HashSet<>(MoveGeneration.generateLegalMoves(position)), where);
+
+                if (CheckRules.isInCheck(position)) {
+                    inCheck++;
+                    Set<Move> evasions = new HashSet<>(MoveGeneration.generateEvasions(position));
+                    assertTrue(evasions.containsAll(legal), where);
+                    assertTrue(new HashSet<>(MoveGeneration.generatePseudoLegalMoves(position)).containsAll(evasions), where);
+                } else {
+                    Position quiet = position;
+                    assertThrows(IllegalArgumentException.class, () -> MoveGeneration.generateEvasions(quiet), where);
+                }
+
+                Set<Move> quietChecks = new HashSet<>();
+                for (Move move : legal) {
+                    if (!move.isCastling() && !move.isPromotion() && !move.isEnPassant() &&
+                            (position.occupied() & (1L << move.to())) == 0 &&
+                            CheckRules.isInCheck(MoveApplication.applyMove(position, move))) {
+                        quietChecks.add(move);
+                    }
+                }
+                List<Move> generated = MoveGeneration.generateQuietChecks(position);
+                assertEquals(quietChecks, new HashSet<>(generated), where);
+                assertEquals(quietChecks.size(), generated.size(), "Duplicate quiet checks, " + where);
+                if (!quietChecks.isEmpty()) {
+                    withQuietChecks++;
+                }
+
+                if (legal.isEmpty()) {
+                    break;
+                }
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                position = MoveApplication.applyMove(position, moves.get(random.nextInt(moves.size())));
+            }
+        }
+        assertTrue(inCheck > 1000 && withQuietChecks > 1000,
+                inCheck + " positions in check, " + withQuietChecks + " with quiet checks");
+    }
+
+    @Test
+    void doubleCheckLeavesOnlyKingMoves() {
+        // Nd6+ with the rook on e1 behind it
+        Position position = FenParser.parse("4k3/8/3N4/8/8/8/8/4R1K1 b - - 0 1");
+        List<Move> evasions = MoveGeneration.generateEvasions(position);
+        assertTrue(!evasions.isEmpty());
+        for (Move move : evasions) {
+            assertEquals(60, move.from(), move.toUci());
+        }
+    }
+
+    @Test
+    void discoveredChecksAreQuietChecks() {
+        // Any bishop move uncovers the rook on e1
+        Position position = FenParser.parse("4k3/8/8/8/8/8/4B3/4R1K1 w - - 0 1");
+        List<Move> checks = MoveGeneration.generateQuietChecks(position);
+        assertEquals(MoveGeneration.generateLegalMoves(position).stream()
+                .filter(move -> move.from() == 12).count(), checks.stream().filter(move -> move.from() == 12).count());
+    }
+
+    private static Set<Move> bruteForceLegal(Position position) {
+        Set<Move> legal = new HashSet<>();
+        for (Move move : MoveGeneration.generatePseudoLegalMoves(position)) {
+            if (!CheckRules.leavesKingInCheck(position, move)) {
+                legal.add(move);
+            }
+        }
+        return legal;
+    }
+}
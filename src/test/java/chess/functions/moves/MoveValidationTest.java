@@ -0,0 +1,98 @@
+package chess.functions.moves;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fuzzes {@link MoveGeneration#isPseudoLegal} and {@link MoveGeneration#isLegal}
+ * against full generation: along random games, every one of the 65536 possible
+ * encodings must be accepted exactly when the generators produce it.
+ */
+class MoveValidationTest {
+
+    private static final int GAMES = 40;
+    private static final int MAX_PLIES = 200;
+    private static final long SEED = 1;
+
+    @Test
+    void everyEncodingMatchesGeneration() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] generated = new int[MoveGeneration.MAX_MOVES];
+        boolean[] pseudoLegal = new boolean[1 << 16];
+        boolean[] legal = new boolean[1 << 16];
+
+        for (int game = 0; game < GAMES; game++) {
+            Position position = FenParser.standPos();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                Arrays.fill(pseudoLegal, false);
+                Arrays.fill(legal, false);
+                int count = MoveGeneration.generatePseudoLegalMoves(position, generated);
+                for (int i = 0; i < count; i++) {
+                    pseudoLegal[generated[i]] = true;
+                }
+                count = MoveGeneration.generateLegalMoves(position, generated);
+                for (int i = 0; i < count; i++) {
+                    legal[generated[i]] = true;
+                }
+
+                for (int move = 0; move < 1 << 16; move++) {
+                    if (MoveGeneration.isPseudoLegal(position, move) != pseudoLegal[move] ||
+                            MoveGeneration.isLegal(position, move) != legal[move]) {
+                        fail(String.format("Move 0x%04x in game %d ply %d: pseudo-legal %b (generated %b), " +
+                                        "legal %b (generated %b)", move, game, ply,
+                                MoveGeneration.isPseudoLegal(position, move), pseudoLegal[move],
+                                MoveGeneration.isLegal(position, move), legal[move]));
+                    }
+                }
+
+                if (count == 0) {
+                    break;
+                }
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                position = MoveApplication.applyMove(position, moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    void pinnedPieceMayOnlyMoveAlongThePin() {
+        Position position = FenParser.parse("4k3/8/8/8/4r3/8/4B3/4K3 w - - 0 1");
+        assertTrue(MoveGeneration.isPseudoLegal(position, Move.encode(12, 19, 0, Move.NORMAL)));   // Be2-d3
+        assertFalse(MoveGeneration.isLegal(position, Move.encode(12, 19, 0, Move.NORMAL)));
+    }
+
+    @Test
+    void enPassantMustNotUncoverTheKing() {
+        // exf6 would clear the fifth rank between the rook and the king
+        Position position = FenParser.parse("8/8/8/K3Pp1r/8/8/8/7k w - f6 0 2");
+        int capture = Move.encode(36, 45, 0, Move.EN_PASSANT);
+        assertTrue(MoveGeneration.isPseudoLegal(position, capture));
+        assertFalse(MoveGeneration.isLegal(position, capture));
+    }
+
+    @Test
+    void castlingThroughAnAttackedSquareIsIllegal() {
+        Position position = FenParser.parse("4k3/8/8/8/8/8/5r2/R3K2R w KQ - 0 1");
+        assertFalse(MoveGeneration.isLegal(position, Move.encode(4, 6, 0, Move.CASTLING)));   // f1 attacked
+        assertTrue(MoveGeneration.isLegal(position, Move.encode(4, 2, 0, Move.CASTLING)));
+    }
+
+    @Test
+    void movesFromAnotherPositionAreRejected() {
+        Position position = FenParser.standPos();
+        assertFalse(MoveGeneration.isLegal(position, Move.encode(12, 28, 0, Move.EN_PASSANT)));  // Flag of another move
+        assertFalse(MoveGeneration.isLegal(position, Move.encode(52, 36, 0, Move.NORMAL)));      // Black's e7-e5
+        assertFalse(MoveGeneration.isLegal(position, Move.encode(3, 39, 0, Move.NORMAL)));       // Blocked queen
+        assertTrue(MoveGeneration.isLegal(position, Move.encode(12, 28, 0, Move.NORMAL)));       // e2-e4
+    }
+}
@@ -0,0 +1,110 @@
+package chess.functions.rules;
+
+import chess.data.Color;
+import chess.data.Move;
+import chess.data.PieceType;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The cached enemy attack map against square-by-square attacker lookups
+class CheckRulesTest {
+
+    private static final int GAMES = 50;
+    private static final int MAX_PLIES = 200;
+
+    private static final List<Position> positions = new ArrayList<>();
+    private static final List<Long> expected = new ArrayList<>();
+
+    @BeforeAll
+    static void playRandomGames() {
+        SplittableRandom random = new SplittableRandom(49);
+        for (int game = 0; game < GAMES; game++) {
+            Position position = FenParser.standPos();
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                positions.add(position);
+                expected.add(attackedSquares(position));
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position = MoveApplication.applyMove(position, moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    void enemyAttacksMatchEverySquare() {
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            assertEquals(expected.get(i), CheckRules.enemyAttacks(position), "position " + i);
+            Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+            int king = Long.numberOfTrailingZeros(position.bitboards()[PieceType.KING.toBitboardIndex(color)]);
+            assertEquals(CheckRules.attackersOf(position, king, color.opposite(), position.occupied()),
+                    CheckRules.checkers(position), "position " + i);
+            assertEquals(CheckRules.isSquareAttacked(position, king, color.opposite()),
+                    CheckRules.isInCheck(position), "position " + i);
+        }
+    }
+
+    // The one-entry cache must never answer for another position, even one asked about just before
+    @Test
+    void cacheFollowsThePositionAskedAbout() {
+        for (int i = 1; i < positions.size(); i++) {
+            assertEquals(expected.get(i - 1), CheckRules.enemyAttacks(positions.get(i - 1)));
+            assertEquals(expected.get(i), CheckRules.enemyAttacks(positions.get(i)));
+            assertEquals(expected.get(i - 1), CheckRules.enemyAttacks(positions.get(i - 1)));
+        }
+    }
+
+    @Test
+    void threadsKeepTheirOwnCache() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // Each thread walks the positions from a different starting point
+                int offset = t * positions.size() / threads;
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        for (int k = 0; k < positions.size(); k++) {
+                            int i = (offset + k) % positions.size();
+                            assertEquals(expected.get(i), CheckRules.enemyAttacks(positions.get(i)), "position " + i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Squares the side not to move attacks, looking through the mover's king
+    private static long attackedSquares(Position position) {
+        Color color = position.whiteToMove() ? Color.WHITE : Color.BLACK;
+        long occupied = position.occupied() & ~position.bitboards()[PieceType.KING.toBitboardIndex(color)];
+        long attacked = 0;
+        for (int square = 0; square < 64; square++) {
+            if (CheckRules.attackersOf(position, square, color.opposite(), occupied) != 0) {
+                attacked |= 1L << square;
+            }
+        }
+        return attacked;
+    }
+}
@@ -0,0 +1,55 @@
+package chess.functions.rules;
+
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawRulesTest {
+
+    @Test
+    void repetitionsCountSameSideKeysOnly() {
+        // A B C D A B C D A: A recurs every four plies
+        long[] keys = { 1, 2, 3, 4, 1, 2, 3, 4, 1 };
+        assertEquals(2, DrawRules.countRepetitions(keys, keys.length, 100));
+        assertTrue(DrawRules.isThreefoldRepetition(keys, keys.length, 100));
+        assertEquals(1, DrawRules.countRepetitions(keys, 5, 100));
+        assertTrue(DrawRules.isRepetition(keys, 5, 100));
+        assertFalse(DrawRules.isThreefoldRepetition(keys, 5, 100));
+
+        // The same key with the other side to move is another position
+        assertEquals(0, DrawRules.countRepetitions(new long[] { 1, 2, 3, 4, 5, 1 }, 6, 100));
+    }
+
+    @Test
+    void irreversibleMoveEndsTheScan() {
+        long[] keys = { 1, 2, 3, 4, 1, 2, 3, 4, 1 };
+        // Only the last four plies are reversible: the first A is out of reach
+        assertEquals(1, DrawRules.countRepetitions(keys, keys.length, 4));
+        assertFalse(DrawRules.isThreefoldRepetition(keys, keys.length, 4));
+        assertFalse(DrawRules.isRepetition(keys, keys.length, 3));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "4k3/8/8/8/8/8/8/4K3 w - - 0 1, true",         // K vs K
+            "4k3/8/8/8/8/8/8/4KN2 w - - 0 1, true",        // KN vs K
+            "4k3/8/8/8/8/8/8/4KB2 w - - 0 1, true",        // KB vs K
+            "4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1, true",      // Bishops on c1 and f8, both dark
+            "4k1b1/8/8/8/8/8/8/2B1K3 w - - 0 1, false",    // c1 dark, g8 light
+            "4k3/8/8/8/8/8/8/B1B1K3 w - - 0 1, true",      // Two bishops on dark squares
+            "4k3/8/8/8/8/8/8/1BB1K3 w - - 0 1, false",     // The bishop pair
+            "4kn2/8/8/8/8/8/8/4KN2 w - - 0 1, false",      // KN vs KN can still mate
+            "4k3/8/8/8/8/8/8/4KNN1 w - - 0 1, false",
+            "4k3/8/8/8/8/8/8/4KBN1 w - - 0 1, false",
+            "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1, false",
+            "4k3/8/8/8/8/8/8/4K2R w - - 0 1, false",
+    })
+    void insufficientMaterial(String fen, boolean dead) {
+        assertEquals(dead, DrawRules.hasInsufficientMaterial(FenParser.parse(fen)));
+    }
+}
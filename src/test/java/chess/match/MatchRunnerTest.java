@@ -0,0 +1,61 @@
+package chess.match;
+
+import chess.data.Game;
+import chess.data.GameState;
+import chess.data.Move;
+import chess.functions.moves.MoveGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class MatchRunnerTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static EngineConfig random(String name, long seed) {
+        return new EngineConfig(name, () -> {
+            SplittableRandom random = new SplittableRandom(seed);
+            return (game, remaining, increment) -> {
+                List<Move> moves = MoveGeneration.generateLegalMoves(game.position());
+                return moves.get(random.nextInt(moves.size()));
+            };
+        });
+    }
+
+    @Test
+    void randomGamesReachAResult() {
+        for (long seed = 0; seed < 20; seed++) {
+            GameState state = MatchRunner.playGame(random("a", seed), random("b", seed + 100), START,
+                    TimeControl.of(60_000, 0));
+            assertFalse(state instanceof GameState.Ongoing, "seed " + seed);
+        }
+    }
+
+    @Test
+    void engineOutOfTimeLoses() {
+        EngineConfig slow = new EngineConfig("slow", () -> (game, remaining, increment) -> {
+            try {
+                Thread.sleep(remaining + 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return MoveGeneration.generateLegalMoves(game.position()).get(0);
+        });
+        GameState state = MatchRunner.playGame(slow, random("b", 1), START, TimeControl.of(20, 0));
+        assertEquals(new GameState.BlackWins(GameState.WinType.TIME), state);
+    }
+
+    @Test
+    void matchStopsAtTheGameLimit() {
+        MatchRunner runner = new MatchRunner(random("a", 1), random("b", 2), List.of(START),
+                TimeControl.of(60_000, 0), new Sprt(0, 5, 0.05, 0.05), 4, 8);
+        MatchResult result = runner.run();
+        assertEquals(8, result.games());
+        assertInstanceOf(Sprt.Decision.class, result.decision());
+    }
+}
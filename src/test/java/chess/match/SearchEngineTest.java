@@ -0,0 +1,50 @@
+package chess.match;
+
+import chess.data.Game;
+import chess.data.Move;
+import chess.functions.game.GameFunctions;
+import chess.functions.moves.MoveGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchEngineTest {
+
+    // Philidor's mate: 1. Qg8+ Rxg8 (forced) 2. Nf7#
+    private static final String SMOTHERED = "r6k/6pp/7N/8/2Q5/8/8/6K1 w - - 0 1";
+
+    private static Game game(String fen) {
+        return GameFunctions.initializeGame(Game.fromFen(fen));
+    }
+
+    @Test
+    void ponderHitFinishesThePonderedSearch() {
+        SearchEngine engine = new SearchEngine(1, true);
+        Game game = game(SMOTHERED);
+        Move first = engine.selectMove(game, 2_000, 0);
+        assertEquals("c4g8", first.toUci());
+
+        // The engine ponders on Rxg8, the only reply
+        game = GameFunctions.applyMove(GameFunctions.applyMove(game, first), Move.normal(56, 62));
+        Game afterReply = game;
+        Move mate = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> engine.selectMove(afterReply, 2_000, 0));
+        assertEquals("h6f7", mate.toUci());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), engine::gameOver);
+    }
+
+    @Test
+    void ponderMissSearchesTheActualPosition() {
+        SearchEngine engine = new SearchEngine(1, true);
+        engine.selectMove(game(SMOTHERED), 2_000, 0);
+
+        // A position the engine did not ponder on: the stale ponder result must not be used
+        Game other = game("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        Move reply = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> engine.selectMove(other, 500, 0));
+        assertTrue(MoveGeneration.generateLegalMoves(other.position()).contains(reply), reply.toUci());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), engine::gameOver);
+    }
+}
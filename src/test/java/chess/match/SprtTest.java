@@ -0,0 +1,57 @@
+package chess.match;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SprtTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void boundsFollowAlphaAndBeta() {
+        Sprt sprt = new Sprt(0, 5, 0.05, 0.05);
+        assertEquals(-2.9444389791664403, sprt.lowerBound(), EPSILON);
+        assertEquals(2.9444389791664403, sprt.upperBound(), EPSILON);
+    }
+
+    // Reference values from the normal approximation: n (s1 - s0) (2s - s0 - s1) / (2 var)
+    @Test
+    void llrMatchesGsprtValues() {
+        assertEquals(2.127789745193596, new Sprt(0, 5, 0.05, 0.05).llr(1000, 2000, 900), EPSILON);
+        assertEquals(-9.843486436302689, new Sprt(0, 5, 0.05, 0.05).llr(5000, 10000, 5200), EPSILON);
+        assertEquals(2.174282673619255, new Sprt(-3, 1, 0.05, 0.05).llr(300, 400, 200), EPSILON);
+        assertEquals(1.7337133119290997, new Sprt(0, 10, 0.05, 0.05).llr(60, 20, 20), EPSILON);
+    }
+
+    @Test
+    void llrIsZeroWithoutInformation() {
+        Sprt sprt = new Sprt(0, 5, 0.05, 0.05);
+        assertEquals(0.0, sprt.llr(0, 0, 0));
+        assertEquals(0.0, sprt.llr(0, 100, 0)); // No variance
+    }
+
+    @Test
+    void decidesAtTheBounds() {
+        Sprt sprt = new Sprt(0, 5, 0.05, 0.05);
+        assertEquals(Sprt.Decision.ACCEPT_H1, sprt.decide(sprt.upperBound()));
+        assertEquals(Sprt.Decision.ACCEPT_H0, sprt.decide(sprt.lowerBound()));
+        assertEquals(Sprt.Decision.CONTINUE, sprt.decide(0.0));
+        assertEquals(Sprt.Decision.ACCEPT_H0, sprt.decide(sprt.llr(5000, 10000, 5200)));
+    }
+
+    @Test
+    void eloAndScoreAreInverse() {
+        for (double elo = -400; elo <= 400; elo += 25) {
+            assertEquals(elo, Sprt.eloFromScore(Sprt.scoreFromElo(elo)), 1e-6);
+        }
+        assertEquals(0.5, Sprt.scoreFromElo(0), EPSILON);
+    }
+
+    @Test
+    void rejectsInvalidHypotheses() {
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(5, 0, 0.05, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(0, 5, 0, 0.05));
+    }
+}
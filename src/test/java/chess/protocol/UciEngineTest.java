@@ -0,0 +1,99 @@
+package chess.protocol;
+
+import chess.data.Move;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UciEngineTest {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final UciEngine engine = new UciEngine(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+
+    private List<String> output() {
+        return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    // Runs the commands and returns the lines they printed
+    private List<String> send(String... commands) {
+        int before = output().size();
+        for (String command : commands) {
+            engine.handle(command);
+        }
+        List<String> lines = output();
+        return lines.subList(before, lines.size());
+    }
+
+    // Starts a search and waits for its bestmove line
+    private List<String> go(String... commands) throws InterruptedException {
+        int before = output().size();
+        send(commands);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (output().stream().skip(before).noneMatch(line -> line.startsWith("bestmove"))) {
+            assertTrue(System.currentTimeMillis() < deadline, "no bestmove");
+            Thread.sleep(10);
+        }
+        List<String> lines = output();
+        return lines.subList(before, lines.size());
+    }
+
+    private String bestMove(List<String> lines) {
+        return lines.stream().filter(line -> line.startsWith("bestmove")).findFirst().orElseThrow().split(" ")[1];
+    }
+
+    @Test
+    void handshake() {
+        List<String> lines = send("uci", "isready");
+        assertTrue(lines.contains("uciok"));
+        assertEquals("readyok", lines.get(lines.size() - 1));
+        assertFalse(engine.handle("quit"));
+    }
+
+    @Test
+    void malformedOptionIsReportedAndIgnored() {
+        List<String> lines = send("setoption name Hash value x", "isready");
+        assertTrue(lines.get(0).startsWith("info string error"), lines.get(0));
+        assertEquals("readyok", lines.get(1));
+    }
+
+    @Test
+    void illegalMoveKeepsThePreviousPosition() throws InterruptedException {
+        send("position startpos moves e2e4");
+        List<String> lines = go("position startpos moves e2e4 e7e9", "go depth 2");
+        assertTrue(lines.get(0).startsWith("info string error"), lines.get(0));
+        // Still black to move after 1. e4
+        Set<String> replies = MoveGeneration.generateLegalMoves(
+                        FenParser.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"))
+                .stream().map(Move::toUci).collect(Collectors.toSet());
+        assertTrue(replies.contains(bestMove(lines)), bestMove(lines));
+    }
+
+    @Test
+    void searchReportsBestMoveAndEveryLine() throws InterruptedException {
+        List<String> lines = go("setoption name MultiPV value 3", "position startpos", "go depth 3");
+        Set<String> firstMoves = lines.stream()
+                .filter(line -> line.startsWith("info depth 3 multipv"))
+                .map(line -> line.substring(line.indexOf(" pv ") + 4).split(" ")[0])
+                .collect(Collectors.toSet());
+        assertEquals(3, firstMoves.size(), String.join("\n", lines));
+        assertTrue(firstMoves.contains(bestMove(lines)));
+    }
+
+    @Test
+    void mateIsReportedInMoves() throws InterruptedException {
+        List<String> lines = go("position fen 6k1/5ppp/8/8/8/8/8/4R1K1 w - - 0 1", "go depth 3");
+        assertEquals("e1e8", bestMove(lines));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("score mate 1")), String.join("\n", lines));
+    }
+}
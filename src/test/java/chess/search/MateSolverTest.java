@@ -0,0 +1,101 @@
+package chess.search;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import chess.functions.rules.CheckRules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MateSolverTest {
+
+    @Test
+    void findsShortestMateAndItsLine() {
+        // Morphy: 1. Ra6 and 2. b7# or bxa7#
+        Position position = FenParser.parse("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        MateSolver.Result result = new MateSolver(1).solve(position, 5, 0);
+
+        assertEquals(MateSolver.Status.PROVEN, result.status());
+        assertEquals(2, result.mateIn());
+        assertEquals("a1a6", result.line().get(0).toUci());
+        assertEquals(3, result.line().size());
+        Position end = MoveApplication.applyMoves(position, result.line().toArray(Move[]::new));
+        assertTrue(CheckRules.isInCheck(end) && MoveGeneration.generateLegalMoves(end).isEmpty());
+    }
+
+    @Test
+    void refutesMatesBeyondTheLimit() {
+        Position position = FenParser.parse("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        assertEquals(MateSolver.Status.DISPROVEN, new MateSolver(1).solve(position, 1, 0).status());
+    }
+
+    @Test
+    void stopsAtTheNodeLimit() {
+        Position position = FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        MateSolver.Result result = new MateSolver(1).solve(position, 3, 1000);
+        assertEquals(MateSolver.Status.UNKNOWN, result.status());
+        assertTrue(result.nodes() <= 1000 + MoveGeneration.MAX_MOVES);
+    }
+
+    // A table small enough to fill must still give the right answer after collections
+    @Test
+    void collectionsKeepTheResult() {
+        Position position = FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        MateSolver.Result result = new MateSolver(1).solve(position, 3, 0);
+        assertEquals(MateSolver.Status.DISPROVEN, result.status());
+        assertTrue(result.collections() > 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "6k1/5ppp/8/8/8/8/8/4R1K1 w - - 0 1",
+            "kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5Q2/PPPP1PPP/RNB1K1NR w KQkq - 2 3",
+            "6k1/pp4p1/2p5/2bp4/8/P5Pb/1P3rrP/2BRRN1K b - - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    })
+    void agreesWithBruteForce(String fen) {
+        Position position = FenParser.parse(fen);
+        MateSolver solver = new MateSolver(4);
+        for (int moves = 1; moves <= 2; moves++) {
+            MateSolver.Result result = solver.solve(position, moves, 0);
+            int expected = 0;
+            for (int n = 1; n <= moves && expected == 0; n++) {
+                expected = matesIn(position, n) ? n : 0;
+            }
+            assertEquals(expected > 0 ? MateSolver.Status.PROVEN : MateSolver.Status.DISPROVEN, result.status(),
+                    moves + " moves, line " + result.line().stream().map(Move::toUci).collect(Collectors.joining(" ")));
+            assertEquals(expected, result.mateIn());
+        }
+    }
+
+    // Whether the side to move mates within the given moves, by full-width search
+    private static boolean matesIn(Position position, int moves) {
+        for (Move move : MoveGeneration.generateLegalMoves(position)) {
+            Position reply = MoveApplication.applyMove(position, move);
+            boolean mated = true;
+            boolean any = false;
+            for (Move defence : MoveGeneration.generateLegalMoves(reply)) {
+                any = true;
+                if (moves == 1 || !matesIn(MoveApplication.applyMove(reply, defence), moves - 1)) {
+                    mated = false;
+                    break;
+                }
+            }
+            if (any ? mated : CheckRules.isInCheck(reply)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
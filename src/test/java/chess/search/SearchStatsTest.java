@@ -0,0 +1,48 @@
+package chess.search;
+
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchStatsTest {
+
+    @Test
+    void snapshotsAddUpFieldByField() {
+        SearchStats a = new SearchStats(1, 1000, 400, 300, 150, 60, 200, 180, 3, Math.log(2) * 3);
+        SearchStats b = new SearchStats(2, 3000, 600, 700, 350, 40, 300, 220, 1, Math.log(16));
+
+        assertEquals(new SearchStats(3, 4000, 1000, 1000, 500, 100, 500, 400, 4, Math.log(2) * 7), a.plus(b));
+        assertEquals(a, a.plus(SearchStats.EMPTY));
+    }
+
+    @Test
+    void ratesComeFromTheTotals() {
+        SearchStats stats = new SearchStats(3, 4000, 1000, 1000, 500, 100, 500, 400, 4, Math.log(2) * 7);
+        assertEquals(0.5, stats.ttHitRate());
+        assertEquals(0.1, stats.ttCutoffRate());
+        assertEquals(0.8, stats.firstMoveCutoffRate());
+        assertEquals(0.25, stats.quiescenceShare());
+        // Geometric mean of 2, 2, 2 and 16
+        assertEquals(Math.pow(2, 7.0 / 4), stats.branchingFactor(), 1e-12);
+    }
+
+    @Test
+    void emptySnapshotHasZeroRates() {
+        assertEquals(0.0, SearchStats.EMPTY.ttHitRate());
+        assertEquals(0.0, SearchStats.EMPTY.firstMoveCutoffRate());
+        assertEquals(0.0, SearchStats.EMPTY.quiescenceShare());
+        assertEquals(0.0, SearchStats.EMPTY.branchingFactor());
+    }
+
+    @Test
+    void searchCountsItsNodes() {
+        Search search = new Search(new TranspositionTable(1));
+        search.search(FenParser.standPos(), SearchLimits.depth(4));
+        SearchStats stats = search.lastSearchStats();
+        assertEquals(1, stats.searches());
+        assertEquals(search.nodes(), stats.nodes());
+        assertEquals(3, stats.branchingSamples());
+        assertEquals(stats, search.stats());
+    }
+}
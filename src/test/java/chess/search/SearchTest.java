@@ -0,0 +1,167 @@
+package chess.search;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import chess.functions.rules.CheckRules;
+import chess.tablebase.Signature;
+import chess.tablebase.Tablebase;
+import chess.tablebase.TablebaseGenerator;
+import chess.tablebase.Tablebases;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTest {
+
+    @Test
+    void coveredRootIsAnsweredFromTheTables() {
+        TablebaseGenerator generator = new TablebaseGenerator();
+        generator.generate(Signature.parse("KRvK"));
+        Tablebases tablebases = Tablebases.of(generator.generated().values());
+        Position root = FenParser.parse("8/8/8/4k3/8/8/8/R3K3 w - - 0 1");
+        int value = tablebases.probe(root);
+
+        Search search = new Search(new TranspositionTable(1));
+        search.setTablebases(tablebases);
+        SearchResult result = search.search(root, SearchLimits.depth(1));
+
+        assertEquals(Search.MATE - value, result.score());
+        assertEquals(value, result.principalVariation().size());
+        Position end = MoveApplication.applyMoves(root, result.principalVariation().toArray(Move[]::new));
+        assertTrue(CheckRules.isInCheck(end) && MoveGeneration.generateLegalMoves(end).isEmpty());
+    }
+
+    @Test
+    void capturesIntoCoveredPositionsScoreExactly() {
+        TablebaseGenerator generator = new TablebaseGenerator();
+        generator.generate(Signature.parse("KQvK"));
+        Tablebases tablebases = Tablebases.of(generator.generated().values());
+        // KQvKR is not loaded, but Qxd1 leaves KQvK
+        Position root = FenParser.parse("8/8/4k3/8/8/8/K7/3r3Q w - - 0 1");
+        Position afterCapture = MoveApplication.applyMove(root, Move.normal(7, 3));
+        int value = tablebases.probe(afterCapture);
+        assertTrue(value != Tablebases.NOT_FOUND);
+
+        Search search = new Search(new TranspositionTable(1));
+        search.setTablebases(tablebases);
+        SearchResult result = search.search(root, SearchLimits.depth(3));
+
+        assertEquals("h1d1", result.bestMove().toUci());
+        assertEquals(Search.MATE - 1 - value, result.score());
+    }
+
+    // The longest table mates probed at the deepest plies must stay mate scores, stored independent of ply
+    @Test
+    void tableMatesProbedDeepStayMateScores() {
+        for (int ply = 0; ply < Search.MAX_PLY; ply++) {
+            for (int value = 0; value <= Tablebase.MAX_PLIES; value++) {
+                int score = Search.tablebaseScore(value, ply);
+                String where = "value " + value + " at ply " + ply;
+                assertTrue(new SearchResult(null, score, 1, 0, List.of()).isMateScore(), where);
+                int stored = Search.scoreToTable(score, ply);
+                assertEquals(Search.tablebaseScore(value, 0), stored, where);
+                assertEquals((short) stored, stored, where); // Fits the table's 16 bits
+                assertEquals(score, Search.scoreFromTable(stored, ply), where);
+            }
+        }
+        assertEquals(177, new SearchResult(null, Search.tablebaseScore(253, 100), 1, 0, List.of()).mateInMoves());
+    }
+
+    @Test
+    void multiPvLinesAreDistinctAndOrdered() {
+        Position root = FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        List<SearchResult> lines = new Search(new TranspositionTable(16))
+                .search(root, new long[] { root.zobristHash() }, SearchLimits.depth(3), 4, iteration -> {});
+
+        assertEquals(4, lines.size());
+        assertEquals(4, lines.stream().map(SearchResult::bestMove).distinct().count());
+        for (int k = 1; k < lines.size(); k++) {
+            assertTrue(lines.get(k - 1).score() >= lines.get(k).score());
+        }
+        // The first line is the single-line best move
+        SearchResult single = new Search(new TranspositionTable(16)).search(root, SearchLimits.depth(3));
+        assertEquals(single.score(), lines.get(0).score());
+    }
+
+    @Test
+    void multiPvStopsAtTheRootMoves() {
+        // The rook covers g1 and h2, so taking it is the only legal move
+        Position root = FenParser.parse("k7/8/8/8/8/8/6r1/7K w - - 0 1");
+        List<SearchResult> lines = new Search(new TranspositionTable(1))
+                .search(root, new long[] { root.zobristHash() }, SearchLimits.depth(2), 5, iteration -> {});
+        assertEquals(MoveGeneration.generateLegalMoves(root).size(), lines.size());
+        assertEquals(1, lines.size());
+        assertEquals("h1g2", lines.get(0).bestMove().toUci());
+    }
+
+    @Test
+    void killersFollowThePliesPlayed() {
+        Position root = FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Search search = new Search(new TranspositionTable(1));
+        search.search(root, new long[] { root.zobristHash() }, SearchLimits.depth(5));
+        int played = 1;
+        while (search.killer(played, 0) == 0) {
+            played++;
+        }
+        int[] killers = { search.killer(played, 0), search.killer(played, 1) };
+
+        // After the plies played the old ply is the new root
+        long[] history = new long[played + 1];
+        history[0] = root.zobristHash();
+        for (int i = 1; i <= played; i++) {
+            history[i] = i;
+        }
+        search.carryOverOrdering(history);
+        assertEquals(killers[0], search.killer(0, 0));
+        assertEquals(killers[1], search.killer(0, 1));
+
+        // An unrelated root clears them
+        search.carryOverOrdering(new long[] { 3L });
+        for (int ply = 0; ply < Search.MAX_PLY; ply++) {
+            assertEquals(0, search.killer(ply, 0));
+            assertEquals(0, search.killer(ply, 1));
+        }
+    }
+
+    @Test
+    void stopSentBeforeThePreparedSearchStartsIsKept() {
+        Position root = FenParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        Search search = new Search(new TranspositionTable(1));
+        search.prepare(false);
+        search.stop();
+
+        SearchResult result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> search.search(root, SearchLimits.depth(SearchLimits.MAX_DEPTH)));
+        assertTrue(MoveGeneration.generateLegalMoves(root).contains(result.bestMove()));
+    }
+
+    @Test
+    void ponderSearchWaitsForPonderHit() throws InterruptedException {
+        Position root = FenParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        Search search = new Search(new TranspositionTable(1));
+        search.prepare(true);
+        SearchResult[] result = new SearchResult[1];
+        Thread thread = new Thread(() -> result[0] =
+                search.search(root, new long[] { root.zobristHash() }, SearchLimits.depth(2), 1, lines -> {}, true).get(0));
+        thread.start();
+
+        // Depth 2 is done long before this, but the result is held back
+        thread.join(300);
+        assertTrue(thread.isAlive());
+        assertTrue(search.isPondering());
+
+        search.ponderHit();
+        thread.join(5_000);
+        assertFalse(thread.isAlive());
+        assertEquals(2, result[0].depth());
+    }
+}
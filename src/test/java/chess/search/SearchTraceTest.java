@@ -0,0 +1,86 @@
+package chess.search;
+
+import chess.data.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchTraceTest {
+
+    // Records, in post-order, root R with children X (a, b) and Y (c); the key is the node's name
+    private static void recordTree(SearchTrace trace) {
+        record(trace, 'a', 2);
+        record(trace, 'b', 2);
+        record(trace, 'X', 1);
+        record(trace, 'c', 2);
+        record(trace, 'Y', 1);
+        record(trace, 'R', 0);
+    }
+
+    private static void record(SearchTrace trace, char name, int ply) {
+        int move = ply == 0 ? 0 : Move.normal(name % 64, (name + 8) % 64).encoded();
+        trace.record(name, move, ply, 3 - ply, -200, 150, -75, SearchTrace.Cut.EXACT);
+    }
+
+    private static String shape(SearchTrace.Node node) {
+        StringBuilder shape = new StringBuilder().append((char) node.zobristHash());
+        if (!node.children().isEmpty()) {
+            shape.append('(');
+            node.children().forEach(child -> shape.append(shape(child)));
+            shape.append(')');
+        }
+        return shape.toString();
+    }
+
+    private static List<String> shapes(SearchTrace trace) {
+        return trace.trees().stream().map(SearchTraceTest::shape).toList();
+    }
+
+    @Test
+    void postOrderRecordsRebuildTheTree() {
+        SearchTrace trace = new SearchTrace(16);
+        recordTree(trace);
+        assertEquals(List.of("R(X(ab)Y(c))"), shapes(trace));
+
+        SearchTrace.Node root = trace.trees().get(0);
+        assertNull(root.move());
+        assertEquals(3, root.depth());
+        assertEquals(-200, root.alpha());
+        assertEquals(150, root.beta());
+        assertEquals(-75, root.score());
+        assertEquals(SearchTrace.Cut.EXACT, root.cut());
+        assertEquals(Move.normal('X' % 64, ('X' + 8) % 64), root.children().get(0).move());
+
+        // Two searches of the root in a row give two trees
+        recordTree(trace);
+        assertEquals(List.of("R(X(ab)Y(c))", "R(X(ab)Y(c))"), shapes(trace));
+    }
+
+    @Test
+    void unfinishedParentsLeaveSubtreesAsRoots() {
+        SearchTrace trace = new SearchTrace(16);
+        record(trace, 'a', 2);
+        record(trace, 'b', 2);
+        record(trace, 'X', 1);
+        record(trace, 'c', 2);
+        assertEquals(List.of("X(ab)", "c"), shapes(trace));
+    }
+
+    @Test
+    void wrappedBufferLosesTheOldestSubtrees() {
+        SearchTrace trace = new SearchTrace(4);
+        recordTree(trace);
+        assertEquals(6, trace.count());
+        assertEquals(4, trace.size());
+        // a and b were overwritten, so X keeps no children
+        assertEquals(List.of("R(XY(c))"), shapes(trace));
+
+        trace.clear();
+        assertEquals(List.of(), trace.trees());
+        assertThrows(IllegalArgumentException.class, () -> new SearchTrace(0));
+    }
+}
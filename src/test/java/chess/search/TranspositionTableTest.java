@@ -0,0 +1,68 @@
+package chess.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TranspositionTableTest {
+
+    // A 1 MB table has 65536 slots, so these keys share one
+    private static final long KEY = 0x1234_5678_0000_0042L;
+    private static final long OTHER = KEY + (1L << 16);
+
+    @Test
+    void entriesRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 0xABCD, -1234, 17, TranspositionTable.UPPER);
+
+        long entry = table.probe(KEY);
+        assertEquals(0xABCD, TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(17, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(OTHER));
+    }
+
+    @Test
+    void deeperEntryOfTheCurrentSearchIsKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.newSearch();
+        table.store(KEY, 1, 10, 8, TranspositionTable.EXACT);
+
+        table.store(OTHER, 2, 20, 7, TranspositionTable.EXACT);
+        assertEquals(8, TranspositionTable.depth(table.probe(KEY)));
+        assertEquals(TranspositionTable.MISS, table.probe(OTHER));
+
+        // As deep replaces, and so does the same position at any depth
+        table.store(OTHER, 2, 20, 8, TranspositionTable.EXACT);
+        assertEquals(2, TranspositionTable.move(table.probe(OTHER)));
+        table.store(OTHER, 3, 30, 1, TranspositionTable.LOWER);
+        assertEquals(1, TranspositionTable.depth(table.probe(OTHER)));
+    }
+
+    @Test
+    void entriesOfEarlierSearchesGiveWay() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 1, 10, 30, TranspositionTable.EXACT);
+        table.newSearch();
+
+        table.store(OTHER, 2, 20, 1, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.MISS, table.probe(KEY));
+        assertEquals(1, TranspositionTable.generation(table.probe(OTHER)));
+    }
+
+    @Test
+    void generationWrapsAround() {
+        TranspositionTable table = new TranspositionTable(1);
+        for (int i = 0; i < 64; i++) {
+            table.newSearch();
+        }
+        table.store(KEY, 1, 10, 5, TranspositionTable.EXACT);
+        assertEquals(0, TranspositionTable.generation(table.probe(KEY)));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(KEY));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+}
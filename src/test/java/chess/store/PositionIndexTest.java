@@ -0,0 +1,129 @@
+package chess.store;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.errors.ChessEngineException;
+import chess.functions.moves.MoveApplication;
+import chess.protocol.PGNImporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PositionIndexTest {
+
+    private static final int MAX_PLY = 6;
+
+    private static final String PGN = """
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 1-0
+
+            [Result "0-1"]
+
+            1. e4 c5 2. Nf3 d6 3. d4 cxd4 0-1
+
+            [Result "1/2-1/2"]
+
+            1. d4 Nf6 2. Qxf7 1/2-1/2
+
+            [Result "1/2-1/2"]
+
+            1. d4 d5 2. c4 e6 1/2-1/2
+
+            [Result "*"]
+
+            1. e4 e5 2. Nf3 Nf6 *
+
+            [Result "1-0"]
+
+            1. Nf3 d5 2. d4 Nf6 3. c4 e6 1-0
+            """;
+
+    private static Path build(Path directory, String name, int maxEntriesInMemory) throws IOException {
+        PositionIndexBuilder builder = new PositionIndexBuilder(MAX_PLY, maxEntriesInMemory)
+                .addPgn(new StringReader(PGN));
+        assertEquals(6, builder.games());
+        assertEquals(1, builder.skippedGames()); // Qxf7 is not a legal move
+        Path file = directory.resolve(name);
+        builder.write(file);
+        return file;
+    }
+
+    // Counts {games, white wins, draws, black wins, first game} per position and move, one game at a time
+    private static Map<Long, Map<String, long[]>> naiveCounts(List<Position> positions) {
+        Map<Long, Map<String, long[]>> counts = new HashMap<>();
+        int[] ordinal = { -1 };
+        PGNImporter.forEachRawGame(new StringReader(PGN), raw -> {
+            ordinal[0]++;
+            PGNImporter.ImportedGame game;
+            try {
+                game = raw.parse();
+            } catch (ChessEngineException | IllegalArgumentException e) {
+                return;
+            }
+            Position position = game.start();
+            for (int ply = 0; ply < Math.min(MAX_PLY, game.moves().size()); ply++) {
+                Move move = game.moves().get(ply);
+                positions.add(position);
+                long[] count = counts.computeIfAbsent(position.zobristHash(), k -> new HashMap<>())
+                        .computeIfAbsent(move.toUci(), m -> new long[] { 0, 0, 0, 0, ordinal[0] });
+                count[0]++;
+                switch (game.result()) {
+                    case "1-0" -> count[1]++;
+                    case "1/2-1/2" -> count[2]++;
+                    case "0-1" -> count[3]++;
+                    default -> {}
+                }
+                position = MoveApplication.applyMove(position, move);
+            }
+        });
+        return counts;
+    }
+
+    @Test
+    void spilledIndexMatchesNaiveCounts(@TempDir Path directory) throws IOException {
+        // One entry in memory spills a run after every game
+        PositionIndex index = PositionIndex.open(build(directory, "spilled.bin", 1));
+        List<Position> positions = new ArrayList<>();
+        Map<Long, Map<String, long[]>> expected = naiveCounts(positions);
+
+        assertEquals(expected.values().stream().mapToLong(Map::size).sum(), index.size());
+        for (Position position : positions) {
+            Map<String, long[]> actual = index.moves(position).stream().collect(Collectors.toMap(
+                    stats -> stats.move().toUci(),
+                    stats -> new long[] { stats.games(), stats.whiteWins(), stats.draws(), stats.blackWins(),
+                            stats.firstGame() }));
+            Map<String, long[]> counts = expected.get(position.zobristHash());
+            assertEquals(counts.keySet(), actual.keySet());
+            for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+                assertArrayEquals(entry.getValue(), actual.get(entry.getKey()), entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    void spilledAndInMemoryBuildsAreIdentical(@TempDir Path directory) throws IOException {
+        byte[] spilled = Files.readAllBytes(build(directory, "spilled.bin", 1));
+        byte[] inMemory = Files.readAllBytes(build(directory, "memory.bin", 1 << 20));
+        assertArrayEquals(inMemory, spilled);
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PositionIndexBuilder(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PositionIndexBuilder(1, 0));
+    }
+}
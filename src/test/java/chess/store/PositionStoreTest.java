@@ -0,0 +1,112 @@
+package chess.store;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PositionStoreTest {
+
+    // Appended in turn until the store runs into its second chunk
+    private static final int DISTINCT = 997;
+    private static final int COUNT = PositionStore.CHUNK_SIZE + 300;
+
+    private static final Position[] positions = new Position[DISTINCT];
+
+    @BeforeAll
+    static void randomPositions() {
+        Position start = FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        SplittableRandom random = new SplittableRandom(39);
+        for (int i = 0; i < DISTINCT; i++) {
+            Position position = start;
+            int plies = random.nextInt(40);
+            for (int ply = 0; ply < plies; ply++) {
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position = MoveApplication.applyMove(position, moves.get(random.nextInt(moves.size())));
+            }
+            positions[i] = position;
+        }
+    }
+
+    private static Position expected(long index) {
+        return positions[(int) (index % DISTINCT)];
+    }
+
+    private static PositionStore filled(boolean offHeap) {
+        PositionStore store = offHeap ? PositionStore.offHeap() : PositionStore.onHeap();
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(i, store.append(expected(i)));
+        }
+        return store;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void positionsRoundTripAcrossChunks(boolean offHeap) {
+        PositionStore store = filled(offHeap);
+        assertEquals(COUNT, store.size());
+        assertEquals(offHeap, store.isOffHeap());
+        assertEquals(2L * PositionStore.CHUNK_SIZE * 14 * Long.BYTES, store.capacityBytes());
+
+        for (long i = 0; i < COUNT; i++) {
+            Position stored = store.get(i);
+            Position want = expected(i);
+            assertEquals(want, stored, "position " + i);
+            assertArrayEquals(want.mailbox(), stored.mailbox(), "position " + i);
+            assertEquals(want.halfmoveClock(), stored.halfmoveClock(), "position " + i);
+            assertEquals(want.fullmoveNumber(), stored.fullmoveNumber(), "position " + i);
+            assertEquals(want.zobristHash(), store.view(i).zobristHash(), "position " + i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(COUNT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void bitboardCopySpansTheChunkBoundary(boolean offHeap) {
+        PositionStore store = filled(offHeap);
+        int from = PositionStore.CHUNK_SIZE - 7;
+        int count = 20;
+        long[][] out = new long[12][count + 3];
+        store.copyBitboards(from, count, out, 3);
+        for (int i = 0; i < count; i++) {
+            for (int piece = 0; piece < 12; piece++) {
+                assertEquals(expected(from + i).bitboards()[piece], out[piece][3 + i], "position " + (from + i));
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> store.copyBitboards(COUNT - 5, 10, out, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void scansVisitEveryPositionOnce(boolean offHeap) {
+        PositionStore store = filled(offHeap);
+        long bishopPairs = 0;
+        for (int i = 0; i < COUNT; i++) {
+            bishopPairs += Long.bitCount(expected(i).bitboards()[2]) >= 2 ? 1 : 0;
+        }
+        assertEquals(bishopPairs, store.parallelCount(view -> Long.bitCount(view.bitboard(2)) >= 2));
+
+        long[] indexSum = new long[1];
+        store.parallelForEach(view -> {
+            synchronized (indexSum) {
+                indexSum[0] += view.index();
+            }
+        });
+        assertEquals((long) COUNT * (COUNT - 1) / 2, indexSum[0]);
+        assertEquals(COUNT, store.parallelCount(view -> true));
+    }
+}
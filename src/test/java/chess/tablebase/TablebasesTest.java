@@ -0,0 +1,128 @@
+package chess.tablebase;
+
+import chess.data.Move;
+import chess.data.Position;
+import chess.functions.hash.ZobristHash;
+import chess.functions.moves.MoveApplication;
+import chess.functions.moves.MoveGeneration;
+import chess.functions.parser.FenParser;
+import chess.functions.rules.CheckRules;
+import chess.functions.rules.DrawRules;
+import chess.search.MateSolver;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablebasesTest {
+
+    private static Tablebase kqk;
+    private static Tablebase krk;
+    private static Tablebases tablebases;
+
+    @BeforeAll
+    static void generate() {
+        TablebaseGenerator generator = new TablebaseGenerator();
+        kqk = generator.generate(Signature.parse("KQvK"));
+        krk = generator.generate(Signature.parse("KRvK"));
+        tablebases = Tablebases.of(generator.generated().values());
+    }
+
+    // Longest mates: 10 moves with the queen, 16 with the rook
+    @Test
+    void longestMatesMatchKnownValues() {
+        assertEquals(19, longestWin(kqk));
+        assertEquals(31, longestWin(krk));
+    }
+
+    @Test
+    void knownPositions() {
+        assertEquals(1, tablebases.probe(FenParser.parse("7k/8/6K1/8/8/8/8/R7 w - - 0 1")));       // Ra8#
+        assertEquals(0, tablebases.probe(FenParser.parse("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1")));      // Mated
+        assertEquals(Tablebase.DRAW, tablebases.probe(FenParser.parse("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"))); // Stalemate
+        assertEquals(Tablebase.DRAW, tablebases.probe(FenParser.parse("8/8/8/8/8/8/6kQ/K7 b - - 0 1")));  // Kxh2
+        // Colors reversed: probed through the KRvK table
+        assertEquals(1, tablebases.probe(FenParser.parse("r7/8/8/8/8/6k1/8/7K b - - 0 1")));       // Ra1#
+    }
+
+    // Every win is one ply longer than the shortest loss it can reach, every loss one ply longer than the longest win
+    @Test
+    void valuesAgreeWithTheirChildren() {
+        for (Tablebase table : List.of(kqk, krk)) {
+            int[] squares = new int[table.signature().size()];
+            for (int index = 0; index < table.signature().entryCount(); index++) {
+                int value = table.valueAt(index);
+                if (value == Tablebase.ILLEGAL) {
+                    continue;
+                }
+                Position position = decode(table.signature(), index, squares);
+                int shortestLoss = Integer.MAX_VALUE;
+                int longestWin = -1;
+                boolean draw = false;
+                List<Move> moves = MoveGeneration.generateLegalMoves(position);
+                for (Move move : moves) {
+                    Position child = MoveApplication.applyMove(position, move);
+                    int childValue = DrawRules.hasInsufficientMaterial(child) ? Tablebase.DRAW : tablebases.probe(child);
+                    if (Tablebase.isLoss(childValue)) {
+                        shortestLoss = Math.min(shortestLoss, childValue);
+                    } else if (Tablebase.isWin(childValue)) {
+                        longestWin = Math.max(longestWin, childValue);
+                    } else {
+                        draw = true;
+                    }
+                }
+                String where = table.signature() + " index " + index;
+                if (shortestLoss != Integer.MAX_VALUE) {
+                    assertEquals(shortestLoss + 1, value, where);
+                } else if (draw || moves.isEmpty() && !CheckRules.isInCheck(position)) {
+                    assertEquals(Tablebase.DRAW, value, where);
+                } else {
+                    assertEquals(longestWin + 1, value, where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shortMatesMatchMateSolver() {
+        MateSolver solver = new MateSolver(16);
+        int[] squares = new int[kqk.signature().size()];
+        int checked = 0;
+        for (int index = 0; index < kqk.signature().entryCount(); index += 53) {
+            int value = kqk.valueAt(index);
+            if (!Tablebase.isWin(value) || value > 7) {
+                continue;
+            }
+            Position position = decode(kqk.signature(), index, squares);
+            MateSolver.Result result = solver.solve(position, 4, 0);
+            assertEquals(MateSolver.Status.PROVEN, result.status(), "index " + index);
+            assertEquals((value + 1) / 2, result.mateIn(), "index " + index);
+            checked++;
+        }
+        assertTrue(checked > 100, "Only " + checked + " positions checked");
+    }
+
+    private static int longestWin(Tablebase table) {
+        int longest = 0;
+        for (int index = 0; index < table.signature().entryCount(); index++) {
+            int value = table.valueAt(index);
+            if (Tablebase.isWin(value)) {
+                longest = Math.max(longest, value);
+            }
+        }
+        return longest;
+    }
+
+    private static Position decode(Signature signature, int index, int[] squares) {
+        boolean whiteToMove = signature.decode(index, squares) == 0;
+        long[] bitboards = new long[12];
+        for (int label = 0; label < squares.length; label++) {
+            bitboards[signature.pieces()[label]] |= 1L << squares[label];
+        }
+        return Position.create(bitboards, whiteToMove, (byte) 0, -1, 0, 1,
+                ZobristHash.computeHash(bitboards, whiteToMove, (byte) 0, -1));
+    }
+}
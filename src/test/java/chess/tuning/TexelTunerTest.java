@@ -0,0 +1,51 @@
+package chess.tuning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TexelTunerTest {
+
+    @Test
+    void gradientMatchesFiniteDifferences() throws IOException {
+        TuningSet set = TuningSetTest.labeled();
+        TexelTuner tuner = new TexelTuner(set);
+        double[] gradient = tuner.gradient();
+        assertEquals(tuner.error(), gradient[TexelTuner.PARAMETERS] / set.size(), 1e-12);
+
+        double[] weights = tuner.weights();
+        int checked = 0;
+        for (int parameter = 0; parameter < TexelTuner.PARAMETERS; parameter++) {
+            double h = 0.5;
+            tuner.setWeight(parameter, weights[parameter] + h);
+            double above = tuner.error();
+            tuner.setWeight(parameter, weights[parameter] - h);
+            double below = tuner.error();
+            tuner.setWeight(parameter, weights[parameter]);
+
+            double numeric = (above - below) / (2 * h);
+            double analytic = gradient[parameter] / set.size();
+            assertEquals(numeric, analytic, 1e-6 + 1e-3 * Math.abs(numeric), "parameter " + parameter);
+            if (analytic != 0) {
+                checked++;
+            }
+        }
+        assertTrue(checked > 20, "only " + checked + " parameters in use");
+    }
+
+    @Test
+    void stepsReduceTheError() throws IOException {
+        TexelTuner tuner = new TexelTuner(TuningSetTest.labeled());
+        tuner.fitScale();
+        double before = tuner.error();
+        for (int i = 0; i < 50; i++) {
+            tuner.step(1.0);
+        }
+        assertTrue(tuner.error() < before, tuner.error() + " >= " + before);
+        assertThrows(IllegalArgumentException.class, () -> new TexelTuner(new TuningSet()));
+    }
+}
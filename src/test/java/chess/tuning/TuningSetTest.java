@@ -0,0 +1,73 @@
+package chess.tuning;
+
+import chess.functions.parser.FenParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TuningSetTest {
+
+    static final String LABELED = """
+            rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 [0.5]
+            r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - c9 "1-0";
+            8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1 | 0.0
+            r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1 0-1
+            rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8 1/2-1/2
+            r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10 1-0
+            8/8/4k3/8/2K5/8/3Q4/8 w - - 0 60 1-0
+            not a position 1-0
+            8/8/4k3/8/2K5/8/3Q4/8 w - - 0 60 2.0
+            """;
+
+    static TuningSet labeled() throws IOException {
+        TuningSet set = new TuningSet();
+        assertEquals(2, set.addLabeledFens(new StringReader(LABELED)));
+        // The start position and the symmetric Italian have no features, as every count cancels out
+        assertEquals(5, set.size());
+        return set;
+    }
+
+    @Test
+    void binaryFileRoundTrips(@TempDir Path directory) throws IOException {
+        TuningSet set = labeled();
+        Path file = directory.resolve("set.bin");
+        set.save(file);
+        TuningSet loaded = TuningSet.load(file);
+
+        assertEquals(set.size(), loaded.size());
+        assertEquals(set.featureCount(), loaded.featureCount());
+        double[] weights = new double[TexelTuner.PARAMETERS];
+        for (int parameter = 0; parameter < weights.length; parameter++) {
+            weights[parameter] = TexelTuner.initialWeight(parameter);
+        }
+        for (int i = 0; i < set.size(); i++) {
+            assertEquals(set.result(i), loaded.result(i));
+            assertEquals(set.evaluate(i, weights), loaded.evaluate(i, weights));
+        }
+        assertEquals(1.0, loaded.result(0));
+        assertEquals(0.5, loaded.result(3));
+
+        Files.write(file, new byte[] { 1, 2, 3, 4 });
+        assertThrows(IOException.class, () -> TuningSet.load(file));
+    }
+
+    @Test
+    void featuresReproduceTheEvaluation() {
+        TuningSet set = new TuningSet();
+        // add() checks the features against Evaluation itself
+        assertTrue(set.add(FenParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 0 1"), 0));
+        // Mirrored kings cancel out, leaving no features
+        assertFalse(set.add(FenParser.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), 0.5));
+        assertEquals(1, set.size());
+        assertThrows(IllegalArgumentException.class, () -> set.add(FenParser.standPos(), 1.5));
+    }
+}